@@ -0,0 +1,474 @@
+package net.eqozqq.nostalgialauncherdesktop;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+public class ApkCache {
+    private static final String INDEX_FILE = "index.json";
+    private static final String OBJECTS_DIR = "objects";
+
+    private static final Map<String, ApkCache> caches = new HashMap<>();
+    private static final ExecutorService verifier = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Apk-Verify");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    private final File cacheDir;
+    private final File objectsDir;
+    private final File indexFile;
+    private final Set<String> verifying = new HashSet<>();
+    private final Map<String, Integer> inUse = new HashMap<>();
+    private final Map<String, Set<String>> deferredDeletes = new HashMap<>();
+    private Index index;
+
+    private ApkCache(File cacheDir) {
+        this.cacheDir = cacheDir;
+        this.objectsDir = new File(cacheDir, OBJECTS_DIR);
+        this.indexFile = new File(cacheDir, INDEX_FILE);
+    }
+
+    public static synchronized ApkCache forDir(File cacheDir) {
+        String key = cacheDir.getAbsolutePath();
+        return caches.computeIfAbsent(key, k -> new ApkCache(cacheDir));
+    }
+
+    public synchronized boolean contains(String versionName) {
+        File blob = blobFor(versionName);
+        if (blob != null) {
+            return true;
+        }
+        File legacy = legacyFile(versionName);
+        return legacy.isFile() && legacy.length() > 0;
+    }
+
+    public synchronized File lookup(Version version) {
+        Index idx = index();
+        String versionName = version.getName();
+        File blob = blobFor(versionName);
+        if (blob == null) {
+            blob = adoptLegacy(version);
+            if (blob == null) {
+                return null;
+            }
+        }
+        NameRecord record = idx.names.get(versionName);
+        if (record.url != null && version.getUrl() != null && !record.url.equals(version.getUrl())) {
+            return null;
+        }
+        Blob entry = idx.blobs.get(record.sha256);
+        entry.lastUsed = System.currentTimeMillis();
+        if (entry.verifiedModified != blob.lastModified()) {
+            entry.verified = false;
+        }
+        save();
+        if (!entry.verified) {
+            scheduleVerify(record.sha256);
+        }
+        return blob;
+    }
+
+    public synchronized File store(Version version, File downloaded) throws IOException {
+        String sha256 = sha256(downloaded);
+        String expected = version.getSha256();
+        if (expected != null && !expected.isEmpty() && !expected.equalsIgnoreCase(sha256)) {
+            downloaded.delete();
+            throw new IOException("versionManager.error.hashMismatch:" + version.getName());
+        }
+
+        Index idx = index();
+        if (!objectsDir.exists() && !objectsDir.mkdirs()) {
+            throw new IOException("versionManager.error.createCacheDirFailed:" + objectsDir.getAbsolutePath());
+        }
+        File blob = new File(objectsDir, sha256 + ".apk");
+        deferredDeletes.remove(sha256);
+        Blob entry = idx.blobs.get(sha256);
+        if (entry != null && blob.isFile() && blob.length() == entry.size) {
+            Files.deleteIfExists(downloaded.toPath());
+        } else {
+            Files.move(downloaded.toPath(), blob.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            entry = new Blob();
+            entry.size = blob.length();
+            idx.blobs.put(sha256, entry);
+        }
+        entry.lastUsed = System.currentTimeMillis();
+
+        NameRecord record = new NameRecord();
+        record.sha256 = sha256;
+        record.url = version.getUrl();
+        idx.names.put(version.getName(), record);
+        save();
+        if (!entry.verified) {
+            scheduleVerify(sha256);
+        }
+        return blob;
+    }
+
+    public synchronized void retain(String versionName) {
+        inUse.merge(versionName, 1, Integer::sum);
+    }
+
+    public synchronized void release(String versionName) {
+        inUse.computeIfPresent(versionName, (name, count) -> count > 1 ? count - 1 : null);
+        if (inUse.containsKey(versionName)) {
+            return;
+        }
+        Iterator<Map.Entry<String, Set<String>>> it = deferredDeletes.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Set<String>> deferred = it.next();
+            deferred.getValue().remove(versionName);
+            if (deferred.getValue().isEmpty()) {
+                new File(objectsDir, deferred.getKey() + ".apk").delete();
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized void removeBlob(String sha256) {
+        if (index().blobs.containsKey(sha256)) {
+            remove(sha256);
+            save();
+        }
+    }
+
+    public static String hashOf(File apkFile) throws IOException {
+        String name = apkFile.getName();
+        if (apkFile.getParentFile() != null && OBJECTS_DIR.equals(apkFile.getParentFile().getName())
+                && name.matches("[0-9a-f]{64}\\.apk")) {
+            return name.substring(0, 64);
+        }
+        return sha256(apkFile);
+    }
+
+    public synchronized void clear() {
+        Index idx = index();
+        for (String sha256 : new ArrayList<>(idx.blobs.keySet())) {
+            remove(sha256);
+        }
+        idx.names.clear();
+        File[] leftovers = objectsDir.listFiles();
+        if (leftovers != null) {
+            for (File leftover : leftovers) {
+                String name = leftover.getName();
+                if (name.length() < 64 || !deferredDeletes.containsKey(name.substring(0, 64))) {
+                    leftover.delete();
+                }
+            }
+        }
+        indexFile.delete();
+    }
+
+    public synchronized long getTotalSize() {
+        long total = 0;
+        for (Blob blob : index().blobs.values()) {
+            total += blob.size;
+        }
+        return total;
+    }
+
+    public synchronized int evict(long maxBytes, Predicate<String> isInstalled, String keepVersionName) {
+        if (maxBytes <= 0) {
+            return 0;
+        }
+        Index idx = index();
+        long total = getTotalSize();
+        NameRecord keep = keepVersionName != null ? idx.names.get(keepVersionName) : null;
+        List<Map.Entry<String, Blob>> candidates = new ArrayList<>(idx.blobs.entrySet());
+        candidates.sort((a, b) -> Long.compare(a.getValue().lastUsed, b.getValue().lastUsed));
+        int evicted = 0;
+        for (Map.Entry<String, Blob> candidate : candidates) {
+            if (total <= maxBytes) {
+                break;
+            }
+            String sha256 = candidate.getKey();
+            if ((keep != null && sha256.equals(keep.sha256)) || !usersOf(sha256).isEmpty()
+                    || isOnlySource(sha256, isInstalled)) {
+                continue;
+            }
+            total -= candidate.getValue().size;
+            remove(sha256);
+            evicted++;
+        }
+        if (evicted > 0) {
+            save();
+        }
+        return evicted;
+    }
+
+    private boolean isOnlySource(String sha256, Predicate<String> isInstalled) {
+        for (Map.Entry<String, NameRecord> entry : index().names.entrySet()) {
+            if (!sha256.equals(entry.getValue().sha256) || !isInstalled.test(entry.getKey())) {
+                continue;
+            }
+            if (!isRefetchable(entry.getValue().url)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isRefetchable(String url) {
+        if (url == null || url.isEmpty()) {
+            return false;
+        }
+        if (url.startsWith("http://") || url.startsWith("https://")) {
+            return true;
+        }
+        if (url.startsWith("file:")) {
+            try {
+                return new File(URI.create(url)).isFile();
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private void remove(String sha256) {
+        Index idx = index();
+        Set<String> users = usersOf(sha256);
+        idx.blobs.remove(sha256);
+        idx.names.values().removeIf(record -> sha256.equals(record.sha256));
+        if (users.isEmpty()) {
+            new File(objectsDir, sha256 + ".apk").delete();
+        } else {
+            deferredDeletes.computeIfAbsent(sha256, k -> new HashSet<>()).addAll(users);
+        }
+    }
+
+    private Set<String> usersOf(String sha256) {
+        Set<String> users = new HashSet<>();
+        for (String versionName : inUse.keySet()) {
+            NameRecord record = index().names.get(versionName);
+            if (record != null && sha256.equals(record.sha256)) {
+                users.add(versionName);
+            }
+        }
+        Set<String> deferred = deferredDeletes.get(sha256);
+        if (deferred != null) {
+            users.addAll(deferred);
+        }
+        return users;
+    }
+
+    private File blobFor(String versionName) {
+        Index idx = index();
+        NameRecord record = idx.names.get(versionName);
+        if (record == null) {
+            return null;
+        }
+        Blob entry = idx.blobs.get(record.sha256);
+        File blob = new File(objectsDir, record.sha256 + ".apk");
+        if (entry == null || !blob.isFile() || blob.length() != entry.size) {
+            idx.names.remove(versionName);
+            return null;
+        }
+        return blob;
+    }
+
+    private File adoptLegacy(Version version) {
+        File legacy = legacyFile(version.getName());
+        if (!legacy.isFile()) {
+            return null;
+        }
+        try {
+            if (!hasEntries(legacy)) {
+                System.out.println("Corrupted APK found, deleting: " + legacy.getAbsolutePath());
+                legacy.delete();
+                return null;
+            }
+            return store(new Version(version.getName(), version.getUrl()), legacy);
+        } catch (IOException e) {
+            System.err.println("Failed to add " + legacy + " to the APK cache: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private File legacyFile(String versionName) {
+        return new File(cacheDir, versionName + ".apk");
+    }
+
+    private void scheduleVerify(String sha256) {
+        if (!verifying.add(sha256)) {
+            return;
+        }
+        File blob = new File(objectsDir, sha256 + ".apk");
+        verifier.execute(() -> {
+            boolean valid;
+            try {
+                valid = verify(blob, sha256);
+            } catch (IOException e) {
+                valid = false;
+            }
+            synchronized (ApkCache.this) {
+                verifying.remove(sha256);
+                Blob entry = index().blobs.get(sha256);
+                if (entry == null) {
+                    return;
+                }
+                if (valid) {
+                    entry.verified = true;
+                    entry.verifiedModified = blob.lastModified();
+                } else {
+                    System.err.println("Cached APK failed verification, removing: " + blob.getAbsolutePath());
+                    remove(sha256);
+                }
+                save();
+            }
+        });
+    }
+
+    private static boolean verify(File blob, String sha256) throws IOException {
+        return sha256(blob).equals(sha256) && isIntactZip(blob);
+    }
+
+    static boolean isIntactZip(File file) throws IOException {
+        byte[] buffer = new byte[65536];
+        CRC32 crc = new CRC32();
+        try (ZipFile zip = new ZipFile(file)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                crc.reset();
+                try (InputStream in = zip.getInputStream(entry)) {
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        crc.update(buffer, 0, read);
+                    }
+                }
+                if (entry.getCrc() != -1 && entry.getCrc() != crc.getValue()) {
+                    return false;
+                }
+            }
+        } catch (ZipException e) {
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean hasEntries(File file) {
+        try (ZipFile zip = new ZipFile(file)) {
+            return zip.entries().hasMoreElements();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private Index index() {
+        if (index == null) {
+            index = readIndex();
+        }
+        return index;
+    }
+
+    private Index readIndex() {
+        if (indexFile.exists()) {
+            try (Reader reader = Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8)) {
+                Index read = JsonSupport.GSON.fromJson(reader, Index.class);
+                if (read != null && read.blobs != null && read.names != null) {
+                    return read;
+                }
+            } catch (Exception e) {
+                System.err.println("Ignoring unreadable APK cache index: " + e.getMessage());
+            }
+        }
+        Index fresh = new Index();
+        fresh.blobs = new HashMap<>();
+        fresh.names = new HashMap<>();
+        return fresh;
+    }
+
+    private void save() {
+        Iterator<Map.Entry<String, Blob>> it = index().blobs.entrySet().iterator();
+        while (it.hasNext()) {
+            if (!new File(objectsDir, it.next().getKey() + ".apk").isFile()) {
+                it.remove();
+            }
+        }
+        if (!cacheDir.exists()) {
+            cacheDir.mkdirs();
+        }
+        File temp = new File(cacheDir, INDEX_FILE + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+                JsonSupport.GSON.toJson(index, writer);
+            }
+            Files.move(temp.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    static String sha256(File file) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            byte[] buffer = new byte[65536];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private static class Index {
+        Map<String, Blob> blobs;
+        Map<String, NameRecord> names;
+    }
+
+    private static class Blob {
+        long size;
+        long lastUsed;
+        boolean verified;
+        long verifiedModified;
+    }
+
+    private static class NameRecord {
+        String sha256;
+        String url;
+    }
+}
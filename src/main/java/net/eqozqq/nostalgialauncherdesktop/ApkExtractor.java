@@ -0,0 +1,121 @@
+package net.eqozqq.nostalgialauncherdesktop;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+public class ApkExtractor {
+    private static final int MAX_THREADS = 4;
+
+    public static boolean isGameEntry(String entryName) {
+        return entryName.startsWith("assets/") || entryName.startsWith("res/") || entryName.startsWith("lib/");
+    }
+
+    public static void extract(File apkFile, File targetDir, ProgressCallback callback, Supplier<Boolean> isCancelled)
+            throws IOException {
+        AtomicBoolean failed = new AtomicBoolean();
+        Supplier<Boolean> cancelled = () -> failed.get() || (isCancelled != null && isCancelled.get());
+        String canonicalTargetDir = targetDir.getCanonicalPath() + File.separator;
+
+        try (ZipFile zipFile = new ZipFile(apkFile)) {
+            List<ZipEntry> wanted = new ArrayList<>();
+            long totalSize = 0;
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String entryName = entry.getName();
+                if (!isGameEntry(entryName)) {
+                    continue;
+                }
+                File newFile = new File(targetDir, entryName);
+                if (!newFile.getCanonicalPath().startsWith(canonicalTargetDir)) {
+                    throw new IOException("Zip entry outside target directory: " + entryName);
+                }
+                if (entry.isDirectory()) {
+                    newFile.mkdirs();
+                    continue;
+                }
+                File parentDir = newFile.getParentFile();
+                if (parentDir != null && !parentDir.exists() && !parentDir.mkdirs()) {
+                    continue;
+                }
+                wanted.add(entry);
+                totalSize += Math.max(0, entry.getSize());
+            }
+            wanted.sort(Comparator.comparingLong(ZipEntry::getSize).reversed());
+
+            int threads = Math.max(1, Math.min(MAX_THREADS,
+                    Math.min(Runtime.getRuntime().availableProcessors(), wanted.size())));
+            ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+                Thread t = new Thread(r, "Apk-Extract");
+                t.setDaemon(true);
+                return t;
+            });
+            AtomicLong written = new AtomicLong();
+            long total = totalSize;
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (ZipEntry entry : wanted) {
+                    futures.add(executor.submit(() -> {
+                        extractEntry(zipFile, entry, new File(targetDir, entry.getName()), written, total, callback,
+                                cancelled);
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        failed.set(true);
+                        Throwable cause = e.getCause();
+                        throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+                    } catch (InterruptedException e) {
+                        failed.set(true);
+                        Thread.currentThread().interrupt();
+                        throw new IOException("Cancelled");
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static void extractEntry(ZipFile zipFile, ZipEntry entry, File newFile, AtomicLong written, long total,
+            ProgressCallback callback, Supplier<Boolean> cancelled) throws IOException {
+        if (cancelled.get()) {
+            throw new IOException("Cancelled");
+        }
+        GameDirSync.prepareForOverwrite(newFile);
+        try (InputStream is = zipFile.getInputStream(entry);
+                OutputStream fos = new FileOutputStream(newFile)) {
+            byte[] buffer = new byte[65536];
+            int bytesRead;
+            while ((bytesRead = is.read(buffer)) != -1) {
+                if (cancelled.get()) {
+                    throw new IOException("Cancelled");
+                }
+                fos.write(buffer, 0, bytesRead);
+                long done = written.addAndGet(bytesRead);
+                if (callback != null && total > 0) {
+                    callback.onProgress(Math.min(1.0, (double) done / total));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package net.eqozqq.nostalgialauncherdesktop;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import java.awt.*;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+public class ConsolePanel extends JPanel {
+    private static final int MAX_LINES = 200_000;
+    private static final int FLUSH_INTERVAL_MS = 100;
+    private static final byte LEVEL_INFO = 0;
+    private static final byte LEVEL_WARN = 1;
+    private static final byte LEVEL_ERROR = 2;
+    private static final Pattern ERROR_PATTERN = Pattern.compile(
+            "(?i)\\b(error|fatal|exception|failed|segmentation fault|abort(ed)?)\\b");
+    private static final Pattern WARN_PATTERN = Pattern.compile("(?i)\\bwarn(ing)?\\b");
+
+    private final LocaleManager localeManager;
+    private final boolean isDark;
+    private final double scaleFactor;
+
+    private final List<String> pending = new ArrayList<>();
+    private boolean resetPending;
+    private final LineModel model = new LineModel();
+    private final JList<String> lineList;
+    private final JTextField searchField;
+    private final JComboBox<String> levelFilter;
+    private final JCheckBox autoScrollBox;
+    private final JLabel infoLabel;
+    private Pattern searchPattern;
+
+    public ConsolePanel(LocaleManager localeManager, String themeName, double scaleFactor) {
+        this.localeManager = localeManager;
+        this.isDark = themeName.contains("Dark");
+        this.scaleFactor = scaleFactor;
+
+        setLayout(new BorderLayout());
+        setOpaque(false);
+        setBorder(new EmptyBorder(20, 20, 20, 20));
+
+        JPanel mainCard = createCardPanel();
+        mainCard.setLayout(new BorderLayout(10, 10));
+
+        JLabel titleLabel = new JLabel(localeManager.get("nav.console", "Console"));
+        titleLabel.setFont(getFont(Font.BOLD, 24f));
+        titleLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        titleLabel.setForeground(isDark ? Color.WHITE : Color.BLACK);
+
+        searchField = new JTextField();
+        searchField.setFont(getFont(Font.PLAIN, (float) (13 * scaleFactor)));
+        searchField.putClientProperty("JTextField.placeholderText",
+                localeManager.get("console.search", "Search (regex)..."));
+        searchField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            @Override
+            public void insertUpdate(javax.swing.event.DocumentEvent e) {
+                updateSearch();
+            }
+
+            @Override
+            public void removeUpdate(javax.swing.event.DocumentEvent e) {
+                updateSearch();
+            }
+
+            @Override
+            public void changedUpdate(javax.swing.event.DocumentEvent e) {
+                updateSearch();
+            }
+        });
+        searchField.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (e.getKeyCode() == KeyEvent.VK_ENTER) {
+                    findNext(!e.isShiftDown());
+                }
+            }
+        });
+
+        levelFilter = new JComboBox<>(new String[] {
+                localeManager.get("console.filter.all", "All"),
+                localeManager.get("console.filter.warnings", "Warnings and errors"),
+                localeManager.get("console.filter.errors", "Errors only") });
+        levelFilter.addActionListener(e -> applyLevelFilter());
+
+        autoScrollBox = new JCheckBox(localeManager.get("console.autoScroll", "Auto-scroll"), true);
+        autoScrollBox.setOpaque(false);
+        autoScrollBox.setForeground(isDark ? Color.WHITE : Color.BLACK);
+
+        JButton clearButton = new JButton(localeManager.get("console.clear", "Clear"));
+        clearButton.addActionListener(e -> clear());
+
+        JPanel toolbar = new JPanel(new GridBagLayout());
+        toolbar.setOpaque(false);
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(0, 0, 0, (int) (8 * scaleFactor));
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        gbc.weightx = 1.0;
+        toolbar.add(searchField, gbc);
+        gbc.weightx = 0;
+        toolbar.add(levelFilter, gbc);
+        toolbar.add(autoScrollBox, gbc);
+        gbc.insets = new Insets(0, 0, 0, 0);
+        toolbar.add(clearButton, gbc);
+
+        JPanel headerPanel = new JPanel(new BorderLayout(0, 10));
+        headerPanel.setOpaque(false);
+        headerPanel.add(titleLabel, BorderLayout.NORTH);
+        headerPanel.add(toolbar, BorderLayout.SOUTH);
+        mainCard.add(headerPanel, BorderLayout.NORTH);
+
+        Font mono = new Font(Font.MONOSPACED, Font.PLAIN, (int) (12 * scaleFactor));
+        lineList = new JList<>(model);
+        lineList.setFont(mono);
+        lineList.setFixedCellHeight(lineList.getFontMetrics(mono).getHeight() + 2);
+        lineList.setPrototypeCellValue("W".repeat(200));
+        lineList.setCellRenderer(new LineRenderer());
+        lineList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        lineList.setBackground(isDark ? new Color(20, 20, 20) : new Color(250, 250, 250));
+
+        JScrollPane scrollPane = new JScrollPane(lineList);
+        scrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        mainCard.add(scrollPane, BorderLayout.CENTER);
+
+        infoLabel = new JLabel(" ");
+        infoLabel.setFont(getFont(Font.PLAIN, (float) (12 * scaleFactor)));
+        infoLabel.setForeground(isDark ? new Color(200, 200, 200) : new Color(100, 100, 100));
+        mainCard.add(infoLabel, BorderLayout.SOUTH);
+
+        add(mainCard, BorderLayout.CENTER);
+
+        new Timer(FLUSH_INTERVAL_MS, e -> flush()).start();
+    }
+
+    public void startSession(String title) {
+        synchronized (pending) {
+            pending.clear();
+            pending.add("--- " + title + " ---");
+            resetPending = true;
+        }
+    }
+
+    public void append(String line) {
+        synchronized (pending) {
+            pending.add(line);
+        }
+    }
+
+    public void clear() {
+        synchronized (pending) {
+            pending.clear();
+            resetPending = false;
+        }
+        model.clear();
+        updateInfo();
+    }
+
+    private void flush() {
+        String[] batch;
+        boolean reset;
+        synchronized (pending) {
+            if (pending.isEmpty() && !resetPending) {
+                return;
+            }
+            batch = pending.toArray(new String[0]);
+            pending.clear();
+            reset = resetPending;
+            resetPending = false;
+        }
+        if (reset) {
+            model.clear();
+        }
+        model.addAll(batch);
+        scrollToEndIfNeeded();
+        updateInfo();
+    }
+
+    private void applyLevelFilter() {
+        lineList.clearSelection();
+        model.setMinLevel((byte) levelFilter.getSelectedIndex());
+        scrollToEndIfNeeded();
+    }
+
+    private void scrollToEndIfNeeded() {
+        int size = model.getSize();
+        if (autoScrollBox.isSelected() && size > 0) {
+            lineList.ensureIndexIsVisible(size - 1);
+        }
+    }
+
+    private void updateInfo() {
+        infoLabel.setText(localeManager.get("console.info", model.getTotalLines(), model.getErrorCount()));
+    }
+
+    private void updateSearch() {
+        String text = searchField.getText();
+        if (text.isEmpty()) {
+            searchPattern = null;
+            searchField.putClientProperty("JComponent.outline", null);
+        } else {
+            try {
+                searchPattern = Pattern.compile(text, Pattern.CASE_INSENSITIVE);
+                searchField.putClientProperty("JComponent.outline", null);
+            } catch (PatternSyntaxException e) {
+                searchPattern = null;
+                searchField.putClientProperty("JComponent.outline", "error");
+            }
+        }
+        lineList.repaint();
+    }
+
+    private void findNext(boolean forward) {
+        Pattern pattern = searchPattern;
+        int size = model.getSize();
+        if (pattern == null || size == 0) {
+            return;
+        }
+        int start = lineList.getSelectedIndex();
+        for (int i = 1; i <= size; i++) {
+            int index = forward ? Math.floorMod(start + i, size) : Math.floorMod(start - i, size);
+            if (pattern.matcher(model.getElementAt(index)).find()) {
+                autoScrollBox.setSelected(false);
+                lineList.setSelectedIndex(index);
+                lineList.ensureIndexIsVisible(index);
+                return;
+            }
+        }
+        Toolkit.getDefaultToolkit().beep();
+    }
+
+    private static byte levelOf(String line) {
+        if (ERROR_PATTERN.matcher(line).find()) {
+            return LEVEL_ERROR;
+        }
+        if (WARN_PATTERN.matcher(line).find()) {
+            return LEVEL_WARN;
+        }
+        return LEVEL_INFO;
+    }
+
+    private JPanel createCardPanel() {
+        JPanel card = new JPanel() {
+            @Override
+            protected void paintComponent(Graphics g) {
+                Graphics2D g2d = (Graphics2D) g.create();
+                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                if (isDark) {
+                    g2d.setColor(new Color(30, 30, 30, 200));
+                } else {
+                    g2d.setColor(new Color(255, 255, 255, 200));
+                }
+                g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 15, 15);
+                g2d.dispose();
+                super.paintComponent(g);
+            }
+        };
+        card.setOpaque(false);
+        card.setBorder(new EmptyBorder(20, 20, 20, 20));
+        return card;
+    }
+
+    private Font getFont(int style, float size) {
+        return FontManager.getRegularFont(style, size);
+    }
+
+    private static class LineModel extends AbstractListModel<String> {
+        private final String[] lines = new String[MAX_LINES];
+        private final byte[] levels = new byte[MAX_LINES];
+        private long first;
+        private long next;
+        private int errorCount;
+        private byte minLevel = LEVEL_INFO;
+        private long[] view = new long[1024];
+        private int viewStart;
+        private int viewEnd;
+
+        void addAll(String[] batch) {
+            int oldSize = getSize();
+            int removed = 0;
+            for (String line : batch) {
+                if (next - first == MAX_LINES) {
+                    if (levels[slot(first)] == LEVEL_ERROR) {
+                        errorCount--;
+                    }
+                    lines[slot(first)] = null;
+                    first++;
+                    if (minLevel == LEVEL_INFO) {
+                        removed++;
+                    } else if (viewStart < viewEnd && view[viewStart] < first) {
+                        viewStart++;
+                        removed++;
+                    }
+                }
+                byte level = levelOf(line);
+                lines[slot(next)] = line;
+                levels[slot(next)] = level;
+                if (level == LEVEL_ERROR) {
+                    errorCount++;
+                }
+                if (minLevel != LEVEL_INFO && level >= minLevel) {
+                    addToView(next);
+                }
+                next++;
+            }
+            removed = Math.min(removed, oldSize);
+            if (removed > 0) {
+                fireIntervalRemoved(this, 0, removed - 1);
+            }
+            int size = getSize();
+            if (size > oldSize - removed) {
+                fireIntervalAdded(this, oldSize - removed, size - 1);
+            }
+        }
+
+        void clear() {
+            int oldSize = getSize();
+            Arrays.fill(lines, null);
+            first = next;
+            errorCount = 0;
+            viewStart = 0;
+            viewEnd = 0;
+            if (oldSize > 0) {
+                fireIntervalRemoved(this, 0, oldSize - 1);
+            }
+        }
+
+        void setMinLevel(byte level) {
+            minLevel = level;
+            viewStart = 0;
+            viewEnd = 0;
+            if (level != LEVEL_INFO) {
+                for (long seq = first; seq < next; seq++) {
+                    if (levels[slot(seq)] >= level) {
+                        addToView(seq);
+                    }
+                }
+            }
+            fireContentsChanged(this, 0, Integer.MAX_VALUE);
+        }
+
+        long getTotalLines() {
+            return next - first;
+        }
+
+        int getErrorCount() {
+            return errorCount;
+        }
+
+        byte getLevelAt(int index) {
+            return levels[slot(seqAt(index))];
+        }
+
+        @Override
+        public int getSize() {
+            return minLevel == LEVEL_INFO ? (int) (next - first) : viewEnd - viewStart;
+        }
+
+        @Override
+        public String getElementAt(int index) {
+            String line = lines[slot(seqAt(index))];
+            return line != null ? line : "";
+        }
+
+        private long seqAt(int index) {
+            return minLevel == LEVEL_INFO ? first + index : view[viewStart + index];
+        }
+
+        private void addToView(long seq) {
+            if (viewEnd == view.length) {
+                int live = viewEnd - viewStart;
+                if (live * 2 > view.length) {
+                    view = Arrays.copyOf(view, view.length * 2);
+                }
+                System.arraycopy(view, viewStart, view, 0, live);
+                viewStart = 0;
+                viewEnd = live;
+            }
+            view[viewEnd++] = seq;
+        }
+
+        private static int slot(long seq) {
+            return (int) (seq % MAX_LINES);
+        }
+    }
+
+    private class LineRenderer extends DefaultListCellRenderer {
+        private final Color errorColor = isDark ? new Color(255, 110, 110) : new Color(190, 0, 0);
+        private final Color warnColor = isDark ? new Color(255, 200, 90) : new Color(160, 100, 0);
+        private final Color textColor = isDark ? new Color(220, 220, 220) : new Color(30, 30, 30);
+        private final Color matchColor = isDark ? new Color(90, 80, 20) : new Color(255, 240, 150);
+
+        @Override
+        public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected,
+                boolean cellHasFocus) {
+            super.getListCellRendererComponent(list, value, index, isSelected, false);
+            setBorder(new EmptyBorder(0, 4, 0, 4));
+            if (isSelected) {
+                return this;
+            }
+            byte level = model.getLevelAt(index);
+            setForeground(level == LEVEL_ERROR ? errorColor : level == LEVEL_WARN ? warnColor : textColor);
+            Pattern pattern = searchPattern;
+            if (pattern != null && pattern.matcher(String.valueOf(value)).find()) {
+                setBackground(matchColor);
+            } else {
+                setBackground(list.getBackground());
+            }
+            return this;
+        }
+    }
+}
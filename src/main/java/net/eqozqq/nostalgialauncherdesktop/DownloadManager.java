@@ -0,0 +1,462 @@
+package net.eqozqq.nostalgialauncherdesktop;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import net.eqozqq.nostalgialauncherdesktop.Instances.InstanceManager;
+
+public class DownloadManager {
+    private static final String QUEUE_FILE = "cache" + File.separator + "download_queue.json";
+
+    public enum Priority {
+        FOREGROUND, NORMAL, BACKGROUND
+    }
+
+    public enum State {
+        QUEUED, RUNNING, DONE, FAILED, CANCELLED
+    }
+
+    public interface DownloadListener {
+        void onProgress(DownloadJob job, double progress);
+
+        default void onStateChanged(DownloadJob job, State state) {
+        }
+    }
+
+    private static DownloadManager instance;
+
+    private final Map<String, DownloadJob> inFlight = new LinkedHashMap<>();
+    private final PriorityQueue<DownloadJob> queue = new PriorityQueue<>((a, b) -> a.priority != b.priority
+            ? a.priority.compareTo(b.priority)
+            : Long.compare(a.sequence, b.sequence));
+    private final List<DownloadListener> listeners = new CopyOnWriteArrayList<>();
+    private final RateLimiter rateLimiter = new RateLimiter();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService workers = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "Download-Worker");
+        t.setDaemon(true);
+        return t;
+    });
+    private int maxConcurrent = 3;
+    private int running;
+
+    private DownloadManager() {
+    }
+
+    public static synchronized DownloadManager getInstance() {
+        if (instance == null) {
+            instance = new DownloadManager();
+        }
+        return instance;
+    }
+
+    public synchronized void configure(int maxConcurrent, long maxBytesPerSecond) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        rateLimiter.setBytesPerSecond(maxBytesPerSecond);
+        schedule();
+    }
+
+    public void addListener(DownloadListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(DownloadListener listener) {
+        listeners.remove(listener);
+    }
+
+    public DownloadJob submit(String url, File target, Priority priority) {
+        return submit(url, target, priority, 1, false);
+    }
+
+    public DownloadJob submit(String url, File target, Priority priority, int segments, boolean persistent) {
+        return submit(url, target, priority, segments, persistent, null);
+    }
+
+    public synchronized DownloadJob submit(String url, File target, Priority priority, int segments,
+            boolean persistent, String sha256) {
+        DownloadJob job = inFlight.get(url);
+        if (job != null && !job.future.isDone()) {
+            if (!job.target.equals(target)) {
+                job.extraTargets.add(target);
+            }
+            prioritize(job, priority);
+            job.persistent |= persistent;
+            if (job.sha256 == null) {
+                job.sha256 = sha256;
+            }
+            return job;
+        }
+        job = new DownloadJob(url, target, priority, segments, persistent, sequence.incrementAndGet());
+        job.sha256 = sha256;
+        inFlight.put(url, job);
+        queue.add(job);
+        saveQueue();
+        schedule();
+        return job;
+    }
+
+    public synchronized void prioritize(String url, Priority priority) {
+        DownloadJob job = inFlight.get(url);
+        if (job != null) {
+            prioritize(job, priority);
+        }
+    }
+
+    private void prioritize(DownloadJob job, Priority priority) {
+        if (priority.compareTo(job.priority) >= 0) {
+            return;
+        }
+        boolean queued = queue.remove(job);
+        job.priority = priority;
+        if (queued) {
+            queue.add(job);
+            schedule();
+        }
+    }
+
+    public synchronized List<DownloadJob> getJobs() {
+        return new ArrayList<>(inFlight.values());
+    }
+
+    public void resumePending() {
+        File file = new File(InstanceManager.getDataRoot(), QUEUE_FILE);
+        if (!file.exists()) {
+            return;
+        }
+        PendingJob[] pending = null;
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            pending = JsonSupport.GSON.fromJson(reader, PendingJob[].class);
+        } catch (Exception e) {
+            System.err.println("Ignoring unreadable download queue: " + e.getMessage());
+        }
+        if (pending == null) {
+            return;
+        }
+        for (PendingJob job : pending) {
+            if (job.url != null && job.target != null && !new File(job.target).exists()) {
+                submit(job.url, new File(job.target), Priority.BACKGROUND, Math.max(1, job.segments), true,
+                        job.sha256);
+            }
+        }
+    }
+
+    private synchronized void schedule() {
+        while (!queue.isEmpty()
+                && (running < maxConcurrent || queue.peek().priority == Priority.FOREGROUND)) {
+            DownloadJob job = queue.poll();
+            if (job.future.isDone()) {
+                continue;
+            }
+            running++;
+            job.setState(State.RUNNING);
+            workers.execute(() -> run(job));
+        }
+    }
+
+    private void run(DownloadJob job) {
+        try {
+            FileDownloader downloader = new FileDownloader(MirrorSelector.getInstance().candidates(job.url),
+                    job.target);
+            downloader.setSegments(job.segments);
+            downloader.setExpectedSha256(job.sha256);
+            downloader.setRateLimiter(new RateLimiter() {
+                @Override
+                public void acquire(int bytes) throws IOException {
+                    yieldToForeground(job);
+                    rateLimiter.acquire(bytes);
+                }
+            });
+            job.downloader = downloader;
+            if (job.cancelled) {
+                throw new IOException("Cancelled");
+            }
+            downloader.download(progress -> job.fireProgress(progress), () -> job.cancelled);
+            finish(job, State.DONE, null);
+        } catch (Throwable t) {
+            finish(job, job.cancelled ? State.CANCELLED : State.FAILED, t);
+        }
+    }
+
+    public synchronized boolean hasForegroundWork() {
+        for (DownloadJob job : inFlight.values()) {
+            if (job.priority == Priority.FOREGROUND && job.state == State.RUNNING) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void yieldToForeground(DownloadJob job) throws IOException {
+        while (job.priority == Priority.BACKGROUND && !job.cancelled && hasForegroundWork()) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Cancelled");
+            }
+        }
+    }
+
+    private void finish(DownloadJob job, State state, Throwable error) {
+        synchronized (this) {
+            running--;
+            inFlight.remove(job.url, job);
+            saveQueue();
+            schedule();
+        }
+        if (error == null) {
+            // submit() only adds extra targets while the job is in flight, so the list is final here
+            try {
+                for (File extra : job.extraTargets) {
+                    File parent = extra.getParentFile();
+                    if (parent != null) {
+                        parent.mkdirs();
+                    }
+                    Files.copy(job.target.toPath(), extra.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException e) {
+                state = State.FAILED;
+                error = e;
+            }
+        }
+        job.setState(state);
+        if (error == null) {
+            job.future.complete(job.target);
+        } else {
+            job.future.completeExceptionally(error);
+        }
+    }
+
+    private synchronized void cancel(DownloadJob job) {
+        job.cancelled = true;
+        if (queue.remove(job)) {
+            inFlight.remove(job.url, job);
+            saveQueue();
+            job.setState(State.CANCELLED);
+            job.future.completeExceptionally(new IOException("Cancelled"));
+        } else if (job.downloader != null) {
+            job.downloader.abort();
+        }
+    }
+
+    private void saveQueue() {
+        List<PendingJob> pending = new ArrayList<>();
+        for (DownloadJob job : inFlight.values()) {
+            if (job.persistent) {
+                PendingJob record = new PendingJob();
+                record.url = job.url;
+                record.target = job.target.getAbsolutePath();
+                record.segments = job.segments;
+                record.sha256 = job.sha256;
+                pending.add(record);
+            }
+        }
+        File file = new File(InstanceManager.getDataRoot(), QUEUE_FILE);
+        try {
+            if (pending.isEmpty()) {
+                Files.deleteIfExists(file.toPath());
+                return;
+            }
+            file.getParentFile().mkdirs();
+            try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+                JsonSupport.GSON.toJson(pending, writer);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public class DownloadJob {
+        private final String url;
+        private final File target;
+        private final int segments;
+        private final long sequence;
+        private final List<File> extraTargets = new CopyOnWriteArrayList<>();
+        private final List<DownloadListener> jobListeners = new CopyOnWriteArrayList<>();
+        private final CompletableFuture<File> future = new CompletableFuture<>();
+        private volatile Priority priority;
+        private volatile State state = State.QUEUED;
+        private volatile double progress;
+        private volatile boolean persistent;
+        private volatile String sha256;
+        private volatile boolean cancelled;
+        private volatile FileDownloader downloader;
+        private int waiters;
+
+        private DownloadJob(String url, File target, Priority priority, int segments, boolean persistent,
+                long sequence) {
+            this.url = url;
+            this.target = target;
+            this.priority = priority;
+            this.segments = Math.max(1, segments);
+            this.persistent = persistent;
+            this.sequence = sequence;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public File getTarget() {
+            return target;
+        }
+
+        public File getPartFile() {
+            return new File(target.getParentFile(), target.getName() + ".part");
+        }
+
+        public Priority getPriority() {
+            return priority;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public double getProgress() {
+            return progress;
+        }
+
+        public boolean isDone() {
+            return future.isDone();
+        }
+
+        public void addListener(DownloadListener listener) {
+            jobListeners.add(listener);
+        }
+
+        public void removeListener(DownloadListener listener) {
+            jobListeners.remove(listener);
+        }
+
+        public File await(File requestedTarget, ProgressCallback callback, Supplier<Boolean> isCancelled)
+                throws IOException {
+            DownloadListener listener = callback == null ? null : (job, value) -> callback.onProgress(value);
+            synchronized (this) {
+                waiters++;
+            }
+            if (listener != null) {
+                addListener(listener);
+                callback.onProgress(progress);
+            }
+            try {
+                while (true) {
+                    if (isCancelled != null && isCancelled.get()) {
+                        throw new IOException("Cancelled");
+                    }
+                    try {
+                        future.get(100, TimeUnit.MILLISECONDS);
+                        return requestedTarget != null ? requestedTarget : target;
+                    } catch (TimeoutException e) {
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException("Cancelled");
+                    } catch (ExecutionException e) {
+                        Throwable cause = e.getCause();
+                        throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+                    }
+                }
+            } catch (IOException e) {
+                if ("Cancelled".equals(e.getMessage())) {
+                    cancelIfUnshared();
+                }
+                throw e;
+            } finally {
+                if (listener != null) {
+                    removeListener(listener);
+                }
+                synchronized (this) {
+                    waiters--;
+                }
+            }
+        }
+
+        public void cancelIfUnshared() {
+            synchronized (this) {
+                if (waiters > 1) {
+                    return;
+                }
+            }
+            cancel(this);
+        }
+
+        private void setState(State state) {
+            this.state = state;
+            for (DownloadListener listener : jobListeners) {
+                listener.onStateChanged(this, state);
+            }
+            for (DownloadListener listener : listeners) {
+                listener.onStateChanged(this, state);
+            }
+        }
+
+        private void fireProgress(double value) {
+            progress = value;
+            for (DownloadListener listener : jobListeners) {
+                listener.onProgress(this, value);
+            }
+            for (DownloadListener listener : listeners) {
+                listener.onProgress(this, value);
+            }
+        }
+    }
+
+    public static class RateLimiter {
+        private volatile long bytesPerSecond;
+        private double available;
+        private long lastRefill = System.nanoTime();
+
+        public void setBytesPerSecond(long bytesPerSecond) {
+            this.bytesPerSecond = Math.max(0, bytesPerSecond);
+        }
+
+        public void acquire(int bytes) throws IOException {
+            long rate = bytesPerSecond;
+            if (rate <= 0) {
+                return;
+            }
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                available = Math.min(rate, available + (now - lastRefill) * rate / 1_000_000_000.0);
+                lastRefill = now;
+                available -= bytes;
+                waitNanos = available < 0 ? (long) (-available * 1_000_000_000.0 / rate) : 0;
+            }
+            if (waitNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Cancelled");
+                }
+            }
+        }
+    }
+
+    private static class PendingJob {
+        String url;
+        String target;
+        int segments;
+        String sha256;
+    }
+}
@@ -0,0 +1,527 @@
+package net.eqozqq.nostalgialauncherdesktop;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpHead;
+
+public class FileDownloader {
+    private static final long MIN_SEGMENT_SIZE = 1024 * 1024;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final String STATE_SUFFIX = ".json";
+
+    private final List<String> urls;
+    private final AtomicInteger mirror = new AtomicInteger();
+    private final File outputFile;
+    private int segments = 1;
+    private DownloadManager.RateLimiter rateLimiter;
+    private String expectedSha256;
+
+    private final List<HttpGet> activeRequests = new CopyOnWriteArrayList<>();
+    private volatile boolean aborted;
+    private volatile PartState state;
+
+    public FileDownloader(String url, File outputFile) {
+        this(List.of(url), outputFile);
+    }
+
+    public FileDownloader(List<String> urls, File outputFile) {
+        this.urls = new ArrayList<>(urls);
+        this.outputFile = outputFile;
+    }
+
+    public void setSegments(int segments) {
+        this.segments = Math.max(1, segments);
+    }
+
+    public void setRateLimiter(DownloadManager.RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    public void setExpectedSha256(String expectedSha256) {
+        this.expectedSha256 = expectedSha256 == null || expectedSha256.isEmpty() ? null : expectedSha256;
+    }
+
+    public File getPartFile() {
+        return new File(outputFile.getParentFile(), outputFile.getName() + ".part");
+    }
+
+    public void download(ProgressCallback callback, Supplier<Boolean> isCancelled) throws IOException {
+        aborted = false;
+        Supplier<Boolean> cancelled = () -> aborted || (isCancelled != null && isCancelled.get());
+        File partFile = getPartFile();
+
+        try {
+            for (int restart = 0;; restart++) {
+                try {
+                    downloadParts(partFile, callback, cancelled);
+                    if (state.crossMirror && !isIntact(partFile)) {
+                        throw new ResourceChangedException("file resumed on another mirror failed verification");
+                    }
+                    break;
+                } catch (ResourceChangedException e) {
+                    deletePartFiles();
+                    if ((isCancelled != null && isCancelled.get()) || restart >= urls.size()) {
+                        throw e;
+                    }
+                    System.err.println("Discarding partial download of " + outputFile.getName() + ": "
+                            + e.getMessage());
+                    aborted = false;
+                }
+            }
+        } finally {
+            activeRequests.clear();
+        }
+
+        if (!partFile.exists() || partFile.length() == 0) {
+            throw new IOException("versionManager.error.downloadFailed:" + outputFile.getAbsolutePath());
+        }
+        Files.move(partFile.toPath(), outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        getStateFile().delete();
+    }
+
+    private void downloadParts(File partFile, ProgressCallback callback, Supplier<Boolean> cancelled)
+            throws IOException {
+        String url = currentUrl();
+        PartState remote = new PartState();
+        remote.url = url;
+        boolean ranges = false;
+        if (segments > 1) {
+            HttpHead head = new HttpHead(url);
+            head.setHeader("User-Agent", HttpService.USER_AGENT);
+            try (CloseableHttpResponse response = HttpService.getInstance().execute(head)) {
+                if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
+                    Header length = response.getFirstHeader("Content-Length");
+                    Header acceptRanges = response.getFirstHeader("Accept-Ranges");
+                    remote.totalSize = length != null ? Long.parseLong(length.getValue()) : -1;
+                    remote.readValidators(response);
+                    ranges = acceptRanges != null && "bytes".equalsIgnoreCase(acceptRanges.getValue());
+                }
+            } catch (IOException | NumberFormatException e) {
+                remote.totalSize = -1;
+            }
+        }
+
+        PartState saved = loadState();
+        if (ranges && remote.totalSize >= MIN_SEGMENT_SIZE * 2) {
+            remote.segments = (int) Math.min(Math.min(segments, HttpService.getInstance().getMaxPerHost()),
+                    remote.totalSize / MIN_SEGMENT_SIZE);
+            if (saved != null && !url.equals(saved.url) && saved.segments == remote.segments
+                    && saved.totalSize == remote.totalSize) {
+                state = saved;
+            } else {
+                if (remote.sameLayout(saved)) {
+                    remote.crossMirror = saved.crossMirror;
+                } else {
+                    deletePartFiles();
+                }
+                state = remote;
+            }
+            saveState();
+            downloadSegmented(remote.totalSize, remote.segments, partFile, callback, cancelled);
+        } else {
+            if (saved == null || saved.segments != 1) {
+                deletePartFiles();
+                saved = new PartState();
+                saved.url = url;
+                saved.segments = 1;
+            }
+            state = saved;
+            saveState();
+            downloadWithResume(0, -1, partFile, new AtomicLong(), -1, callback, cancelled);
+        }
+    }
+
+    public void abort() {
+        aborted = true;
+        for (HttpGet request : activeRequests) {
+            request.abort();
+        }
+    }
+
+    private void downloadSegmented(long totalSize, int count, File partFile, ProgressCallback callback,
+            Supplier<Boolean> cancelled) throws IOException {
+        long segmentSize = totalSize / count;
+        AtomicLong downloaded = new AtomicLong();
+        List<File> segmentFiles = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(count, r -> {
+            Thread t = new Thread(r, "Download-Segment");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                long start = i * segmentSize;
+                long end = i == count - 1 ? totalSize - 1 : start + segmentSize - 1;
+                File segmentFile = new File(partFile.getParentFile(), partFile.getName() + "." + i);
+                segmentFiles.add(segmentFile);
+                futures.add(executor.submit(() -> {
+                    downloadWithResume(start, end, segmentFile, downloaded, totalSize, callback, cancelled);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    abort();
+                    awaitQuietly(futures);
+                    Throwable cause = e.getCause();
+                    throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+                } catch (InterruptedException e) {
+                    abort();
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Cancelled");
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (OutputStream out = new FileOutputStream(partFile)) {
+            for (File segmentFile : segmentFiles) {
+                Files.copy(segmentFile.toPath(), out);
+            }
+        }
+        if (partFile.length() != totalSize) {
+            partFile.delete();
+            throw new IOException("versionManager.error.downloadFailed:" + outputFile.getAbsolutePath());
+        }
+        for (File segmentFile : segmentFiles) {
+            segmentFile.delete();
+        }
+    }
+
+    private static void awaitQuietly(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void downloadWithResume(long start, long end, File target,
+            AtomicLong downloaded, long totalSize, ProgressCallback callback, Supplier<Boolean> cancelled)
+            throws IOException {
+        IOException lastError = null;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS + urls.size() - 1; attempt++) {
+            if (cancelled.get()) {
+                throw new IOException("Cancelled");
+            }
+            String url = currentUrl();
+            try {
+                fetchRange(url, start, end, target, downloaded, totalSize, callback, cancelled);
+                return;
+            } catch (ResourceChangedException e) {
+                throw e;
+            } catch (IOException e) {
+                if (cancelled.get() || "Cancelled".equals(e.getMessage())) {
+                    throw new IOException("Cancelled", e);
+                }
+                lastError = e;
+                System.err.println("Download interrupted, resuming " + url + ": " + e.getMessage());
+                failover(url);
+            }
+        }
+        throw lastError;
+    }
+
+    private String currentUrl() {
+        return urls.get(Math.min(mirror.get(), urls.size() - 1));
+    }
+
+    private void failover(String failedUrl) {
+        int index = urls.indexOf(failedUrl);
+        if (index + 1 < urls.size() && mirror.compareAndSet(index, index + 1)) {
+            MirrorSelector.getInstance().reportFailure(failedUrl);
+            System.err.println("Switching to mirror " + urls.get(index + 1));
+        }
+    }
+
+    private void fetchRange(String url, long start, long end, File target,
+            AtomicLong downloaded, long totalSize, ProgressCallback callback, Supplier<Boolean> cancelled)
+            throws IOException {
+        PartState current = state;
+        boolean crossMirror = !url.equals(current.url);
+        long existing = target.exists() ? target.length() : 0;
+        long expected = end >= 0 ? end - start + 1 : -1;
+        if (expected >= 0 && existing > expected) {
+            target.delete();
+            existing = 0;
+        }
+        if (expected >= 0 && existing == expected) {
+            downloaded.addAndGet(existing);
+            return;
+        }
+
+        HttpGet request = HttpService.getInstance().newGet(url);
+        long from = start + existing;
+        if (from > 0 || end >= 0) {
+            request.setHeader("Range", "bytes=" + from + "-" + (end >= 0 ? String.valueOf(end) : ""));
+            String ifRange = current.ifRange();
+            if (ifRange != null && !crossMirror) {
+                request.setHeader("If-Range", ifRange);
+            }
+        }
+        activeRequests.add(request);
+        long counted = 0;
+        boolean completed = false;
+        try (CloseableHttpResponse response = HttpService.getInstance().execute(request)) {
+            int status = response.getStatusLine().getStatusCode();
+            boolean append;
+            if (status == HttpStatus.SC_PARTIAL_CONTENT) {
+                checkPartialContent(response, current, from, crossMirror);
+                append = true;
+            } else if (status == HttpStatus.SC_OK && start == 0 && end < 0) {
+                append = false;
+                existing = 0;
+                HttpEntity body = response.getEntity();
+                PartState fresh = new PartState();
+                fresh.url = url;
+                fresh.segments = 1;
+                fresh.totalSize = body != null ? body.getContentLength() : -1;
+                fresh.readValidators(response);
+                state = fresh;
+                saveState();
+            } else if (status == HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE && end < 0 && existing > 0) {
+                long total = contentRangeTotal(response);
+                if (total < 0 && !crossMirror) {
+                    total = current.totalSize;
+                }
+                if (total != existing || (crossMirror && (total != current.totalSize || !canVerify()))) {
+                    throw new ResourceChangedException("server has " + total + " bytes, " + existing
+                            + " already downloaded");
+                }
+                if (crossMirror) {
+                    markCrossMirror(current.url);
+                }
+                downloaded.addAndGet(existing);
+                completed = true;
+                return;
+            } else if (status == HttpStatus.SC_OK) {
+                throw new ResourceChangedException("server ignored the range request");
+            } else {
+                throw new IOException("HTTP " + status + " while downloading " + url);
+            }
+            counted = existing;
+            downloaded.addAndGet(existing);
+
+            HttpEntity entity = response.getEntity();
+            long size = totalSize;
+            if (size < 0 && entity != null && entity.getContentLength() > 0) {
+                size = entity.getContentLength() + existing;
+            }
+            if (entity != null) {
+                try (InputStream inputStream = entity.getContent();
+                        OutputStream outputStream = new FileOutputStream(target, append)) {
+                    byte[] buffer = new byte[65536];
+                    int bytesRead;
+                    while ((bytesRead = inputStream.read(buffer)) != -1) {
+                        if (cancelled.get()) {
+                            throw new IOException("Cancelled");
+                        }
+                        if (rateLimiter != null) {
+                            rateLimiter.acquire(bytesRead);
+                        }
+                        outputStream.write(buffer, 0, bytesRead);
+                        counted += bytesRead;
+                        long total = downloaded.addAndGet(bytesRead);
+                        if (callback != null && size > 0) {
+                            callback.onProgress(Math.min(1.0, (double) total / size));
+                        }
+                    }
+                }
+            }
+            if (expected >= 0 && target.length() != expected) {
+                throw new IOException("Segment truncated at " + target.length() + " of " + expected + " bytes");
+            }
+            completed = true;
+        } finally {
+            activeRequests.remove(request);
+            if (!completed) {
+                downloaded.addAndGet(-counted);
+            }
+        }
+    }
+
+    private void checkPartialContent(CloseableHttpResponse response, PartState current, long from,
+            boolean crossMirror) throws IOException {
+        Header range = response.getFirstHeader("Content-Range");
+        if (crossMirror) {
+            long total = contentRangeTotal(response);
+            if (current.totalSize < 0 || total != current.totalSize || !canVerify()) {
+                throw new ResourceChangedException("cannot resume " + current.totalSize + " bytes from "
+                        + current.url + " on a mirror reporting " + total + " bytes");
+            }
+        }
+        if (range != null) {
+            String value = range.getValue().trim();
+            int dash = value.indexOf('-');
+            try {
+                if (dash < 0 || Long.parseLong(value.substring(value.indexOf(' ') + 1, dash).trim()) != from) {
+                    throw new ResourceChangedException("unexpected range " + value);
+                }
+            } catch (NumberFormatException e) {
+                throw new ResourceChangedException("unexpected range " + value);
+            }
+            long total = contentRangeTotal(response);
+            if (total >= 0 && current.totalSize >= 0 && total != current.totalSize) {
+                throw new ResourceChangedException("size changed from " + current.totalSize + " to " + total);
+            }
+        }
+        if (crossMirror) {
+            markCrossMirror(current.url);
+            return;
+        }
+        PartState served = new PartState();
+        served.readValidators(response);
+        if (differs(current.etag, served.etag) || differs(current.lastModified, served.lastModified)) {
+            throw new ResourceChangedException("file changed on the server");
+        }
+    }
+
+    private synchronized void markCrossMirror(String origin) throws IOException {
+        if (!state.crossMirror) {
+            System.err.println("Resuming " + outputFile.getName() + " from " + origin + " on another mirror");
+            state.crossMirror = true;
+            saveState();
+        }
+    }
+
+    private boolean canVerify() {
+        String name = outputFile.getName().toLowerCase();
+        return expectedSha256 != null || name.endsWith(".apk") || name.endsWith(".zip") || name.endsWith(".jar");
+    }
+
+    private boolean isIntact(File partFile) throws IOException {
+        if (expectedSha256 != null) {
+            return expectedSha256.equalsIgnoreCase(ApkCache.sha256(partFile));
+        }
+        return ApkCache.isIntactZip(partFile);
+    }
+
+    private static boolean differs(String saved, String served) {
+        return saved != null && served != null && !saved.equals(served);
+    }
+
+    private static long contentRangeTotal(CloseableHttpResponse response) {
+        Header range = response.getFirstHeader("Content-Range");
+        if (range == null) {
+            return -1;
+        }
+        String value = range.getValue();
+        int slash = value.lastIndexOf('/');
+        try {
+            return slash >= 0 ? Long.parseLong(value.substring(slash + 1).trim()) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private File getStateFile() {
+        File partFile = getPartFile();
+        return new File(partFile.getParentFile(), partFile.getName() + STATE_SUFFIX);
+    }
+
+    private PartState loadState() {
+        File file = getStateFile();
+        if (!file.exists()) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return JsonSupport.GSON.fromJson(reader, PartState.class);
+        } catch (Exception e) {
+            System.err.println("Ignoring unreadable download state: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private synchronized void saveState() throws IOException {
+        File file = getStateFile();
+        File parent = file.getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            JsonSupport.GSON.toJson(state, writer);
+        }
+    }
+
+    private void deletePartFiles() {
+        File partFile = getPartFile();
+        partFile.delete();
+        File[] leftovers = partFile.getParentFile() != null ? partFile.getParentFile().listFiles() : null;
+        if (leftovers == null) {
+            return;
+        }
+        String prefix = partFile.getName() + ".";
+        for (File leftover : leftovers) {
+            if (leftover.getName().startsWith(prefix)) {
+                leftover.delete();
+            }
+        }
+    }
+
+    private static class PartState {
+        String url;
+        long totalSize = -1;
+        int segments;
+        String etag;
+        String lastModified;
+        boolean crossMirror;
+
+        void readValidators(CloseableHttpResponse response) {
+            Header etagHeader = response.getFirstHeader("ETag");
+            Header modifiedHeader = response.getFirstHeader("Last-Modified");
+            etag = etagHeader != null ? etagHeader.getValue() : null;
+            lastModified = modifiedHeader != null ? modifiedHeader.getValue() : null;
+        }
+
+        String ifRange() {
+            if (etag != null && !etag.startsWith("W/")) {
+                return etag;
+            }
+            return lastModified;
+        }
+
+        boolean sameLayout(PartState saved) {
+            return saved != null && Objects.equals(url, saved.url) && totalSize == saved.totalSize
+                    && segments == saved.segments && Objects.equals(etag, saved.etag)
+                    && Objects.equals(lastModified, saved.lastModified);
+        }
+    }
+
+    private static class ResourceChangedException extends IOException {
+        ResourceChangedException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package net.eqozqq.nostalgialauncherdesktop;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class GameDirSync {
+    public static final String MANIFEST_FILE = ".nld_gamedir.json";
+    public static final String[] SYNCED_DIRS = { "assets", "lib", "res" };
+
+    public enum Strategy {
+        COPY, HARDLINK, REFLINK
+    }
+
+    private final File sourceDir;
+    private final File gameDir;
+    private final Strategy strategy;
+    private boolean linkFailed;
+    private boolean reflinkFailed;
+
+    private int copied;
+    private long copiedBytes;
+    private int deleted;
+    private int unchanged;
+
+    public GameDirSync(File sourceDir, File gameDir) {
+        this(sourceDir, gameDir, Strategy.COPY);
+    }
+
+    public GameDirSync(File sourceDir, File gameDir, Strategy strategy) {
+        this.sourceDir = sourceDir;
+        this.gameDir = gameDir;
+        this.strategy = strategy != null ? strategy : Strategy.COPY;
+    }
+
+    public void sync(String versionName) throws IOException {
+        File manifestFile = new File(gameDir, MANIFEST_FILE);
+        Manifest previous = readManifest(manifestFile);
+        if (previous == null || previous.files == null || !strategy.name().equals(previous.strategy)) {
+            previous = new Manifest();
+            previous.files = new HashMap<>();
+        }
+
+        Manifest next = new Manifest();
+        next.version = versionName;
+        next.strategy = strategy.name();
+        next.files = new LinkedHashMap<>();
+
+        Map<String, BasicFileAttributes> sourceFiles = listFiles(sourceDir.toPath());
+        Map<String, BasicFileAttributes> targetFiles = listFiles(gameDir.toPath());
+
+        // Drop the manifest first so an interrupted sync is re-verified from scratch next time.
+        Files.deleteIfExists(manifestFile.toPath());
+
+        for (Map.Entry<String, BasicFileAttributes> entry : sourceFiles.entrySet()) {
+            String relative = entry.getKey();
+            BasicFileAttributes sourceAttrs = entry.getValue();
+            FileRecord record = previous.files.get(relative);
+            BasicFileAttributes targetAttrs = targetFiles.get(relative);
+            Path source = sourceDir.toPath().resolve(relative);
+            Path target = gameDir.toPath().resolve(relative);
+
+            if (record != null && targetAttrs != null && record.matchesTarget(targetAttrs)) {
+                if (record.matchesSource(sourceAttrs)) {
+                    next.files.put(relative, record);
+                    unchanged++;
+                    continue;
+                }
+                if (record.sourceSize == sourceAttrs.size() && record.hash != null
+                        && record.hash.equals(hash(source))) {
+                    record.sourceModified = sourceAttrs.lastModifiedTime().toMillis();
+                    next.files.put(relative, record);
+                    unchanged++;
+                    continue;
+                }
+            }
+
+            next.files.put(relative, place(source, target, sourceAttrs));
+            copied++;
+            copiedBytes += sourceAttrs.size();
+        }
+
+        for (String relative : targetFiles.keySet()) {
+            if (!sourceFiles.containsKey(relative)) {
+                prepareForOverwrite(gameDir.toPath().resolve(relative).toFile());
+                deleted++;
+            }
+        }
+        for (String dir : SYNCED_DIRS) {
+            pruneEmptyDirs(new File(gameDir, dir), false);
+        }
+
+        writeManifest(manifestFile, next);
+    }
+
+    private FileRecord place(Path source, Path target, BasicFileAttributes sourceAttrs) throws IOException {
+        Path parent = target.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        if (Files.isDirectory(target)) {
+            org.apache.commons.io.FileUtils.deleteDirectory(target.toFile());
+        }
+
+        Path temp = target.resolveSibling(target.getFileName() + ".nldtmp");
+        Files.deleteIfExists(temp);
+        String hash = null;
+        if (strategy == Strategy.HARDLINK && !linkFailed && link(source, temp)) {
+            // The link shares its inode with versions/, so keep it read-only to stop the game
+            // from writing through into the pristine copy.
+            temp.toFile().setWritable(false);
+        } else if (strategy == Strategy.REFLINK && !reflinkFailed && reflink(source, temp)) {
+            temp.toFile().setWritable(true);
+        } else {
+            hash = copy(source, temp);
+        }
+        prepareForOverwrite(target.toFile());
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+
+        BasicFileAttributes targetAttrs = Files.readAttributes(target, BasicFileAttributes.class);
+        FileRecord record = new FileRecord();
+        record.sourceSize = sourceAttrs.size();
+        record.sourceModified = sourceAttrs.lastModifiedTime().toMillis();
+        record.targetSize = targetAttrs.size();
+        record.targetModified = targetAttrs.lastModifiedTime().toMillis();
+        record.hash = hash;
+        return record;
+    }
+
+    private boolean link(Path source, Path temp) {
+        try {
+            Files.createLink(temp, source);
+            return true;
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            System.err.println("Hard links unavailable, falling back to copy: " + e.getMessage());
+            linkFailed = true;
+            return false;
+        }
+    }
+
+    private boolean reflink(Path source, Path temp) {
+        String os = System.getProperty("os.name").toLowerCase();
+        ProcessBuilder processBuilder;
+        if (os.contains("mac")) {
+            processBuilder = new ProcessBuilder("cp", "-c", source.toString(), temp.toString());
+        } else if (os.contains("nix") || os.contains("nux")) {
+            processBuilder = new ProcessBuilder("cp", "--reflink=always", source.toString(), temp.toString());
+        } else {
+            reflinkFailed = true;
+            return false;
+        }
+        try {
+            Process process = processBuilder.redirectErrorStream(true).start();
+            process.getInputStream().transferTo(java.io.OutputStream.nullOutputStream());
+            if (process.waitFor() == 0 && Files.exists(temp)) {
+                return true;
+            }
+        } catch (IOException e) {
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.err.println("Reflink copies unavailable, falling back to copy");
+        reflinkFailed = true;
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException ignored) {
+        }
+        return false;
+    }
+
+    private String copy(Path source, Path temp) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream in = Files.newInputStream(source);
+                java.io.OutputStream out = Files.newOutputStream(temp)) {
+            byte[] buffer = new byte[65536];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    public static void prepareForOverwrite(File file) {
+        if (file.isFile()) {
+            file.setWritable(true);
+            file.delete();
+        }
+    }
+
+    private Map<String, BasicFileAttributes> listFiles(Path root) throws IOException {
+        Map<String, BasicFileAttributes> files = new HashMap<>();
+        for (String dir : SYNCED_DIRS) {
+            Path base = root.resolve(dir);
+            if (!Files.isDirectory(base)) {
+                continue;
+            }
+            List<Path> paths;
+            try (Stream<Path> walk = Files.walk(base)) {
+                paths = walk.collect(Collectors.toList());
+            }
+            for (Path path : paths) {
+                BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+                if (attrs.isRegularFile() && !path.getFileName().toString().endsWith(".nldtmp")) {
+                    files.put(root.relativize(path).toString().replace(File.separatorChar, '/'), attrs);
+                }
+            }
+        }
+        return files;
+    }
+
+    private boolean pruneEmptyDirs(File dir, boolean removeSelf) {
+        if (!dir.isDirectory()) {
+            return false;
+        }
+        File[] children = dir.listFiles();
+        boolean empty = true;
+        if (children != null) {
+            for (File child : children) {
+                if (!child.isDirectory() || !pruneEmptyDirs(child, true)) {
+                    empty = false;
+                }
+            }
+        }
+        return empty && removeSelf && dir.delete();
+    }
+
+    public static String readMaterializedVersion(File gameDir) {
+        Manifest manifest = readManifest(new File(gameDir, MANIFEST_FILE));
+        return manifest != null ? manifest.version : null;
+    }
+
+    public static void invalidate(File gameDir) {
+        new File(gameDir, MANIFEST_FILE).delete();
+    }
+
+    private static Manifest readManifest(File file) {
+        if (!file.exists()) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return JsonSupport.GSON.fromJson(reader, Manifest.class);
+        } catch (Exception e) {
+            System.err.println("Ignoring unreadable game dir manifest: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeManifest(File file, Manifest manifest) throws IOException {
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+            JsonSupport.GSON.toJson(manifest, writer);
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static String hash(Path path) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] buffer = new byte[65536];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    public int getCopied() {
+        return copied;
+    }
+
+    public long getCopiedBytes() {
+        return copiedBytes;
+    }
+
+    public int getDeleted() {
+        return deleted;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    private static class Manifest {
+        String version;
+        String strategy;
+        Map<String, FileRecord> files;
+    }
+
+    private static class FileRecord {
+        long sourceSize;
+        long sourceModified;
+        long targetSize;
+        long targetModified;
+        String hash;
+
+        boolean matchesSource(BasicFileAttributes attrs) {
+            return sourceSize == attrs.size() && sourceModified == attrs.lastModifiedTime().toMillis();
+        }
+
+        boolean matchesTarget(BasicFileAttributes attrs) {
+            return targetSize == attrs.size() && targetModified == attrs.lastModifiedTime().toMillis();
+        }
+    }
+}
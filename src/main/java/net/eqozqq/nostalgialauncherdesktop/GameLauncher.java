@@ -1,9 +1,7 @@
 package net.eqozqq.nostalgialauncherdesktop;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -101,17 +99,4 @@ public class GameLauncher {
             return false;
         }
     }
-
-    public static String readProcessOutput(Process process) {
-        StringBuilder output = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                output.append(line).append("\n");
-            }
-        } catch (IOException e) {
-            output.append("Failed to read process output: ").append(e.getMessage());
-        }
-        return output.toString();
-    }
-}
\ No newline at end of file
+}
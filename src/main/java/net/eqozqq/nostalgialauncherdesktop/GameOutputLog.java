@@ -0,0 +1,185 @@
+package net.eqozqq.nostalgialauncherdesktop;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+public class GameOutputLog {
+    private static final int MAX_LINES = 1000;
+    private static final int MAX_LINE_CHARS = 2000;
+    private static final long MAX_FILE_BYTES = 5L * 1024 * 1024;
+    private static final int MAX_PARTS = 4;
+    private static final int MAX_SESSIONS = 10;
+    private static final String PREFIX = "game-";
+    private static final String SUFFIX = ".log";
+
+    private final ArrayDeque<String> lines = new ArrayDeque<>();
+    private final StringBuilder currentLine = new StringBuilder();
+    private final File logDir;
+    private final String sessionName;
+    private Consumer<String> lineListener;
+    private Writer writer;
+    private long written;
+    private int part;
+
+    public GameOutputLog(File logDir) {
+        this.logDir = logDir;
+        String base = PREFIX + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        String name = base;
+        for (int n = 2; new File(logDir, name + SUFFIX).exists(); n++) {
+            name = base + "-" + n;
+        }
+        this.sessionName = name;
+        pruneSessions();
+        openPart();
+    }
+
+    public void capture(InputStream in) {
+        try (Reader reader = new InputStreamReader(in, Charset.defaultCharset())) {
+            char[] buffer = new char[8192];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                appendToFile(buffer, read);
+                appendLines(buffer, read);
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                addLine("Failed to read process output: " + e.getMessage());
+            }
+        } finally {
+            synchronized (this) {
+                if (currentLine.length() > 0) {
+                    addLine(currentLine.toString());
+                    currentLine.setLength(0);
+                }
+                closeWriter();
+            }
+        }
+    }
+
+    public synchronized void setLineListener(Consumer<String> lineListener) {
+        this.lineListener = lineListener;
+    }
+
+    public synchronized String getTail() {
+        StringBuilder sb = new StringBuilder();
+        for (String line : lines) {
+            sb.append(line).append("\n");
+        }
+        if (currentLine.length() > 0) {
+            sb.append(currentLine);
+        }
+        return sb.toString();
+    }
+
+    public File getSessionFile() {
+        return new File(logDir, sessionName + SUFFIX);
+    }
+
+    private synchronized void appendLines(char[] buffer, int length) {
+        for (int i = 0; i < length; i++) {
+            char c = buffer[i];
+            if (c == '\n') {
+                addLine(currentLine.toString());
+                currentLine.setLength(0);
+            } else if (c != '\r' && currentLine.length() < MAX_LINE_CHARS) {
+                currentLine.append(c);
+            }
+        }
+    }
+
+    private void addLine(String line) {
+        if (lines.size() == MAX_LINES) {
+            lines.removeFirst();
+        }
+        lines.addLast(line);
+        if (lineListener != null) {
+            lineListener.accept(line);
+        }
+    }
+
+    private synchronized void appendToFile(char[] buffer, int length) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.write(buffer, 0, length);
+            writer.flush();
+            written += length;
+            if (written >= MAX_FILE_BYTES) {
+                closeWriter();
+                part++;
+                if (part >= MAX_PARTS) {
+                    new File(logDir, partName(part - MAX_PARTS + 1)).delete();
+                }
+                openPart();
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write game log: " + e.getMessage());
+            closeWriter();
+        }
+    }
+
+    private String partName(int index) {
+        return index == 0 ? sessionName + SUFFIX : sessionName + "." + index + SUFFIX;
+    }
+
+    private void openPart() {
+        if (!logDir.exists() && !logDir.mkdirs()) {
+            System.err.println("Cannot create game log directory " + logDir);
+            return;
+        }
+        try {
+            writer = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(new File(logDir, partName(part))), StandardCharsets.UTF_8));
+            written = 0;
+        } catch (IOException e) {
+            System.err.println("Cannot open game log: " + e.getMessage());
+            writer = null;
+        }
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+            }
+            writer = null;
+        }
+    }
+
+    private void pruneSessions() {
+        File[] files = logDir.listFiles((dir, name) -> name.startsWith(PREFIX) && name.endsWith(SUFFIX));
+        if (files == null) {
+            return;
+        }
+        TreeSet<String> sessions = new TreeSet<>();
+        for (File file : files) {
+            sessions.add(sessionOf(file.getName()));
+        }
+        while (sessions.size() >= MAX_SESSIONS) {
+            String oldest = sessions.pollFirst();
+            Arrays.stream(files).filter(f -> sessionOf(f.getName()).equals(oldest)).forEach(File::delete);
+        }
+    }
+
+    private static String sessionOf(String fileName) {
+        int dot = fileName.indexOf('.');
+        return dot < 0 ? fileName : fileName.substring(0, dot);
+    }
+}
@@ -0,0 +1,110 @@
+package net.eqozqq.nostalgialauncherdesktop;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.CompletableFuture;
+
+public class GameSession {
+    private final Process process;
+    private final File exitFile;
+    private final long startTime = System.currentTimeMillis();
+    private final CompletableFuture<Integer> exitCode = new CompletableFuture<>();
+    private volatile boolean destroyed;
+    private WatchService watcher;
+
+    public GameSession(Process process, File exitFile, boolean watchExitFile) {
+        this.process = process;
+        this.exitFile = exitFile;
+        process.onExit().thenAccept(p -> exitCode.complete(p.exitValue()));
+        if (watchExitFile) {
+            watchExitFile();
+        }
+        exitCode.whenComplete((code, error) -> closeWatcher());
+    }
+
+    public CompletableFuture<Integer> onExit() {
+        return exitCode;
+    }
+
+    public Process getProcess() {
+        return process;
+    }
+
+    public boolean isDestroyed() {
+        return destroyed;
+    }
+
+    public long getRunDuration() {
+        return System.currentTimeMillis() - startTime;
+    }
+
+    public void destroy() {
+        destroyed = true;
+        process.destroy();
+        exitFile.delete();
+        exitCode.complete(0);
+    }
+
+    private void watchExitFile() {
+        Path dir = exitFile.getParentFile().toPath();
+        WatchService service;
+        try {
+            service = dir.getFileSystem().newWatchService();
+            watcher = service;
+            dir.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            System.err.println("Cannot watch " + exitFile + ", relying on process exit only: " + e.getMessage());
+            closeWatcher();
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                while (!exitCode.isDone() && !readExitFile()) {
+                    WatchKey key = service.take();
+                    key.pollEvents();
+                    if (!key.reset()) {
+                        break;
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+            }
+        }, "Game-Exit-Watch");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private boolean readExitFile() {
+        if (!exitFile.exists()) {
+            return false;
+        }
+        try {
+            String content = new String(Files.readAllBytes(exitFile.toPath()), StandardCharsets.UTF_8).trim();
+            if (content.isEmpty()) {
+                return false;
+            }
+            int code = Integer.parseInt(content);
+            exitFile.delete();
+            exitCode.complete(code);
+            return true;
+        } catch (IOException | NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private synchronized void closeWatcher() {
+        if (watcher != null) {
+            try {
+                watcher.close();
+            } catch (IOException e) {
+            }
+            watcher = null;
+        }
+    }
+}
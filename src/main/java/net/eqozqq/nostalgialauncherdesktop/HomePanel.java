@@ -17,6 +17,7 @@ public class HomePanel extends JPanel {
     private JButton addVersionButton;
     private JProgressBar progressBar;
     private JLabel statusLabel;
+    private JLabel resourceLabel;
 
     private final LocaleManager localeManager;
     private final double scaleFactor;
@@ -319,6 +320,16 @@ public class HomePanel extends JPanel {
 
         statusPanel.add(statusLabel);
 
+        resourceLabel = new JLabel(" ");
+        resourceLabel.setFont(getRegularFont(Font.PLAIN, (float) (11 * scaleFactor)));
+        resourceLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        resourceLabel.setForeground(isDark ? new Color(170, 170, 170) : new Color(110, 110, 110));
+        resourceLabel.setOpaque(false);
+        resourceLabel.setVisible(false);
+
+        statusPanel.add(Box.createVerticalStrut((int) (4 * scaleFactor)));
+        statusPanel.add(resourceLabel);
+
         return statusPanel;
     }
 
@@ -421,6 +432,11 @@ public class HomePanel extends JPanel {
         return statusLabel;
     }
 
+    public void setResourceUsage(String text) {
+        resourceLabel.setText(text != null ? text : " ");
+        resourceLabel.setVisible(text != null);
+    }
+
     public void setLaunchListener(ActionListener listener) {
         if (launchListener != null) {
             launchButton.removeActionListener(launchListener);
@@ -0,0 +1,218 @@
+package net.eqozqq.nostalgialauncherdesktop;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+
+public class HttpService {
+    public static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
+
+    private static final long DEFAULT_KEEP_ALIVE_MS = 30_000;
+
+    private static HttpService instance;
+
+    private final Map<String, HostStats> stats = new ConcurrentHashMap<>();
+    private volatile CloseableHttpClient client;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private int connectTimeout = 5000;
+    private int readTimeout = 15000;
+    private int maxPerHost = 6;
+    private int maxTotal = 32;
+
+    private HttpService() {
+        rebuild();
+    }
+
+    public static synchronized HttpService getInstance() {
+        if (instance == null) {
+            instance = new HttpService();
+        }
+        return instance;
+    }
+
+    public synchronized void configure(int connectTimeout, int readTimeout, int maxPerHost) {
+        if (connectTimeout == this.connectTimeout && readTimeout == this.readTimeout
+                && maxPerHost == this.maxPerHost) {
+            return;
+        }
+        this.connectTimeout = Math.max(0, connectTimeout);
+        this.readTimeout = Math.max(0, readTimeout);
+        this.maxPerHost = Math.max(1, maxPerHost);
+        this.maxTotal = Math.max(this.maxTotal, this.maxPerHost * 4);
+        rebuild();
+    }
+
+    private synchronized void rebuild() {
+        CloseableHttpClient oldClient = client;
+
+        connectionManager = new PoolingHttpClientConnectionManager(60, TimeUnit.SECONDS);
+        connectionManager.setDefaultMaxPerRoute(maxPerHost);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setValidateAfterInactivity(2000);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeout)
+                .setSocketTimeout(readTimeout)
+                .setConnectionRequestTimeout(0)
+                .build();
+
+        client = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setUserAgent(USER_AGENT)
+                .setKeepAliveStrategy((response, context) -> {
+                    org.apache.http.HeaderElementIterator it = new org.apache.http.message.BasicHeaderElementIterator(
+                            response.headerIterator(org.apache.http.protocol.HTTP.CONN_KEEP_ALIVE));
+                    while (it.hasNext()) {
+                        org.apache.http.HeaderElement element = it.nextElement();
+                        if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                            try {
+                                return Long.parseLong(element.getValue()) * 1000;
+                            } catch (NumberFormatException ignored) {
+                            }
+                        }
+                    }
+                    return DEFAULT_KEEP_ALIVE_MS;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(60, TimeUnit.SECONDS)
+                .build();
+
+        if (oldClient != null) {
+            try {
+                oldClient.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    public CloseableHttpClient getClient() {
+        return client;
+    }
+
+    public int getMaxPerHost() {
+        return maxPerHost;
+    }
+
+    public HttpGet newGet(String url) {
+        HttpGet request = new HttpGet(url);
+        request.setHeader("User-Agent", USER_AGENT);
+        return request;
+    }
+
+    public CloseableHttpResponse execute(HttpUriRequest request) throws IOException {
+        HostStats hostStats = stats.computeIfAbsent(hostOf(request), h -> new HostStats());
+        long start = System.nanoTime();
+        try {
+            CloseableHttpResponse response = client.execute(request);
+            hostStats.record(System.nanoTime() - start, false);
+            return response;
+        } catch (IOException e) {
+            hostStats.record(System.nanoTime() - start, true);
+            throw e;
+        }
+    }
+
+    public InputStream openStream(String url) throws IOException {
+        CloseableHttpResponse response = execute(newGet(url));
+        int status = response.getStatusLine().getStatusCode();
+        HttpEntity entity = response.getEntity();
+        if (status != HttpStatus.SC_OK || entity == null) {
+            EntityUtils.consumeQuietly(entity);
+            response.close();
+            throw new IOException("HTTP " + status + " for " + url);
+        }
+        return new FilterInputStream(entity.getContent()) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    response.close();
+                }
+            }
+        };
+    }
+
+    public String getString(String url) throws IOException {
+        try (CloseableHttpResponse response = execute(newGet(url))) {
+            int status = response.getStatusLine().getStatusCode();
+            if (status != HttpStatus.SC_OK || response.getEntity() == null) {
+                EntityUtils.consumeQuietly(response.getEntity());
+                throw new IOException("HTTP " + status + " for " + url);
+            }
+            return EntityUtils.toString(response.getEntity(), "UTF-8");
+        }
+    }
+
+    public Map<String, HostStats> getStats() {
+        return new TreeMap<>(stats);
+    }
+
+    public String formatStats() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, HostStats> entry : getStats().entrySet()) {
+            HostStats s = entry.getValue();
+            sb.append(entry.getKey()).append(": ").append(s.getRequests()).append(" requests, ")
+                    .append(s.getFailures()).append(" failed, avg ")
+                    .append(String.format("%.1f", s.getAverageLatencyMillis())).append(" ms, max ")
+                    .append(String.format("%.1f", s.getMaxLatencyMillis())).append(" ms\n");
+        }
+        if (connectionManager != null) {
+            sb.append("pool: ").append(connectionManager.getTotalStats()).append("\n");
+        }
+        return sb.toString();
+    }
+
+    private static String hostOf(HttpUriRequest request) {
+        String host = request.getURI().getHost();
+        return host != null ? host : "unknown";
+    }
+
+    public static class HostStats {
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong totalLatency = new AtomicLong();
+        private final AtomicLong maxLatency = new AtomicLong();
+
+        void record(long latencyNanos, boolean failed) {
+            requests.incrementAndGet();
+            if (failed)
+                failures.incrementAndGet();
+            totalLatency.addAndGet(latencyNanos);
+            maxLatency.accumulateAndGet(latencyNanos, Math::max);
+        }
+
+        public long getRequests() {
+            return requests.get();
+        }
+
+        public long getFailures() {
+            return failures.get();
+        }
+
+        public double getAverageLatencyMillis() {
+            long count = requests.get();
+            return count == 0 ? 0 : totalLatency.get() / 1_000_000.0 / count;
+        }
+
+        public double getMaxLatencyMillis() {
+            return maxLatency.get() / 1_000_000.0;
+        }
+    }
+}
@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.Properties;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import net.eqozqq.nostalgialauncherdesktop.SharedVersionStore;
 
 public class InstanceManager {
     private static final String DEFAULT_INSTANCE = "Default Instance";
@@ -121,6 +122,7 @@ public class InstanceManager {
         }
 
         if (oldDir.renameTo(newDir)) {
+            SharedVersionStore.getInstance().renameInstance(cleanOld, cleanNew);
             if (activeInstance.equals(cleanOld)) {
                 setActiveInstance(cleanNew);
             }
@@ -140,6 +142,7 @@ public class InstanceManager {
             } catch (IOException e) {
                 throw new RuntimeException("Failed to delete instance: " + name, e);
             }
+            SharedVersionStore.getInstance().releaseInstance(name.trim());
             if (activeInstance.equals(name.trim())) {
                 setActiveInstance(DEFAULT_INSTANCE);
             }
@@ -154,6 +157,7 @@ public class InstanceManager {
                 }
             }
         }
+        path.toFile().setWritable(true);
         Files.delete(path);
     }
 
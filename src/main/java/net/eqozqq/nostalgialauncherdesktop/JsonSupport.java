@@ -0,0 +1,70 @@
+package net.eqozqq.nostalgialauncherdesktop;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.Strictness;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class JsonSupport {
+    public static final Gson GSON = new Gson();
+    public static final Gson PRETTY_GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private JsonSupport() {
+    }
+
+    public static <T> List<T> readList(InputStream in, Class<T> type) throws IOException {
+        return readList(new InputStreamReader(in, StandardCharsets.UTF_8), type);
+    }
+
+    public static <T> List<T> readList(Reader reader, Class<T> type) throws IOException {
+        TypeAdapter<T> adapter = GSON.getAdapter(type);
+        JsonReader json = newReader(reader);
+        if (json.peek() == JsonToken.NULL) {
+            json.nextNull();
+            return null;
+        }
+        List<T> items = new ArrayList<>();
+        json.beginArray();
+        while (json.hasNext()) {
+            T item = adapter.read(json);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        json.endArray();
+        return items;
+    }
+
+    public static Map<String, String> readStringMap(Reader reader) throws IOException {
+        JsonReader json = newReader(reader);
+        Map<String, String> map = new HashMap<>();
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            if (json.peek() == JsonToken.STRING || json.peek() == JsonToken.NUMBER) {
+                map.put(name, json.nextString());
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+        return map;
+    }
+
+    private static JsonReader newReader(Reader reader) {
+        JsonReader json = new JsonReader(reader);
+        json.setStrictness(Strictness.LENIENT);
+        return json;
+    }
+}
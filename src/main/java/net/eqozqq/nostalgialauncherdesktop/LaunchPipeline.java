@@ -0,0 +1,263 @@
+package net.eqozqq.nostalgialauncherdesktop;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import net.eqozqq.nostalgialauncherdesktop.Instances.InstanceManager;
+
+public class LaunchPipeline {
+    private static final String HISTORY_FILE = "launch_history.json";
+    private static final int MAX_HISTORY = 50;
+    private static final int WEIGHT_SAMPLES = 10;
+
+    public interface StageBody {
+        void run(StageContext context) throws Exception;
+    }
+
+    public interface Listener {
+        void onStageStarted(Stage stage);
+
+        void onProgress(int percent);
+    }
+
+    private final String version;
+    private final List<Stage> stages = new ArrayList<>();
+    private final Listener listener;
+    private double totalWeight;
+    private double completedWeight;
+    private int lastPercent = -1;
+
+    public LaunchPipeline(String version, Listener listener) {
+        this.version = version;
+        this.listener = listener;
+    }
+
+    public LaunchPipeline stage(String id, String status, String progress, long defaultMs, boolean enabled,
+            StageBody body) {
+        stages.add(new Stage(id, status, progress, defaultMs, enabled, body));
+        return this;
+    }
+
+    public Record run(Supplier<Boolean> isCancelled) throws Exception {
+        List<Record> history = loadHistory();
+        totalWeight = 0;
+        for (Stage stage : stages) {
+            if (stage.enabled) {
+                stage.weight = estimate(history, stage);
+                totalWeight += stage.weight;
+            }
+        }
+
+        Record record = new Record();
+        record.version = version;
+        record.time = System.currentTimeMillis();
+        record.stages = new ArrayList<>();
+        long start = System.nanoTime();
+        for (Stage stage : stages) {
+            StageRecord stageRecord = new StageRecord();
+            stageRecord.id = stage.id;
+            record.stages.add(stageRecord);
+            if (!stage.enabled) {
+                stageRecord.skipped = true;
+                continue;
+            }
+            if (isCancelled.get()) {
+                return null;
+            }
+            listener.onStageStarted(stage);
+            StageContext context = new StageContext(stage);
+            long stageStart = System.nanoTime();
+            stage.body.run(context);
+            stageRecord.durationMs = (System.nanoTime() - stageStart) / 1_000_000;
+            stageRecord.bytes = context.bytes;
+            completedWeight += stage.weight;
+            report(0);
+        }
+        record.totalMs = (System.nanoTime() - start) / 1_000_000;
+        appendHistory(record);
+        return record;
+    }
+
+    private static double estimate(List<Record> history, Stage stage) {
+        long sum = 0;
+        int count = 0;
+        for (int i = history.size() - 1; i >= 0 && count < WEIGHT_SAMPLES; i--) {
+            StageRecord previous = history.get(i).find(stage.id);
+            if (previous != null && !previous.skipped) {
+                sum += previous.durationMs;
+                count++;
+            }
+        }
+        return Math.max(1, count > 0 ? (double) sum / count : stage.defaultMs);
+    }
+
+    private void report(double stageWeight) {
+        int percent = totalWeight > 0 ? (int) Math.min(100, (completedWeight + stageWeight) * 100 / totalWeight) : 100;
+        if (percent != lastPercent) {
+            lastPercent = percent;
+            listener.onProgress(percent);
+        }
+    }
+
+    public static List<Record> loadHistory() {
+        File file = new File(InstanceManager.getDataRoot(), HISTORY_FILE);
+        List<Record> history = new ArrayList<>();
+        if (!file.exists()) {
+            return history;
+        }
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            Record[] read = JsonSupport.GSON.fromJson(reader, Record[].class);
+            if (read != null) {
+                history.addAll(Arrays.asList(read));
+            }
+        } catch (Exception e) {
+            System.err.println("Ignoring unreadable launch history: " + e.getMessage());
+        }
+        return history;
+    }
+
+    public static Record lastLaunch() {
+        List<Record> history = loadHistory();
+        return history.isEmpty() ? null : history.get(history.size() - 1);
+    }
+
+    private static synchronized void appendHistory(Record record) {
+        List<Record> history = loadHistory();
+        history.add(record);
+        if (history.size() > MAX_HISTORY) {
+            history = new ArrayList<>(history.subList(history.size() - MAX_HISTORY, history.size()));
+        }
+        File file = new File(InstanceManager.getDataRoot(), HISTORY_FILE);
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try {
+            file.getParentFile().mkdirs();
+            try (Writer writer = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+                JsonSupport.GSON.toJson(history, writer);
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public static class Stage {
+        private final String id;
+        private final String status;
+        private final String progress;
+        private final long defaultMs;
+        private final boolean enabled;
+        private final StageBody body;
+        private double weight;
+
+        private Stage(String id, String status, String progress, long defaultMs, boolean enabled, StageBody body) {
+            this.id = id;
+            this.status = status;
+            this.progress = progress;
+            this.defaultMs = defaultMs;
+            this.enabled = enabled;
+            this.body = body;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public String getProgress() {
+            return progress;
+        }
+    }
+
+    public class StageContext {
+        private final Stage stage;
+        private long bytes;
+
+        private StageContext(Stage stage) {
+            this.stage = stage;
+        }
+
+        public void progress(double fraction) {
+            report(stage.weight * Math.max(0, Math.min(1, fraction)));
+        }
+
+        public void addBytes(long count) {
+            bytes += count;
+        }
+    }
+
+    public static class Record {
+        String version;
+        long time;
+        long totalMs;
+        List<StageRecord> stages;
+
+        public String getVersion() {
+            return version;
+        }
+
+        public long getTotalMs() {
+            return totalMs;
+        }
+
+        public List<StageRecord> getStages() {
+            return stages;
+        }
+
+        public StageRecord find(String id) {
+            if (stages != null) {
+                for (StageRecord stage : stages) {
+                    if (stage.id.equals(id)) {
+                        return stage;
+                    }
+                }
+            }
+            return null;
+        }
+
+        public StageRecord slowest() {
+            StageRecord slowest = null;
+            if (stages != null) {
+                for (StageRecord stage : stages) {
+                    if (!stage.skipped && (slowest == null || stage.durationMs > slowest.durationMs)) {
+                        slowest = stage;
+                    }
+                }
+            }
+            return slowest;
+        }
+    }
+
+    public static class StageRecord {
+        String id;
+        long durationMs;
+        long bytes;
+        boolean skipped;
+
+        public String getId() {
+            return id;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public boolean isSkipped() {
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package net.eqozqq.nostalgialauncherdesktop;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public class LaunchPreparer<T> {
+    public interface Task<T> {
+        T run(Supplier<Boolean> isCancelled) throws Exception;
+    }
+
+    private final AtomicLong generation = new AtomicLong();
+    private String readyKey;
+    private long readyGeneration;
+    private T readyResult;
+    private Thread worker;
+
+    public synchronized void prepare(String key, Task<T> task) {
+        if (isReady(key)) {
+            return;
+        }
+        long current = generation.incrementAndGet();
+        readyKey = null;
+        readyResult = null;
+        Thread previous = worker;
+        Supplier<Boolean> isCancelled = () -> generation.get() != current;
+        worker = new Thread(() -> {
+            if (previous != null) {
+                try {
+                    previous.join();
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            if (isCancelled.get()) {
+                return;
+            }
+            try {
+                T result = task.run(isCancelled);
+                synchronized (this) {
+                    if (!isCancelled.get()) {
+                        readyKey = key;
+                        readyGeneration = current;
+                        readyResult = result;
+                    }
+                }
+            } catch (Exception e) {
+                if (!isCancelled.get()) {
+                    System.err.println("Launch preparation failed: " + e.getMessage());
+                }
+            }
+        }, "Launch-Preparer");
+        worker.setDaemon(true);
+        worker.setPriority(Thread.MIN_PRIORITY);
+        worker.start();
+    }
+
+    public synchronized void invalidate() {
+        generation.incrementAndGet();
+        readyKey = null;
+        readyResult = null;
+    }
+
+    public T claim(String key) {
+        Thread running;
+        synchronized (this) {
+            running = worker;
+        }
+        if (running != null) {
+            try {
+                running.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        synchronized (this) {
+            T result = isReady(key) ? readyResult : null;
+            invalidate();
+            return result;
+        }
+    }
+
+    private boolean isReady(String key) {
+        return key.equals(readyKey) && readyGeneration == generation.get();
+    }
+}
@@ -0,0 +1,228 @@
+package net.eqozqq.nostalgialauncherdesktop;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+
+public class LauncherComponentsManager {
+    private static final String ZIP_FILE = "launcher_components.zip";
+    private static final String MANIFEST_FILE = "launcher_components.json";
+
+    private final File cacheDir;
+    private final File gameDir;
+
+    public LauncherComponentsManager(File cacheDir, File gameDir) {
+        this.cacheDir = cacheDir;
+        this.gameDir = gameDir;
+    }
+
+    public void update(String url, Consumer<Float> progressCallback, Supplier<Boolean> isCancelled)
+            throws IOException {
+        if (!cacheDir.exists())
+            cacheDir.mkdirs();
+        if (!gameDir.exists())
+            gameDir.mkdirs();
+
+        File zipFile = new File(cacheDir, ZIP_FILE);
+        File manifestFile = new File(cacheDir, MANIFEST_FILE);
+        Manifest manifest = readManifest(manifestFile);
+        if (manifest == null || !url.equals(manifest.url) || !zipFile.exists()) {
+            manifest = new Manifest();
+            manifest.url = url;
+        }
+
+        try {
+            if (downloadFromMirrors(url, zipFile, manifest, progressCallback, isCancelled)) {
+                manifest.zipSize = zipFile.length();
+            }
+        } catch (IOException e) {
+            if ("Cancelled".equals(e.getMessage()) || !zipFile.exists() || zipFile.length() != manifest.zipSize) {
+                throw e;
+            }
+            System.err.println("Failed to revalidate launcher components, using cached copy: " + e.getMessage());
+        }
+
+        extract(zipFile, manifest, isCancelled);
+        writeManifest(manifestFile, manifest);
+    }
+
+    private boolean downloadFromMirrors(String url, File zipFile, Manifest manifest,
+            Consumer<Float> progressCallback, Supplier<Boolean> isCancelled) throws IOException {
+        IOException lastError = null;
+        for (String mirrorUrl : MirrorSelector.getInstance().candidates(url)) {
+            try {
+                return download(mirrorUrl, zipFile, manifest, progressCallback, isCancelled);
+            } catch (IOException e) {
+                if ("Cancelled".equals(e.getMessage())) {
+                    throw e;
+                }
+                lastError = e;
+                MirrorSelector.getInstance().reportFailure(mirrorUrl);
+                System.err.println("Failed to download launcher components from " + mirrorUrl + ": " + e.getMessage());
+            }
+        }
+        throw lastError;
+    }
+
+    private boolean download(String url, File zipFile, Manifest manifest, Consumer<Float> progressCallback,
+            Supplier<Boolean> isCancelled) throws IOException {
+        HttpGet httpGet = HttpService.getInstance().newGet(url);
+        if (zipFile.exists() && zipFile.length() == manifest.zipSize) {
+            if (manifest.etag != null)
+                httpGet.setHeader("If-None-Match", manifest.etag);
+            if (manifest.lastModified != null)
+                httpGet.setHeader("If-Modified-Since", manifest.lastModified);
+        }
+        try (CloseableHttpResponse response = HttpService.getInstance().execute(httpGet)) {
+            int status = response.getStatusLine().getStatusCode();
+            if (status == HttpStatus.SC_NOT_MODIFIED) {
+                progressCallback.accept(1f);
+                return false;
+            }
+            if (status != HttpStatus.SC_OK) {
+                throw new IOException("HTTP " + status + " while downloading " + url);
+            }
+            HttpEntity entity = response.getEntity();
+            if (entity == null) {
+                throw new IOException("Empty response while downloading " + url);
+            }
+            File tempFile = new File(cacheDir, ZIP_FILE + ".tmp");
+            long totalSize = entity.getContentLength();
+            try (InputStream is = entity.getContent();
+                    FileOutputStream fos = new FileOutputStream(tempFile)) {
+                byte[] buffer = new byte[8192];
+                int read;
+                long totalRead = 0;
+                while ((read = is.read(buffer)) != -1) {
+                    if (isCancelled != null && isCancelled.get()) {
+                        throw new IOException("Cancelled");
+                    }
+                    fos.write(buffer, 0, read);
+                    totalRead += read;
+                    if (totalSize > 0)
+                        progressCallback.accept((float) totalRead / totalSize);
+                }
+            } catch (IOException e) {
+                tempFile.delete();
+                throw e;
+            }
+            Files.move(tempFile.toPath(), zipFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            manifest.etag = headerValue(response.getFirstHeader("ETag"));
+            manifest.lastModified = headerValue(response.getFirstHeader("Last-Modified"));
+            return true;
+        }
+    }
+
+    private void extract(File zipFile, Manifest manifest, Supplier<Boolean> isCancelled) throws IOException {
+        Map<String, EntryRecord> extracted = manifest.entries != null ? manifest.entries : new HashMap<>();
+        Map<String, EntryRecord> next = new HashMap<>();
+        String canonicalGameDir = gameDir.getCanonicalPath() + File.separator;
+
+        try (ZipFile zf = new ZipFile(zipFile)) {
+            Enumeration<? extends ZipEntry> entries = zf.entries();
+            while (entries.hasMoreElements()) {
+                if (isCancelled != null && isCancelled.get()) {
+                    throw new IOException("Cancelled");
+                }
+                ZipEntry entry = entries.nextElement();
+                String entryName = entry.getName();
+                File outFile = new File(gameDir, entryName);
+
+                if (!outFile.getCanonicalPath().startsWith(canonicalGameDir)) {
+                    throw new IOException("Zip entry outside target directory: " + entryName);
+                }
+
+                if (entry.isDirectory()) {
+                    outFile.mkdirs();
+                    continue;
+                }
+
+                EntryRecord record = extracted.get(entryName);
+                if (record != null && record.crc == entry.getCrc() && outFile.isFile()
+                        && outFile.length() == entry.getSize() && outFile.lastModified() == record.modified) {
+                    next.put(entryName, record);
+                    continue;
+                }
+
+                File parent = outFile.getParentFile();
+                if (parent != null && !parent.exists())
+                    parent.mkdirs();
+                if (outFile.isDirectory()) {
+                    org.apache.commons.io.FileUtils.deleteDirectory(outFile);
+                }
+
+                try (InputStream is = zf.getInputStream(entry);
+                        FileOutputStream fos = new FileOutputStream(outFile)) {
+                    byte[] buffer = new byte[8192];
+                    int len;
+                    while ((len = is.read(buffer)) > 0) {
+                        fos.write(buffer, 0, len);
+                    }
+                }
+
+                if (entryName.equals("ninecraft") || entryName.endsWith("/ninecraft")) {
+                    outFile.setExecutable(true);
+                }
+
+                EntryRecord newRecord = new EntryRecord();
+                newRecord.crc = entry.getCrc();
+                newRecord.modified = outFile.lastModified();
+                next.put(entryName, newRecord);
+            }
+        }
+        manifest.entries = next;
+    }
+
+    private static String headerValue(Header header) {
+        return header != null ? header.getValue() : null;
+    }
+
+    private static Manifest readManifest(File file) {
+        if (!file.exists())
+            return null;
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return JsonSupport.GSON.fromJson(reader, Manifest.class);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static void writeManifest(File file, Manifest manifest) {
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            JsonSupport.GSON.toJson(manifest, writer);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static class Manifest {
+        String url;
+        String etag;
+        String lastModified;
+        long zipSize;
+        Map<String, EntryRecord> entries;
+    }
+
+    private static class EntryRecord {
+        long crc;
+        long modified;
+    }
+}
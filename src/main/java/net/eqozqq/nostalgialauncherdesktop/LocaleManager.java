@@ -1,13 +1,9 @@
 package net.eqozqq.nostalgialauncherdesktop;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 import net.eqozqq.nostalgialauncherdesktop.Instances.InstanceManager;
+import org.apache.commons.io.input.TeeInputStream;
 
 import java.io.*;
-import java.lang.reflect.Type;
-import java.net.URL;
-import java.net.URLConnection;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
@@ -69,22 +65,17 @@ public class LocaleManager {
 
         try {
             if (urlString != null && !urlString.isEmpty()) {
-                URL url = new URL(urlString);
-                URLConnection connection = url.openConnection();
-                connection.setConnectTimeout(5000);
-                connection.setReadTimeout(5000);
-                
-                try (InputStream in = connection.getInputStream();
-                     FileOutputStream out = new FileOutputStream(cacheFile)) {
-                    byte[] buffer = new byte[1024];
-                    int bytesRead;
-                    while ((bytesRead = in.read(buffer)) != -1) {
-                        out.write(buffer, 0, bytesRead);
-                    }
+                File tempFile = new File(cacheDir, name + ".json.tmp");
+                try (InputStream in = new TeeInputStream(HttpService.getInstance().openStream(urlString),
+                        new FileOutputStream(tempFile), true)) {
+                    parseJson(new InputStreamReader(in, StandardCharsets.UTF_8));
+                } catch (IOException | RuntimeException e) {
+                    tempFile.delete();
+                    throw e;
                 }
-            }
-            
-            if (cacheFile.exists()) {
+                java.nio.file.Files.move(tempFile.toPath(), cacheFile.toPath(),
+                        java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+            } else if (cacheFile.exists()) {
                 try (InputStream inputStream = new FileInputStream(cacheFile)) {
                     parseJson(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
                 }
@@ -105,10 +96,8 @@ public class LocaleManager {
         }
     }
 
-    private void parseJson(Reader reader) {
-        Gson gson = new Gson();
-        Type type = new TypeToken<Map<String, String>>() {}.getType();
-        translations = gson.fromJson(reader, type);
+    private void parseJson(Reader reader) throws IOException {
+        translations = JsonSupport.readStringMap(reader);
     }
 
     public String get(String key) {
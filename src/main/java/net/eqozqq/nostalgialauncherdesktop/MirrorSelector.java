@@ -0,0 +1,250 @@
+package net.eqozqq.nostalgialauncherdesktop;
+
+import com.google.gson.reflect.TypeToken;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import net.eqozqq.nostalgialauncherdesktop.Instances.InstanceManager;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+
+public class MirrorSelector {
+    private static final String PROBES_FILE = "cache" + File.separator + "mirrors.json";
+    private static final Type PROBES_TYPE = new TypeToken<Map<String, Probe>>() {
+    }.getType();
+    private static final long PROBE_TTL_MS = 30 * 60 * 1000L;
+    private static final long PROBE_TIMEOUT_MS = 5000;
+    private static final int PROBE_BYTES = 65536;
+    private static final long REFERENCE_SIZE = 1024 * 1024;
+
+    private static MirrorSelector instance;
+
+    private final List<List<String>> groups = new ArrayList<>();
+    private final ExecutorService probes = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "Mirror-Probe");
+        t.setDaemon(true);
+        return t;
+    });
+    private Map<String, Probe> results;
+
+    private MirrorSelector() {
+    }
+
+    public static synchronized MirrorSelector getInstance() {
+        if (instance == null) {
+            instance = new MirrorSelector();
+        }
+        return instance;
+    }
+
+    public synchronized void setMirrors(List<List<String>> mirrorGroups) {
+        groups.clear();
+        if (mirrorGroups == null) {
+            return;
+        }
+        for (List<String> group : mirrorGroups) {
+            if (group != null && group.size() > 1) {
+                groups.add(new ArrayList<>(group));
+            }
+        }
+    }
+
+    public List<String> candidates(String url) {
+        List<String> prefixes = null;
+        String path = null;
+        synchronized (this) {
+            for (List<String> group : groups) {
+                for (String prefix : group) {
+                    if (url.startsWith(prefix)) {
+                        prefixes = group;
+                        path = url.substring(prefix.length());
+                        break;
+                    }
+                }
+                if (prefixes != null) {
+                    break;
+                }
+            }
+        }
+        List<String> urls = new ArrayList<>();
+        if (prefixes == null) {
+            urls.add(url);
+            return urls;
+        }
+        for (String prefix : prefixes) {
+            urls.add(prefix + path);
+        }
+        return rank(prefixes, urls);
+    }
+
+    public synchronized void reportFailure(String url) {
+        String prefix = prefixOf(url);
+        if (prefix == null) {
+            return;
+        }
+        Probe probe = new Probe();
+        probe.time = System.currentTimeMillis();
+        probe.healthy = false;
+        probes().put(prefix, probe);
+        saveResults();
+    }
+
+    private List<String> rank(List<String> prefixes, List<String> urls) {
+        Map<String, CompletableFuture<Probe>> pending = new HashMap<>();
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            for (int i = 0; i < prefixes.size(); i++) {
+                Probe cached = probes().get(prefixes.get(i));
+                if (cached == null || now - cached.time > PROBE_TTL_MS) {
+                    String probeUrl = urls.get(i);
+                    pending.put(prefixes.get(i), CompletableFuture.supplyAsync(() -> probe(probeUrl), probes));
+                }
+            }
+        }
+        if (!pending.isEmpty()) {
+            try {
+                CompletableFuture.allOf(pending.values().toArray(new CompletableFuture<?>[0]))
+                        .get(PROBE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                System.err.println("Mirror probing did not finish in time: " + e);
+            }
+            synchronized (this) {
+                for (Map.Entry<String, CompletableFuture<Probe>> entry : pending.entrySet()) {
+                    Probe probe = entry.getValue().getNow(null);
+                    if (probe == null) {
+                        entry.getValue().cancel(true);
+                        probe = new Probe();
+                        probe.time = now;
+                    }
+                    probes().put(entry.getKey(), probe);
+                }
+                saveResults();
+            }
+        }
+
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            order.add(i);
+        }
+        synchronized (this) {
+            Map<String, Probe> known = probes();
+            order.sort(Comparator.comparingDouble(i -> score(known.get(prefixes.get(i)))));
+        }
+        List<String> ranked = new ArrayList<>();
+        for (int i : order) {
+            ranked.add(urls.get(i));
+        }
+        return ranked;
+    }
+
+    private static double score(Probe probe) {
+        if (probe == null || !probe.healthy) {
+            return Double.MAX_VALUE;
+        }
+        double transfer = probe.bytesPerSecond > 0 ? REFERENCE_SIZE * 1000.0 / probe.bytesPerSecond : 0;
+        return probe.latencyMs + transfer;
+    }
+
+    private static Probe probe(String url) {
+        Probe probe = new Probe();
+        long start = System.nanoTime();
+        HttpGet request = HttpService.getInstance().newGet(url);
+        request.setHeader("Range", "bytes=0-" + (PROBE_BYTES - 1));
+        try (CloseableHttpResponse response = HttpService.getInstance().execute(request)) {
+            int status = response.getStatusLine().getStatusCode();
+            long headers = System.nanoTime();
+            HttpEntity entity = response.getEntity();
+            if ((status == HttpStatus.SC_OK || status == HttpStatus.SC_PARTIAL_CONTENT) && entity != null) {
+                long read = 0;
+                try (InputStream in = entity.getContent()) {
+                    byte[] buffer = new byte[8192];
+                    int n;
+                    while (read < PROBE_BYTES && (n = in.read(buffer)) != -1) {
+                        read += n;
+                    }
+                    if (read >= PROBE_BYTES) {
+                        request.abort();
+                    }
+                }
+                long end = System.nanoTime();
+                probe.healthy = true;
+                probe.latencyMs = (headers - start) / 1_000_000;
+                long bodyNanos = Math.max(1, end - headers);
+                probe.bytesPerSecond = read * 1_000_000_000L / bodyNanos;
+            } else {
+                request.abort();
+            }
+        } catch (IOException e) {
+            System.err.println("Mirror probe failed for " + url + ": " + e.getMessage());
+        }
+        probe.time = System.currentTimeMillis();
+        return probe;
+    }
+
+    private String prefixOf(String url) {
+        for (List<String> group : groups) {
+            for (String prefix : group) {
+                if (url.startsWith(prefix)) {
+                    return prefix;
+                }
+            }
+        }
+        return null;
+    }
+
+    private Map<String, Probe> probes() {
+        if (results == null) {
+            results = new HashMap<>();
+            File file = new File(InstanceManager.getDataRoot(), PROBES_FILE);
+            if (file.exists()) {
+                try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                    Map<String, Probe> read = JsonSupport.GSON.fromJson(reader, PROBES_TYPE);
+                    if (read != null) {
+                        results.putAll(read);
+                    }
+                } catch (Exception e) {
+                    System.err.println("Ignoring unreadable mirror probes: " + e.getMessage());
+                }
+            }
+        }
+        return results;
+    }
+
+    private void saveResults() {
+        File file = new File(InstanceManager.getDataRoot(), PROBES_FILE);
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try {
+            file.getParentFile().mkdirs();
+            try (Writer writer = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+                JsonSupport.GSON.toJson(results, PROBES_TYPE, writer);
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static class Probe {
+        long time;
+        boolean healthy;
+        long latencyMs;
+        long bytesPerSecond;
+    }
+}
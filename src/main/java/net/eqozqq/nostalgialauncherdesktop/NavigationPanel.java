@@ -37,6 +37,7 @@ public class NavigationPanel extends JPanel {
     public static final String NAV_TEXTURES = "textures";
     public static final String NAV_INSTANCES = "instances";
     public static final String NAV_PROXY = "proxy";
+    public static final String NAV_CONSOLE = "console";
     public static final String NAV_MARKETPLACE = "marketplace";
     public static final String NAV_SETTINGS = "settings";
 
@@ -81,6 +82,10 @@ public class NavigationPanel extends JPanel {
                 "icons/proxy_outline.svg", "icons/proxy_fill.svg",
                 localeManager.get("nav.proxy"), NAV_PROXY);
 
+        NavButton consoleBtn = createNavButton(
+                "icons/stacks_outline.svg", "icons/stacks_fill.svg",
+                localeManager.get("nav.console", "Console"), NAV_CONSOLE);
+
         NavButton marketplaceBtn = createNavButton(
                 "icons/storefront_outline.svg", "icons/storefront_fill.svg",
                 localeManager.get("nav.marketplace", "Marketplace"), NAV_MARKETPLACE);
@@ -95,6 +100,7 @@ public class NavigationPanel extends JPanel {
         addNavButton(topSection, instancesBtn);
         addNavButton(topSection, marketplaceBtn);
         addNavButton(topSection, proxyBtn);
+        addNavButton(topSection, consoleBtn);
 
         topSection.add(Box.createVerticalStrut((int) (20 * scaleFactor)));
         topSection.add(new JSeparator(SwingConstants.HORIZONTAL) {
@@ -27,11 +27,6 @@ import java.util.List;
 import java.util.Properties;
 import java.util.ArrayList;
 import javax.imageio.ImageIO;
-import org.apache.http.HttpEntity;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import net.eqozqq.nostalgialauncherdesktop.WorldManager.WorldsManagerPanel;
 import net.eqozqq.nostalgialauncherdesktop.TexturesManager.TexturesManagerPanel;
 import net.eqozqq.nostalgialauncherdesktop.Instances.InstancesPanel;
@@ -56,6 +51,7 @@ public class NostalgiaLauncherDesktop extends JFrame {
     private InstancesPanel instancesPanel;
     private MarketplacePanel marketplacePanel;
     private ProxyPanel proxyPanel;
+    private ConsolePanel consolePanel;
     private SettingsPanel settingsPanel;
     private JPanel contentPanel;
     private CardLayout cardLayout;
@@ -91,8 +87,20 @@ public class NostalgiaLauncherDesktop extends JFrame {
 
     private String githubTranslationUrl;
     private String githubTranslationName;
+    private String gameDirMode;
+    private int downloadSegments;
+    private boolean pipelinedInstall = true;
+    private long apkCacheLimitMb = 2048;
+    private boolean sharedVersionStore;
+    private boolean prefetchVersions = true;
+    private long resourceMonitorInterval = 1000;
+    private boolean prepareLaunch = true;
+    private javax.swing.Timer idleTimer;
+    private final LaunchPreparer<PreparedLaunch> launchPreparer = new LaunchPreparer<>();
 
     private SwingWorker<Void, Integer> launchWorker;
+    private GameSession gameSession;
+    private int versionsLoadGeneration;
 
     private static String CURRENT_VERSION = "1.10.2";
 
@@ -163,9 +171,25 @@ public class NostalgiaLauncherDesktop extends JFrame {
     }
 
     private static final int COMPONENT_WIDTH = 300;
+    private static final java.lang.reflect.Type STRING_LIST_TYPE = new com.google.gson.reflect.TypeToken<List<String>>() {
+    }.getType();
+    private static final java.lang.reflect.Type PROFILE_LIST_TYPE = new com.google.gson.reflect.TypeToken<List<CustomLauncherProfile>>() {
+    }.getType();
     private static final String DEFAULT_VERSIONS_URL = "https://raw.githubusercontent.com/NLauncher/components/main/versions.json";
     private static final String DEFAULT_LAUNCHER_URL_WINDOWS = "https://github.com/NLauncher/components/raw/main/ninecraft-windows.zip";
     private static final String DEFAULT_LAUNCHER_URL_LINUX = "https://github.com/NLauncher/components/raw/main/ninecraft-linux.zip";
+    private static final java.lang.reflect.Type MIRROR_LIST_TYPE = new com.google.gson.reflect.TypeToken<List<List<String>>>() {
+    }.getType();
+    private static final List<List<String>> DEFAULT_MIRRORS = List.of(List.of(
+            "https://raw.githubusercontent.com/NLauncher/components/main/",
+            "https://github.com/NLauncher/components/raw/main/",
+            "https://cdn.jsdelivr.net/gh/NLauncher/components@main/"));
+    private static final java.util.concurrent.ExecutorService GAME_EXIT_EXECUTOR = java.util.concurrent.Executors
+            .newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "Game-Exit");
+                t.setDaemon(true);
+                return t;
+            });
 
     public static void openURL(String url) {
         String os = System.getProperty("os.name").toLowerCase();
@@ -227,9 +251,11 @@ public class NostalgiaLauncherDesktop extends JFrame {
         settings = new Properties();
         localeManager = LocaleManager.getInstance();
         loadSettings();
+        applyVersionManagerSettings();
         localeManager.init(settings);
         CURRENT_VERSION = localeManager.get("launcher.version", "1.10.2");
         InstanceManager.getInstance().init(settings);
+        DownloadManager.getInstance().resumePending();
         applyTheme();
         loadBackground();
         loadingOverlay = new LoadingOverlay();
@@ -247,6 +273,9 @@ public class NostalgiaLauncherDesktop extends JFrame {
             @Override
             public void windowClosing(java.awt.event.WindowEvent e) {
                 DiscordRPCManager.getInstance().shutdown();
+                if (enableDebugging) {
+                    System.out.print(HttpService.getInstance().formatStats());
+                }
             }
         });
 
@@ -483,29 +512,31 @@ public class NostalgiaLauncherDesktop extends JFrame {
             githubTranslationName = settings.getProperty("githubTranslationName");
             String vsListJson = settings.getProperty("customVersionsSourcesList");
             if (vsListJson != null && !vsListJson.isEmpty()) {
-                customVersionsSourcesList = new com.google.gson.Gson().fromJson(vsListJson,
-                        new com.google.gson.reflect.TypeToken<List<String>>() {
-                        }.getType());
+                customVersionsSourcesList = JsonSupport.GSON.fromJson(vsListJson, STRING_LIST_TYPE);
             } else {
                 customVersionsSourcesList = new ArrayList<>();
             }
             String clListJson = settings.getProperty("customLauncherPathsList");
             if (clListJson != null && !clListJson.isEmpty()) {
-                customLauncherPathsList = new com.google.gson.Gson().fromJson(clListJson,
-                        new com.google.gson.reflect.TypeToken<List<String>>() {
-                        }.getType());
+                customLauncherPathsList = JsonSupport.GSON.fromJson(clListJson, STRING_LIST_TYPE);
             } else {
                 customLauncherPathsList = new ArrayList<>();
             }
             String cpListJson = settings.getProperty("customLauncherProfilesList");
             if (cpListJson != null && !cpListJson.isEmpty()) {
-                customLauncherProfilesList = new com.google.gson.Gson().fromJson(cpListJson,
-                        new com.google.gson.reflect.TypeToken<List<CustomLauncherProfile>>() {
-                        }.getType());
+                customLauncherProfilesList = JsonSupport.GSON.fromJson(cpListJson, PROFILE_LIST_TYPE);
             } else {
                 customLauncherProfilesList = new ArrayList<>();
             }
             selectedLauncherProfileName = settings.getProperty("selectedLauncherProfileName");
+            gameDirMode = settings.getProperty("gameDirMode", VersionManager.GameDirMode.SYNC.name());
+            downloadSegments = Integer.parseInt(settings.getProperty("downloadSegments", "1"));
+            pipelinedInstall = Boolean.parseBoolean(settings.getProperty("pipelinedInstall", "true"));
+            apkCacheLimitMb = Long.parseLong(settings.getProperty("apkCacheLimitMb", "2048"));
+            sharedVersionStore = Boolean.parseBoolean(settings.getProperty("sharedVersionStore", "false"));
+            prefetchVersions = Boolean.parseBoolean(settings.getProperty("prefetchVersions", "true"));
+            resourceMonitorInterval = Long.parseLong(settings.getProperty("resourceMonitorInterval", "1000"));
+            prepareLaunch = Boolean.parseBoolean(settings.getProperty("prepareLaunch", "true"));
         } catch (IOException | NumberFormatException e) {
             backgroundMode = "Default";
             useDefaultVersionsSource = true;
@@ -515,6 +546,51 @@ public class NostalgiaLauncherDesktop extends JFrame {
             enableDiscordIntegration = true;
             scaleFactor = 1.3;
             themeName = "Dark";
+            gameDirMode = VersionManager.GameDirMode.SYNC.name();
+            downloadSegments = 1;
+            pipelinedInstall = true;
+            apkCacheLimitMb = 2048;
+            sharedVersionStore = false;
+            prefetchVersions = true;
+            resourceMonitorInterval = 1000;
+            prepareLaunch = true;
+        }
+    }
+
+    private void applyVersionManagerSettings() {
+        try {
+            HttpService.getInstance().configure(
+                    Integer.parseInt(settings.getProperty("httpConnectTimeout", "5000")),
+                    Integer.parseInt(settings.getProperty("httpReadTimeout", "15000")),
+                    Integer.parseInt(settings.getProperty("httpMaxPerHost", "6")));
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid HTTP settings: " + e.getMessage());
+        }
+        try {
+            DownloadManager.getInstance().configure(
+                    Integer.parseInt(settings.getProperty("maxConcurrentDownloads", "3")),
+                    Long.parseLong(settings.getProperty("downloadLimitKbps", "0")) * 1024);
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid download settings: " + e.getMessage());
+        }
+        List<List<String>> mirrors = DEFAULT_MIRRORS;
+        String mirrorsJson = settings.getProperty("mirrors");
+        if (mirrorsJson != null && !mirrorsJson.isEmpty()) {
+            try {
+                mirrors = JsonSupport.GSON.fromJson(mirrorsJson, MIRROR_LIST_TYPE);
+            } catch (com.google.gson.JsonParseException e) {
+                System.err.println("Ignoring invalid mirror list: " + e.getMessage());
+            }
+        }
+        MirrorSelector.getInstance().setMirrors(mirrors);
+        versionManager.setDownloadSegments(downloadSegments);
+        versionManager.setPipelinedInstall(pipelinedInstall);
+        versionManager.setApkCacheLimitMb(apkCacheLimitMb);
+        versionManager.setSharedVersionStore(sharedVersionStore);
+        try {
+            versionManager.setGameDirMode(VersionManager.GameDirMode.valueOf(gameDirMode));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            versionManager.setGameDirMode(VersionManager.GameDirMode.SYNC);
         }
     }
 
@@ -559,21 +635,30 @@ public class NostalgiaLauncherDesktop extends JFrame {
 
             if (customVersionsSourcesList != null) {
                 settings.setProperty("customVersionsSourcesList",
-                        new com.google.gson.Gson().toJson(customVersionsSourcesList));
+                        JsonSupport.GSON.toJson(customVersionsSourcesList));
             }
             if (customLauncherPathsList != null) {
                 settings.setProperty("customLauncherPathsList",
-                        new com.google.gson.Gson().toJson(customLauncherPathsList));
+                        JsonSupport.GSON.toJson(customLauncherPathsList));
             }
             if (customLauncherProfilesList != null) {
                 settings.setProperty("customLauncherProfilesList",
-                        new com.google.gson.Gson().toJson(customLauncherProfilesList));
+                        JsonSupport.GSON.toJson(customLauncherProfilesList));
             }
             if (selectedLauncherProfileName != null) {
                 settings.setProperty("selectedLauncherProfileName", selectedLauncherProfileName);
             } else {
                 settings.remove("selectedLauncherProfileName");
             }
+            if (gameDirMode != null)
+                settings.setProperty("gameDirMode", gameDirMode);
+            settings.setProperty("downloadSegments", String.valueOf(downloadSegments));
+            settings.setProperty("pipelinedInstall", String.valueOf(pipelinedInstall));
+            settings.setProperty("apkCacheLimitMb", String.valueOf(apkCacheLimitMb));
+            settings.setProperty("sharedVersionStore", String.valueOf(sharedVersionStore));
+            settings.setProperty("prefetchVersions", String.valueOf(prefetchVersions));
+            settings.setProperty("resourceMonitorInterval", String.valueOf(resourceMonitorInterval));
+            settings.setProperty("prepareLaunch", String.valueOf(prepareLaunch));
 
             settings.store(fos, null);
         } catch (IOException e) {
@@ -627,18 +712,36 @@ public class NostalgiaLauncherDesktop extends JFrame {
         homePanel.setAddVersionListener(e -> showAddVersionDialog());
 
         nicknameField = homePanel.getNicknameField();
+        nicknameField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            @Override
+            public void insertUpdate(javax.swing.event.DocumentEvent e) {
+                scheduleIdleWork();
+            }
+
+            @Override
+            public void removeUpdate(javax.swing.event.DocumentEvent e) {
+                scheduleIdleWork();
+            }
+
+            @Override
+            public void changedUpdate(javax.swing.event.DocumentEvent e) {
+                scheduleIdleWork();
+            }
+        });
         versionComboBox = homePanel.getVersionComboBox();
         launchButton = homePanel.getLaunchButton();
         refreshButton = homePanel.getRefreshButton();
         addVersionButton = homePanel.getAddVersionButton();
         progressBar = homePanel.getProgressBar();
         statusLabel = homePanel.getStatusLabel();
+        showLaunchBreakdown(LaunchPipeline.lastLaunch());
 
         worldsPanel = new WorldsManagerPanel(localeManager, themeName, scaleFactor);
         texturesPanel = new TexturesManagerPanel(localeManager, themeName, scaleFactor);
         instancesPanel = new InstancesPanel(localeManager, themeName, scaleFactor);
         marketplacePanel = new MarketplacePanel(localeManager, themeName, scaleFactor);
         proxyPanel = new ProxyPanel(localeManager, themeName, scaleFactor);
+        consolePanel = new ConsolePanel(localeManager, themeName, scaleFactor);
 
         versionComboBox.addActionListener(e -> {
             Version selected = (Version) versionComboBox.getSelectedItem();
@@ -656,10 +759,13 @@ public class NostalgiaLauncherDesktop extends JFrame {
                 if (texturesPanel != null) {
                     texturesPanel.resetView();
                 }
+                scheduleIdleWork();
             }
         });
 
         instancesPanel.setOnInstanceChanged(() -> {
+            versionManager.cancelPrefetch();
+            launchPreparer.invalidate();
             saveSettings();
             initializeUI();
             loadVersions();
@@ -686,6 +792,7 @@ public class NostalgiaLauncherDesktop extends JFrame {
         contentPanel.add(instancesPanel, NavigationPanel.NAV_INSTANCES);
         contentPanel.add(marketplacePanel, NavigationPanel.NAV_MARKETPLACE);
         contentPanel.add(proxyPanel, NavigationPanel.NAV_PROXY);
+        contentPanel.add(consolePanel, NavigationPanel.NAV_CONSOLE);
         contentPanel.add(settingsPanel, NavigationPanel.NAV_SETTINGS);
 
         backgroundPanel.add(navigationPanel, BorderLayout.WEST);
@@ -765,6 +872,9 @@ public class NostalgiaLauncherDesktop extends JFrame {
                 cardLayout.show(contentPanel, NavigationPanel.NAV_PROXY);
                 discordRPCManager.updatePresence("In Proxy");
                 break;
+            case NavigationPanel.NAV_CONSOLE:
+                cardLayout.show(contentPanel, NavigationPanel.NAV_CONSOLE);
+                break;
             case NavigationPanel.NAV_SETTINGS:
                 cardLayout.show(contentPanel, NavigationPanel.NAV_SETTINGS);
                 DiscordRPCManager.getInstance().updatePresence("In Settings");
@@ -773,6 +883,7 @@ public class NostalgiaLauncherDesktop extends JFrame {
     }
 
     private void onSettingsSaved(SettingsPanel updatedSettings) {
+        launchPreparer.invalidate();
         customBackgroundPath = updatedSettings.getCustomBackgroundPath();
         customVersionsSource = updatedSettings.getCustomVersionsSource();
         useDefaultVersionsSource = updatedSettings.isUseDefaultVersionsSource();
@@ -928,29 +1039,37 @@ public class NostalgiaLauncherDesktop extends JFrame {
 
     private void saveNickname() {
         try {
-            String nickname = nicknameField.getText().trim();
-            if (nickname.isEmpty())
-                nickname = "Steve";
-            File optionsFile = getOptionsFile();
-            File parentDir = optionsFile.getParentFile();
-            if (parentDir != null && !parentDir.exists())
-                parentDir.mkdirs();
-            List<String> lines = new ArrayList<>();
-            if (optionsFile.exists()) {
-                List<String> existing = Files.readAllLines(optionsFile.toPath());
-                for (String line : existing)
-                    if (!line.startsWith("mp_username:"))
-                        lines.add(line);
-            }
-            lines.add(0, "mp_username:" + nickname);
-            Files.write(optionsFile.toPath(), lines);
+            writeNickname(nicknameField.getText());
         } catch (Exception e) {
             statusLabel.setText(localeManager.get("status.error.saveNickname"));
         }
     }
 
+    private void writeNickname(String text) throws IOException {
+        String nickname = text.trim();
+        if (nickname.isEmpty())
+            nickname = "Steve";
+        File optionsFile = getOptionsFile();
+        File parentDir = optionsFile.getParentFile();
+        if (parentDir != null && !parentDir.exists())
+            parentDir.mkdirs();
+        List<String> lines = new ArrayList<>();
+        if (optionsFile.exists()) {
+            List<String> existing = Files.readAllLines(optionsFile.toPath());
+            for (String line : existing)
+                if (!line.startsWith("mp_username:"))
+                    lines.add(line);
+        }
+        lines.add(0, "mp_username:" + nickname);
+        Files.write(optionsFile.toPath(), lines);
+    }
+
     private void loadVersions() {
+        final int generation = ++versionsLoadGeneration;
         SwingWorker<List<Version>, Void> worker = new SwingWorker<List<Version>, Void>() {
+            private String source;
+            private boolean fromCache;
+
             @Override
             protected List<Version> doInBackground() throws Exception {
                 statusLabel.setText(localeManager.get("status.loadingVersions"));
@@ -965,7 +1084,12 @@ public class NostalgiaLauncherDesktop extends JFrame {
                     }
                     return profileVersions;
                 }
-                String source = useDefaultVersionsSource ? DEFAULT_VERSIONS_URL : customVersionsSource;
+                source = useDefaultVersionsSource ? DEFAULT_VERSIONS_URL : customVersionsSource;
+                List<Version> cached = versionManager.loadCachedVersions(source);
+                if (cached != null) {
+                    fromCache = true;
+                    return cached;
+                }
                 return versionManager.loadVersions(source);
             }
 
@@ -973,20 +1097,12 @@ public class NostalgiaLauncherDesktop extends JFrame {
             protected void done() {
                 try {
                     List<Version> versions = get();
-                    versionComboBox.removeAllItems();
-                    for (Version version : versions)
-                        versionComboBox.addItem(version);
-                    versionManager.updateInstalledVersions();
-                    String instanceName = InstanceManager.getInstance().getActiveInstance();
-                    statusLabel.setText(localeManager.get("status.versionsAvailable", versions.size()) + " — "
-                            + localeManager.get("label.instance") + ": " + instanceName);
-                    if (lastPlayedVersionName != null) {
-                        for (int i = 0; i < versionComboBox.getItemCount(); i++) {
-                            if (versionComboBox.getItemAt(i).getName().equals(lastPlayedVersionName)) {
-                                versionComboBox.setSelectedIndex(i);
-                                break;
-                            }
-                        }
+                    if (generation != versionsLoadGeneration) {
+                        return;
+                    }
+                    showVersions(versions, lastPlayedVersionName);
+                    if (fromCache) {
+                        revalidateVersions(source, versions, generation);
                     }
                 } catch (Exception e) {
                     ErrorDialog.showSync(NostalgiaLauncherDesktop.this, localeManager.get("dialog.error.title"),
@@ -1001,9 +1117,143 @@ public class NostalgiaLauncherDesktop extends JFrame {
         worker.execute();
     }
 
+    private void revalidateVersions(String source, List<Version> shown, int generation) {
+        SwingWorker<List<Version>, Void> worker = new SwingWorker<List<Version>, Void>() {
+            @Override
+            protected List<Version> doInBackground() {
+                try {
+                    return versionManager.revalidateVersions(source, shown);
+                } catch (Exception e) {
+                    System.err.println("Failed to revalidate versions list: " + e.getMessage());
+                    List<Version> available = versionManager.filterAvailableOffline(shown);
+                    return available.size() == shown.size() ? null : available;
+                }
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    List<Version> versions = get();
+                    if (versions == null || generation != versionsLoadGeneration || gameSession != null
+                            || (launchWorker != null && !launchWorker.isDone())) {
+                        return;
+                    }
+                    Version selected = (Version) versionComboBox.getSelectedItem();
+                    showVersions(versions, selected != null ? selected.getName() : lastPlayedVersionName);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    private void showVersions(List<Version> versions, String selectName) {
+        versionComboBox.removeAllItems();
+        for (Version version : versions)
+            versionComboBox.addItem(version);
+        versionManager.updateInstalledVersions();
+        String instanceName = InstanceManager.getInstance().getActiveInstance();
+        statusLabel.setText(localeManager.get("status.versionsAvailable", versions.size()) + " — "
+                + localeManager.get("label.instance") + ": " + instanceName);
+        if (selectName != null) {
+            for (int i = 0; i < versionComboBox.getItemCount(); i++) {
+                if (versionComboBox.getItemAt(i).getName().equals(selectName)) {
+                    versionComboBox.setSelectedIndex(i);
+                    break;
+                }
+            }
+        }
+    }
+
+    private void scheduleIdleWork() {
+        launchPreparer.invalidate();
+        if (!prefetchVersions && !prepareLaunch) {
+            return;
+        }
+        if (idleTimer == null) {
+            idleTimer = new javax.swing.Timer(500, e -> {
+                prefetchSelectedVersion();
+                prepareSelectedLaunch();
+            });
+            idleTimer.setRepeats(false);
+        }
+        idleTimer.restart();
+    }
+
+    public void invalidatePreparedLaunch() {
+        SwingUtilities.invokeLater(this::scheduleIdleWork);
+    }
+
+    private boolean isLaunchBusy() {
+        return gameSession != null || (launchWorker != null && !launchWorker.isDone());
+    }
+
+    private void prefetchSelectedVersion() {
+        if (!prefetchVersions || "ANOTHER".equals(executableSource) || isLaunchBusy()) {
+            return;
+        }
+        java.util.concurrent.CompletableFuture<File> prefetched = versionManager
+                .prefetchVersion((Version) versionComboBox.getSelectedItem());
+        if (prefetched != null) {
+            prefetched.thenRun(() -> SwingUtilities.invokeLater(this::prepareSelectedLaunch));
+        }
+    }
+
+    private void prepareSelectedLaunch() {
+        Version version = (Version) versionComboBox.getSelectedItem();
+        if (!prepareLaunch || version == null || isLaunchBusy()) {
+            return;
+        }
+        boolean managedVersion = !"ANOTHER".equals(executableSource);
+        if (managedVersion && !versionManager.isVersionInstalled(version)) {
+            return;
+        }
+        String nickname = nicknameField.getText();
+        String customPath = customLauncherPath;
+        File gameDir = new File(InstanceManager.getInstance().resolvePath("game"));
+        launchPreparer.prepare(launchKey(version), isCancelled -> {
+            gameDir.mkdirs();
+            String launcherPath = resolveExecutable(version, gameDir, customPath, progress -> {
+            }, isCancelled, false);
+            if (managedVersion) {
+                if (isCancelled.get()) {
+                    throw new IOException("Cancelled");
+                }
+                versionManager.prepareGameDir(version, gameDir);
+            }
+            if (isCancelled.get()) {
+                throw new IOException("Cancelled");
+            }
+            writeNickname(nickname);
+            return new PreparedLaunch(launcherPath);
+        });
+    }
+
+    private String launchKey(Version version) {
+        return String.join("|", version.getName(), String.valueOf(version.getUrl()),
+                InstanceManager.getInstance().getActiveInstance(), executableSource,
+                "CUSTOM".equals(executableSource) ? customLauncherPath : "", String.valueOf(gameDirMode),
+                nicknameField.getText().trim());
+    }
+
+    private boolean isGameDirMaterialized(Version version, File gameDir) {
+        if ("ANOTHER".equals(executableSource)
+                || VersionManager.GameDirMode.FULL_COPY == versionManager.getGameDirMode()) {
+            return true;
+        }
+        return version.getName().equals(GameDirSync.readMaterializedVersion(gameDir));
+    }
+
     private class LaunchButtonListener implements ActionListener {
         @Override
         public void actionPerformed(ActionEvent e) {
+            if (gameSession != null) {
+                gameSession.destroy();
+                statusLabel.setText(localeManager.get("status.cancelling"));
+                launchButton.setEnabled(false);
+                return;
+            }
             if (launchWorker != null && !launchWorker.isDone()) {
                 launchWorker.cancel(true);
                 versionManager.cancelDownload();
@@ -1026,8 +1276,11 @@ public class NostalgiaLauncherDesktop extends JFrame {
 
     private void launchVersion(Version version) {
         DiscordRPCManager.getInstance().updatePresence("Playing Minecraft PE a" + version.getName());
+        String launchKey = launchKey(version);
+        String customPath = customLauncherPath;
         launchWorker = new SwingWorker<Void, Integer>() {
             Process gameProcess;
+            volatile String launcherPath;
 
             @Override
             protected Void doInBackground() throws Exception {
@@ -1048,149 +1301,51 @@ public class NostalgiaLauncherDesktop extends JFrame {
                 if (!gameDir.exists())
                     gameDir.mkdirs();
 
-                if ("COMPILED".equals(executableSource)) {
-                    String arch = System.getProperty("os.arch").toLowerCase();
-                    String buildFolder = (arch.contains("arm") || arch.contains("aarch64")) ? "build-arm"
-                            : "build-i686";
-                    File sourceDir = new File(gameDir, "Ninecraft_source");
-                    File buildDir = new File(sourceDir, buildFolder);
-                    File binDir = new File(buildDir, "ninecraft");
-                    File executable = new File(binDir, "ninecraft");
-                    if (System.getProperty("os.name").toLowerCase().contains("win")) {
-                        File exeWin = new File(sourceDir, "ninecraft.exe");
-                        if (!exeWin.exists())
-                            exeWin = new File(sourceDir, "bin/ninecraft.exe");
-                        executable = exeWin;
-                    }
-                    if (!executable.exists()) {
-                        boolean[] success = { false };
-                        SwingUtilities.invokeAndWait(() -> {
-                            NinecraftCompilationDialog dialog = new NinecraftCompilationDialog(
-                                    NostalgiaLauncherDesktop.this, localeManager);
-                            NinecraftCompiler compiler = new NinecraftCompiler();
-                            dialog.setOnCancelRequested(() -> compiler.cancel());
-                            dialog.setOnStartCompilation((repoUrl) -> {
-                                new Thread(() -> {
-                                    boolean result = compiler.compile(gameDir, dialog, localeManager, repoUrl);
-                                    dialog.compilationFinished(result);
-                                    success[0] = result && !compiler.isCancelled();
-                                }).start();
-                            });
-                            dialog.setVisible(true);
-                        });
-                        if (!success[0])
-                            throw new IOException(localeManager.get("error.compilationFailedLog"));
-                        if (System.getProperty("os.name").toLowerCase().contains("win"))
-                            executable = new File(gameDir, "ninecraft.exe");
-                        else
-                            executable = new File(gameDir, "ninecraft");
-                    }
-                    customLauncherPath = executable.getAbsolutePath();
-                } else if ("SERVER".equals(executableSource)) {
-                    downloadLauncherComponents(progress -> {
-                        int progressValue = (int) (progress * 15);
-                        publish(progressValue);
-                    });
-                } else if ("CUSTOM".equals(executableSource)) {
-                    File customExe = new File(customLauncherPath);
-                    if (customExe.isDirectory() || !customExe.exists())
-                        throw new IOException(localeManager.get("error.invalidFilePath") + ": " + customLauncherPath);
-                } else if ("ANOTHER".equals(executableSource)) {
-                    CustomLauncherProfile selectedProfile = null;
-                    if (customLauncherProfilesList != null) {
-                        for (CustomLauncherProfile p : customLauncherProfilesList) {
-                            if (p.getName().equals(version.getName())) {
-                                selectedProfile = p;
-                                break;
-                            }
-                        }
-                    }
-                    if (selectedProfile == null) {
-                        throw new IOException(localeManager.get("error.noExecutableSelected"));
-                    }
-                    File customExe = new File(selectedProfile.getExecutablePath());
-                    if (customExe.isDirectory() || !customExe.exists()) {
-                        throw new IOException(localeManager.get("error.invalidFilePath") + ": "
-                                + selectedProfile.getExecutablePath());
-                    }
-                    List<String> missingConditions = new ArrayList<>();
-                    if (selectedProfile.getRequiredPaths() != null) {
-                        for (String path : selectedProfile.getRequiredPaths()) {
-                            File reqFile = new File(gameDir, path);
-                            if (!reqFile.exists()) {
-                                missingConditions.add(path);
-                            }
-                        }
-                    }
-                    if (!missingConditions.isEmpty()) {
-                        throw new IOException(localeManager.get("error.launchConditionsNotMet").replace("%s",
-                                String.join(", ", missingConditions)));
-                    }
-                    customLauncherPath = selectedProfile.getExecutablePath();
+                boolean managedVersion = !"ANOTHER".equals(executableSource);
+                SwingUtilities.invokeLater(() -> statusLabel.setText(localeManager.get("status.checkingInstallation")));
+                PreparedLaunch preparedLaunch = launchPreparer.claim(launchKey);
+                boolean prepared = preparedLaunch != null && isGameDirMaterialized(version, gameDir);
+                if (prepared) {
+                    launcherPath = preparedLaunch.launcherPath;
                 }
+                boolean installed = prepared || !managedVersion || versionManager.isVersionInstalled(version);
 
-                if (isCancelled())
-                    return null;
-                SwingUtilities.invokeLater(() -> statusLabel.setText(localeManager.get("status.checkingInstallation")));
-                publish(15);
-                if (!"ANOTHER".equals(executableSource)) {
-                    if (!versionManager.isVersionInstalled(version)) {
-                        SwingUtilities.invokeLater(() -> {
-                            statusLabel.setText(localeManager.get("status.downloading", version.getName()));
-                            progressBar.setString(localeManager.get("progress.downloading"));
-                        });
-                        publish(20);
-                        File apkFile = versionManager.downloadVersion(version, progress -> {
-                            int progressValue = 20 + (int) (progress * 45);
-                            publish(progressValue);
-                        }, () -> isCancelled());
-                        if (isCancelled())
-                            return null;
+                LaunchPipeline pipeline = new LaunchPipeline(version.getName(), new LaunchPipeline.Listener() {
+                    @Override
+                    public void onStageStarted(LaunchPipeline.Stage stage) {
                         SwingUtilities.invokeLater(() -> {
-                            statusLabel.setText(localeManager.get("status.extracting"));
-                            progressBar.setString(localeManager.get("progress.extracting"));
+                            statusLabel.setText(stage.getStatus());
+                            progressBar.setString(stage.getProgress());
                         });
-                        publish(65);
-                        versionManager.extractVersion(apkFile, gameDir, () -> isCancelled());
                     }
-                    if (isCancelled())
-                        return null;
-                    SwingUtilities.invokeLater(() -> {
-                        statusLabel.setText(localeManager.get("status.preparingDir"));
-                        progressBar.setString(localeManager.get("progress.preparing"));
-                    });
-                    publish(80);
-                    versionManager.prepareGameDir(version, gameDir);
-                }
-                SwingUtilities.invokeLater(() -> {
-                    statusLabel.setText(localeManager.get("status.setupNickname"));
-                    progressBar.setString(localeManager.get("progress.settingUp"));
-                });
-                publish(90);
-                saveNickname();
-                SwingUtilities.invokeLater(() -> {
-                    statusLabel.setText(localeManager.get("status.startingGame"));
-                    progressBar.setString(localeManager.get("progress.launching"));
-                });
-                publish(95);
-
-                String launcherPath = null;
-                if ("CUSTOM".equals(executableSource) || "COMPILED".equals(executableSource)
-                        || "ANOTHER".equals(executableSource))
-                    launcherPath = customLauncherPath;
-                File exitFile = new File(gameDir, "exit.tmp");
-                if (exitFile.exists()) {
-                    exitFile.delete();
-                }
-                gameProcess = gameLauncher.launchGame(gameDir, launcherPath, enableDebugging);
 
-                final StringBuilder processOutput = new StringBuilder();
-                Thread outputReader = new Thread(() -> {
-                    String output = GameLauncher.readProcessOutput(gameProcess);
-                    processOutput.append(output);
+                    @Override
+                    public void onProgress(int percent) {
+                        publish(percent);
+                    }
                 });
-                outputReader.setDaemon(true);
-                outputReader.start();
+                pipeline.stage("components", localeManager.get("status.loadingComponents"),
+                        localeManager.get("progress.loadingComponents"), 1500, !prepared,
+                        context -> launcherPath = resolveExecutable(version, gameDir, customPath,
+                                progress -> context.progress(progress), () -> isCancelled(), true));
+                pipeline.stage("install", localeManager.get("status.installing", version.getName()),
+                        localeManager.get("progress.installing"), 20000, !installed, context -> {
+                            File apk = versionManager.installVersion(version, context::progress, () -> isCancelled());
+                            if (apk != null && apk.isFile()) {
+                                context.addBytes(apk.length());
+                            }
+                        });
+                pipeline.stage("prepare", localeManager.get("status.preparingDir"),
+                        localeManager.get("progress.preparing"), 2000, managedVersion && !prepared,
+                        context -> context.addBytes(versionManager.prepareGameDir(version, gameDir)));
+                pipeline.stage("nickname", localeManager.get("status.setupNickname"),
+                        localeManager.get("progress.settingUp"), 50, !prepared, context -> saveNickname());
+                pipeline.stage("start", localeManager.get("status.startingGame"),
+                        localeManager.get("progress.launching"), 500, true, context -> startGame(gameDir));
+
+                LaunchPipeline.Record record = pipeline.run(() -> isCancelled());
+                if (record == null)
+                    return null;
 
                 SwingUtilities.invokeLater(() -> {
                     switch (postLaunchAction) {
@@ -1206,70 +1361,51 @@ public class NostalgiaLauncherDesktop extends JFrame {
                 });
                 publish(100);
                 SwingUtilities.invokeLater(() -> {
-                    statusLabel.setText(localeManager.get("status.launched"));
+                    statusLabel.setText(describeLaunch(record));
+                    showLaunchBreakdown(record);
                     progressBar.setVisible(false);
                 });
 
-                long launchTime = System.currentTimeMillis();
-                int exitCode = 0;
-                try {
-                    boolean exited = false;
-                    while (!exited) {
-                        if (isCancelled()) {
-                            gameProcess.destroy();
-                            break;
-                        }
-                        if (exitFile.exists()) {
-                            try {
-                                String content = new String(java.nio.file.Files.readAllBytes(exitFile.toPath())).trim();
-                                if (!content.isEmpty()) {
-                                    exitCode = Integer.parseInt(content);
-                                    exited = true;
-                                    exitFile.delete();
-                                }
-                            } catch (Exception e) {
-                            }
-                        }
-                        if (!gameProcess.isAlive()) {
-                            exitCode = gameProcess.exitValue();
-                            exited = true;
-                        }
-                        if (!exited) {
-                            Thread.sleep(100);
-                        }
-                    }
-                } catch (InterruptedException e) {
-                    gameProcess.destroy();
-                    if (exitFile.exists()) {
-                        exitFile.delete();
-                    }
-                    return null;
+                return null;
+            }
+
+            private void startGame(File gameDir) throws Exception {
+                File exitFile = new File(gameDir, "exit.tmp");
+                if (exitFile.exists()) {
+                    exitFile.delete();
                 }
+                gameProcess = gameLauncher.launchGame(gameDir, launcherPath, enableDebugging);
+                GameSession session = new GameSession(gameProcess, exitFile, enableDebugging);
 
-                outputReader.join(2000);
-
-                long runDuration = System.currentTimeMillis() - launchTime;
-
-                if (exitCode != 0) {
-                    final String output = processOutput.toString().trim();
-                    final long duration = runDuration;
-                    final int code = exitCode;
-                    SwingUtilities.invokeLater(() -> {
-                        StringBuilder errorMsg = new StringBuilder();
-                        errorMsg.append("Ninecraft exited with code: ").append(code).append("\n");
-                        errorMsg.append("Runtime: ").append(duration / 1000.0).append("s\n\n");
-                        if (!output.isEmpty()) {
-                            errorMsg.append("--- Process Output ---\n");
-                            errorMsg.append(output);
-                        } else {
-                            errorMsg.append("No output was captured from the process.");
-                        }
-                        ErrorDialog.show(NostalgiaLauncherDesktop.this,
-                                localeManager.get("error.launchFailed.title"), errorMsg.toString());
-                    });
+                GameOutputLog outputLog = new GameOutputLog(InstanceManager.getInstance().ensureDir("logs"));
+                if (consolePanel != null) {
+                    consolePanel.startSession(version.getName() + " - " + outputLog.getSessionFile().getName());
+                    outputLog.setLineListener(consolePanel::append);
                 }
+                Thread outputReader = new Thread(() -> outputLog.capture(gameProcess.getInputStream()),
+                        "Game-Output");
+                outputReader.setDaemon(true);
+                outputReader.start();
 
-                return null;
+                ResourceMonitor resourceMonitor = new ResourceMonitor(gameProcess, resourceMonitorInterval,
+                        sample -> SwingUtilities.invokeLater(() -> {
+                            if (gameSession == session) {
+                                homePanel.setResourceUsage(formatResourceUsage(sample));
+                            }
+                        }));
+                resourceMonitor.start();
+
+                SwingUtilities.invokeAndWait(() -> gameSession = session);
+                session.onExit().thenAcceptAsync(exitCode -> {
+                    resourceMonitor.stop(version.getName(), InstanceManager.getInstance().getActiveInstance());
+                    try {
+                        outputReader.join(2000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    String output = outputLog.getTail().trim();
+                    SwingUtilities.invokeLater(() -> onGameExited(session, exitCode, output));
+                }, GAME_EXIT_EXECUTOR);
             }
 
             @Override
@@ -1280,15 +1416,12 @@ public class NostalgiaLauncherDesktop extends JFrame {
 
             @Override
             protected void done() {
-                launchButton.setText(localeManager.get("button.launch"));
-                launchButton.setEnabled(true);
-                refreshButton.setEnabled(true);
-                addVersionButton.setEnabled(true);
-                nicknameField.setEnabled(true);
-                versionComboBox.setEnabled(true);
-                progressBar.setVisible(false);
                 launchWorker = null;
-                DiscordRPCManager.getInstance().updatePresence("On Main Page");
+                if (gameSession != null) {
+                    progressBar.setVisible(false);
+                    return;
+                }
+                resetLaunchControls();
                 try {
                     get();
                 } catch (Exception e) {
@@ -1317,98 +1450,193 @@ public class NostalgiaLauncherDesktop extends JFrame {
         launchWorker.execute();
     }
 
-    private void downloadLauncherComponents(java.util.function.Consumer<Float> progressCallback) throws IOException {
-        String url = SystemInfo.isWindows ? DEFAULT_LAUNCHER_URL_WINDOWS : DEFAULT_LAUNCHER_URL_LINUX;
-        File cacheDir = new File(InstanceManager.getInstance().resolvePath("cache"));
-        if (!cacheDir.exists())
-            cacheDir.mkdirs();
-        File zipFile = new File(cacheDir, "launcher_components.zip");
-        statusLabel.setText(localeManager.get("status.loadingComponents"));
-        progressBar.setString(localeManager.get("progress.loadingComponents"));
-
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            HttpGet httpGet = new HttpGet(url);
-            httpGet.setHeader("User-Agent",
-                    "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
-            try (CloseableHttpResponse response = httpClient.execute(httpGet)) {
-                HttpEntity entity = response.getEntity();
-                if (entity != null) {
-                    long totalSize = entity.getContentLength();
-                    try (InputStream is = entity.getContent();
-                            FileOutputStream fos = new FileOutputStream(zipFile)) {
-                        byte[] buffer = new byte[8192];
-                        int read;
-                        long totalRead = 0;
-                        while ((read = is.read(buffer)) != -1) {
-                            if (launchWorker != null && launchWorker.isCancelled()) {
-                                throw new IOException("Cancelled");
-                            }
-                            fos.write(buffer, 0, read);
-                            totalRead += read;
-                            if (totalSize > 0)
-                                progressCallback.accept((float) totalRead / totalSize);
-                        }
+    private String resolveExecutable(Version version, File gameDir, String customPath,
+            java.util.function.Consumer<Float> progress, java.util.function.Supplier<Boolean> isCancelled,
+            boolean interactive) throws Exception {
+        if ("COMPILED".equals(executableSource)) {
+            String arch = System.getProperty("os.arch").toLowerCase();
+            String buildFolder = (arch.contains("arm") || arch.contains("aarch64")) ? "build-arm"
+                    : "build-i686";
+            File sourceDir = new File(gameDir, "Ninecraft_source");
+            File buildDir = new File(sourceDir, buildFolder);
+            File binDir = new File(buildDir, "ninecraft");
+            File executable = new File(binDir, "ninecraft");
+            if (System.getProperty("os.name").toLowerCase().contains("win")) {
+                File exeWin = new File(sourceDir, "ninecraft.exe");
+                if (!exeWin.exists())
+                    exeWin = new File(sourceDir, "bin/ninecraft.exe");
+                executable = exeWin;
+            }
+            if (!executable.exists() && !interactive) {
+                throw new IOException(localeManager.get("error.invalidFilePath") + ": " + executable.getAbsolutePath());
+            }
+            if (!executable.exists()) {
+                boolean[] success = { false };
+                SwingUtilities.invokeAndWait(() -> {
+                    NinecraftCompilationDialog dialog = new NinecraftCompilationDialog(
+                            NostalgiaLauncherDesktop.this, localeManager);
+                    NinecraftCompiler compiler = new NinecraftCompiler();
+                    dialog.setOnCancelRequested(() -> compiler.cancel());
+                    dialog.setOnStartCompilation((repoUrl) -> {
+                        new Thread(() -> {
+                            boolean result = compiler.compile(gameDir, dialog, localeManager, repoUrl);
+                            dialog.compilationFinished(result);
+                            success[0] = result && !compiler.isCancelled();
+                        }).start();
+                    });
+                    dialog.setVisible(true);
+                });
+                if (!success[0])
+                    throw new IOException(localeManager.get("error.compilationFailedLog"));
+                if (System.getProperty("os.name").toLowerCase().contains("win"))
+                    executable = new File(gameDir, "ninecraft.exe");
+                else
+                    executable = new File(gameDir, "ninecraft");
+            }
+            return executable.getAbsolutePath();
+        } else if ("SERVER".equals(executableSource)) {
+            downloadLauncherComponents(progress, isCancelled);
+        } else if ("CUSTOM".equals(executableSource)) {
+            File customExe = new File(customPath);
+            if (customExe.isDirectory() || !customExe.exists())
+                throw new IOException(localeManager.get("error.invalidFilePath") + ": " + customPath);
+            return customPath;
+        } else if ("ANOTHER".equals(executableSource)) {
+            CustomLauncherProfile selectedProfile = null;
+            if (customLauncherProfilesList != null) {
+                for (CustomLauncherProfile p : customLauncherProfilesList) {
+                    if (p.getName().equals(version.getName())) {
+                        selectedProfile = p;
+                        break;
                     }
                 }
             }
-        }
-
-        File gameDir = new File(InstanceManager.getInstance().resolvePath("game"));
-        if (!gameDir.exists())
-            gameDir.mkdirs();
-
-        try (java.util.zip.ZipInputStream zis = new java.util.zip.ZipInputStream(
-                java.nio.file.Files.newInputStream(zipFile.toPath()))) {
-            java.util.zip.ZipEntry entry;
-            String canonicalGameDir = gameDir.getCanonicalPath() + File.separator;
-            while ((entry = zis.getNextEntry()) != null) {
-                if (launchWorker != null && launchWorker.isCancelled()) {
-                    throw new IOException("Cancelled");
+            if (selectedProfile == null) {
+                throw new IOException(localeManager.get("error.noExecutableSelected"));
+            }
+            File customExe = new File(selectedProfile.getExecutablePath());
+            if (customExe.isDirectory() || !customExe.exists()) {
+                throw new IOException(localeManager.get("error.invalidFilePath") + ": "
+                        + selectedProfile.getExecutablePath());
+            }
+            List<String> missingConditions = new ArrayList<>();
+            if (selectedProfile.getRequiredPaths() != null) {
+                for (String path : selectedProfile.getRequiredPaths()) {
+                    File reqFile = new File(gameDir, path);
+                    if (!reqFile.exists()) {
+                        missingConditions.add(path);
+                    }
                 }
+            }
+            if (!missingConditions.isEmpty()) {
+                throw new IOException(localeManager.get("error.launchConditionsNotMet").replace("%s",
+                        String.join(", ", missingConditions)));
+            }
+            return selectedProfile.getExecutablePath();
+        }
+        return null;
+    }
 
-                String entryName = entry.getName();
-                File outFile = new File(gameDir, entryName);
+    private String describeLaunch(LaunchPipeline.Record record) {
+        LaunchPipeline.StageRecord slowest = record.slowest();
+        if (slowest == null) {
+            return localeManager.get("status.launched");
+        }
+        return localeManager.get("status.launchedIn", formatSeconds(record.getTotalMs()),
+                formatSeconds(slowest.getDurationMs()), localeManager.get("launch.stage." + slowest.getId()));
+    }
 
-                if (!outFile.getCanonicalPath().startsWith(canonicalGameDir)) {
-                    throw new IOException("Zip entry outside target directory: " + entryName);
-                }
+    private void showLaunchBreakdown(LaunchPipeline.Record record) {
+        if (record == null || record.getStages() == null) {
+            statusLabel.setToolTipText(null);
+            return;
+        }
+        StringBuilder sb = new StringBuilder("<html>");
+        sb.append(localeManager.get("launch.lastLaunch", record.getVersion(), formatSeconds(record.getTotalMs())));
+        for (LaunchPipeline.StageRecord stage : record.getStages()) {
+            if (stage.isSkipped()) {
+                continue;
+            }
+            sb.append("<br>").append(localeManager.get("launch.stage." + stage.getId())).append(": ")
+                    .append(formatSeconds(stage.getDurationMs())).append(" s");
+            if (stage.getBytes() > 0) {
+                sb.append(" (").append(formatBytes(stage.getBytes())).append(")");
+            }
+        }
+        statusLabel.setToolTipText(sb.append("</html>").toString());
+    }
 
-                if (entry.isDirectory()) {
-                    outFile.mkdirs();
-                } else {
-                    File parent = outFile.getParentFile();
-                    if (parent != null && !parent.exists())
-                        parent.mkdirs();
+    private static String formatSeconds(long millis) {
+        return String.format("%.1f", millis / 1000.0);
+    }
 
-                    if (outFile.exists() && outFile.isDirectory()) {
-                        deleteRecursive(outFile);
-                    }
+    private void resetLaunchControls() {
+        launchButton.setText(localeManager.get("button.launch"));
+        launchButton.setEnabled(true);
+        refreshButton.setEnabled(true);
+        addVersionButton.setEnabled(true);
+        nicknameField.setEnabled(true);
+        versionComboBox.setEnabled(true);
+        progressBar.setVisible(false);
+        DiscordRPCManager.getInstance().updatePresence("On Main Page");
+    }
 
-                    try (FileOutputStream fos = new FileOutputStream(outFile)) {
-                        byte[] buffer = new byte[4096];
-                        int len;
-                        while ((len = zis.read(buffer)) > 0) {
-                            fos.write(buffer, 0, len);
-                        }
-                    }
+    private String formatResourceUsage(ResourceMonitor.Sample sample) {
+        return localeManager.get("status.resources",
+                String.format("%.0f", sample.getCpuPercent()),
+                formatBytes(sample.getRssKb() * 1024),
+                sample.getThreads(),
+                formatBytes(sample.getReadBytesPerSec()),
+                formatBytes(sample.getWriteBytesPerSec()));
+    }
 
-                    if (entryName.equals("ninecraft") || entryName.endsWith("/ninecraft")) {
-                        outFile.setExecutable(true);
-                    }
-                }
-                zis.closeEntry();
-            }
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        if (bytes < 1024L * 1024 * 1024) {
+            return String.format("%.1f MB", bytes / (1024.0 * 1024));
         }
+        return String.format("%.2f GB", bytes / (1024.0 * 1024 * 1024));
     }
 
-    private void deleteRecursive(File file) {
-        if (file.isDirectory()) {
-            File[] content = file.listFiles();
-            if (content != null)
-                for (File child : content)
-                    deleteRecursive(child);
+    private void onGameExited(GameSession session, int exitCode, String output) {
+        if (gameSession == session) {
+            gameSession = null;
+            homePanel.setResourceUsage(null);
+            scheduleIdleWork();
         }
-        file.delete();
+        resetLaunchControls();
+        if (session.isDestroyed()) {
+            statusLabel.setText(localeManager.get("status.ready"));
+            return;
+        }
+        if (exitCode == 0) {
+            return;
+        }
+        long duration = session.getRunDuration();
+        StringBuilder errorMsg = new StringBuilder();
+        errorMsg.append("Ninecraft exited with code: ").append(exitCode).append("\n");
+        errorMsg.append("Runtime: ").append(duration / 1000.0).append("s\n\n");
+        if (!output.isEmpty()) {
+            errorMsg.append("--- Process Output ---\n");
+            errorMsg.append(output);
+        } else {
+            errorMsg.append("No output was captured from the process.");
+        }
+        ErrorDialog.show(NostalgiaLauncherDesktop.this, localeManager.get("error.launchFailed.title"),
+                errorMsg.toString());
+    }
+
+    private void downloadLauncherComponents(java.util.function.Consumer<Float> progressCallback,
+            java.util.function.Supplier<Boolean> isCancelled) throws IOException {
+        String url = SystemInfo.isWindows ? DEFAULT_LAUNCHER_URL_WINDOWS : DEFAULT_LAUNCHER_URL_LINUX;
+        File cacheDir = new File(InstanceManager.getInstance().resolvePath("cache"));
+        File gameDir = new File(InstanceManager.getInstance().resolvePath("game"));
+        new LauncherComponentsManager(cacheDir, gameDir).update(url, progressCallback, isCancelled);
     }
 
     private void showFirstLaunchDisclaimer() {
@@ -1550,6 +1778,14 @@ public class NostalgiaLauncherDesktop extends JFrame {
         });
     }
 
+    private static class PreparedLaunch {
+        final String launcherPath;
+
+        PreparedLaunch(String launcherPath) {
+            this.launcherPath = launcherPath;
+        }
+    }
+
     private static class StartupLoadingWindow extends JWindow {
         private final Timer timer;
         private static Image logoImage = null;
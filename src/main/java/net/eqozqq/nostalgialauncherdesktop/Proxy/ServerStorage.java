@@ -1,16 +1,13 @@
 package net.eqozqq.nostalgialauncherdesktop.Proxy;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
 import net.eqozqq.nostalgialauncherdesktop.Instances.InstanceManager;
+import net.eqozqq.nostalgialauncherdesktop.JsonSupport;
 
 import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Writer;
-import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -21,10 +18,10 @@ public class ServerStorage {
         File file = new File(InstanceManager.getInstance().resolvePath(SERVERS_FILE));
         if (file.exists()) {
             try (FileReader reader = new FileReader(file)) {
-                Gson gson = new Gson();
-                Type listType = new TypeToken<List<Server>>() {
-                }.getType();
-                return gson.fromJson(reader, listType);
+                List<Server> servers = JsonSupport.readList(reader, Server.class);
+                if (servers != null) {
+                    return servers;
+                }
             } catch (Exception e) {
                 e.printStackTrace();
             }
@@ -35,8 +32,7 @@ public class ServerStorage {
     public static void saveServers(List<Server> servers) {
         File file = new File(InstanceManager.getInstance().resolvePath(SERVERS_FILE));
         try (Writer writer = new FileWriter(file)) {
-            Gson gson = new GsonBuilder().setPrettyPrinting().create();
-            gson.toJson(servers, writer);
+            JsonSupport.PRETTY_GSON.toJson(servers, writer);
         } catch (IOException e) {
             e.printStackTrace();
         }
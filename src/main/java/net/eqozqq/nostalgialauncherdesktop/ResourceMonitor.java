@@ -0,0 +1,314 @@
+package net.eqozqq.nostalgialauncherdesktop;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import net.eqozqq.nostalgialauncherdesktop.Instances.InstanceManager;
+
+public class ResourceMonitor {
+    private static final String HISTORY_FILE = "session_history.json";
+    private static final int MAX_HISTORY = 200;
+    private static final long CLOCK_TICKS = 100;
+    private static final File PROC = new File("/proc");
+
+    private final Process process;
+    private final long intervalMs;
+    private final Consumer<Sample> listener;
+    private final Map<Long, long[]> lastCounters = new HashMap<>();
+    private volatile boolean running;
+    private Thread thread;
+    private long startTime;
+    private long lastSampleTime;
+    private long sampleCount;
+    private double cpuSum;
+    private long peakRss;
+    private int peakThreads;
+    private long totalRead;
+    private long totalWrite;
+
+    public ResourceMonitor(Process process, long intervalMs, Consumer<Sample> listener) {
+        this.process = process;
+        this.intervalMs = intervalMs;
+        this.listener = listener;
+    }
+
+    public static boolean isSupported() {
+        return new File(PROC, "self/stat").canRead();
+    }
+
+    public synchronized void start() {
+        if (running || !isSupported() || intervalMs <= 0) {
+            return;
+        }
+        running = true;
+        startTime = System.currentTimeMillis();
+        thread = new Thread(() -> {
+            while (running && process.isAlive()) {
+                Sample sample = sample();
+                if (sample != null && listener != null) {
+                    listener.accept(sample);
+                }
+                try {
+                    Thread.sleep(intervalMs);
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+        }, "Game-Resource-Monitor");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    public Summary stop(String version, String instance) {
+        Thread worker;
+        synchronized (this) {
+            if (!running) {
+                return null;
+            }
+            running = false;
+            worker = thread;
+            thread = null;
+        }
+        worker.interrupt();
+        try {
+            worker.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Summary summary = new Summary();
+        synchronized (this) {
+            summary.version = version;
+            summary.instance = instance;
+            summary.start = startTime;
+            summary.durationMs = System.currentTimeMillis() - startTime;
+            summary.peakRssKb = peakRss;
+            summary.peakThreads = peakThreads;
+            summary.averageCpu = sampleCount > 0 ? Math.round(cpuSum / sampleCount * 10) / 10.0 : 0;
+            summary.readBytes = totalRead;
+            summary.writeBytes = totalWrite;
+        }
+        appendHistory(summary);
+        return summary;
+    }
+
+    public static List<Summary> loadHistory() {
+        File file = new File(InstanceManager.getDataRoot(), HISTORY_FILE);
+        List<Summary> history = new ArrayList<>();
+        if (!file.exists()) {
+            return history;
+        }
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            Summary[] read = JsonSupport.GSON.fromJson(reader, Summary[].class);
+            if (read != null) {
+                history.addAll(Arrays.asList(read));
+            }
+        } catch (Exception e) {
+            System.err.println("Ignoring unreadable session history: " + e.getMessage());
+        }
+        return history;
+    }
+
+    private static synchronized void appendHistory(Summary summary) {
+        List<Summary> history = loadHistory();
+        history.add(summary);
+        if (history.size() > MAX_HISTORY) {
+            history = new ArrayList<>(history.subList(history.size() - MAX_HISTORY, history.size()));
+        }
+        File file = new File(InstanceManager.getDataRoot(), HISTORY_FILE);
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try {
+            file.getParentFile().mkdirs();
+            try (Writer writer = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+                JsonSupport.GSON.toJson(history, writer);
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private synchronized Sample sample() {
+        List<Long> pids = new ArrayList<>();
+        pids.add(process.pid());
+        process.descendants().forEach(p -> pids.add(p.pid()));
+
+        long now = System.currentTimeMillis();
+        long elapsed = lastSampleTime > 0 ? now - lastSampleTime : 0;
+        Sample sample = new Sample();
+        long cpuTicks = 0;
+        long readDelta = 0;
+        long writeDelta = 0;
+        boolean any = false;
+        Map<Long, long[]> seen = new HashMap<>();
+        for (long pid : pids) {
+            File dir = new File(PROC, String.valueOf(pid));
+            long[] counters = readStat(dir);
+            if (counters == null) {
+                continue;
+            }
+            any = true;
+            long[] io = readIo(dir);
+            long[] current = { counters[0], io[0], io[1] };
+            long[] previous = lastCounters.get(pid);
+            if (previous != null) {
+                cpuTicks += Math.max(0, current[0] - previous[0]);
+                readDelta += Math.max(0, current[1] - previous[1]);
+                writeDelta += Math.max(0, current[2] - previous[2]);
+            }
+            seen.put(pid, current);
+            sample.threads += (int) counters[1];
+            sample.rssKb += readRssKb(dir);
+        }
+        lastCounters.clear();
+        lastCounters.putAll(seen);
+        if (!any) {
+            return null;
+        }
+        lastSampleTime = now;
+        peakRss = Math.max(peakRss, sample.rssKb);
+        peakThreads = Math.max(peakThreads, sample.threads);
+        if (elapsed <= 0) {
+            return sample;
+        }
+
+        sample.cpuPercent = cpuTicks * 1000.0 / CLOCK_TICKS * 100.0 / elapsed;
+        sample.readBytesPerSec = readDelta * 1000 / elapsed;
+        sample.writeBytesPerSec = writeDelta * 1000 / elapsed;
+        sampleCount++;
+        cpuSum += sample.cpuPercent;
+        totalRead += readDelta;
+        totalWrite += writeDelta;
+        return sample;
+    }
+
+    private static long[] readStat(File dir) {
+        String stat = readFile(new File(dir, "stat"));
+        if (stat == null) {
+            return null;
+        }
+        int end = stat.lastIndexOf(')');
+        if (end < 0) {
+            return null;
+        }
+        String[] fields = stat.substring(end + 2).trim().split("\\s+");
+        try {
+            long utime = Long.parseLong(fields[11]);
+            long stime = Long.parseLong(fields[12]);
+            long threads = Long.parseLong(fields[17]);
+            return new long[] { utime + stime, threads };
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private static long readRssKb(File dir) {
+        String status = readFile(new File(dir, "status"));
+        if (status == null) {
+            return 0;
+        }
+        for (String line : status.split("\n")) {
+            if (line.startsWith("VmRSS:")) {
+                try {
+                    return Long.parseLong(line.substring(6).replace("kB", "").trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static long[] readIo(File dir) {
+        long[] io = new long[2];
+        String content = readFile(new File(dir, "io"));
+        if (content == null) {
+            return io;
+        }
+        for (String line : content.split("\n")) {
+            try {
+                if (line.startsWith("read_bytes:")) {
+                    io[0] = Long.parseLong(line.substring(11).trim());
+                } else if (line.startsWith("write_bytes:")) {
+                    io[1] = Long.parseLong(line.substring(12).trim());
+                }
+            } catch (NumberFormatException e) {
+            }
+        }
+        return io;
+    }
+
+    private static String readFile(File file) {
+        try {
+            return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public static class Sample {
+        double cpuPercent;
+        long rssKb;
+        int threads;
+        long readBytesPerSec;
+        long writeBytesPerSec;
+
+        public double getCpuPercent() {
+            return cpuPercent;
+        }
+
+        public long getRssKb() {
+            return rssKb;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public long getReadBytesPerSec() {
+            return readBytesPerSec;
+        }
+
+        public long getWriteBytesPerSec() {
+            return writeBytesPerSec;
+        }
+    }
+
+    public static class Summary {
+        String version;
+        String instance;
+        long start;
+        long durationMs;
+        long peakRssKb;
+        int peakThreads;
+        double averageCpu;
+        long readBytes;
+        long writeBytes;
+
+        public String getVersion() {
+            return version;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        public long getPeakRssKb() {
+            return peakRssKb;
+        }
+
+        public double getAverageCpu() {
+            return averageCpu;
+        }
+    }
+}
@@ -1,8 +1,6 @@
 package net.eqozqq.nostalgialauncherdesktop;
 
 import com.formdev.flatlaf.FlatClientProperties;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -14,12 +12,9 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.lang.reflect.Type;
-import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -1129,17 +1124,8 @@ public class SettingsPanel extends JPanel {
         SwingWorker<List<RemoteLocale>, Void> worker = new SwingWorker<List<RemoteLocale>, Void>() {
             @Override
             protected List<RemoteLocale> doInBackground() throws Exception {
-                URL url = new URL(GITHUB_LOCALES_CONFIG);
-                HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-                conn.setRequestMethod("GET");
-                conn.setConnectTimeout(5000);
-                conn.setReadTimeout(5000);
-
-                try (InputStreamReader reader = new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8)) {
-                    Gson gson = new Gson();
-                    Type listType = new TypeToken<List<RemoteLocale>>() {
-                    }.getType();
-                    return gson.fromJson(reader, listType);
+                try (InputStream in = HttpService.getInstance().openStream(GITHUB_LOCALES_CONFIG)) {
+                    return JsonSupport.readList(in, RemoteLocale.class);
                 }
             }
 
@@ -1235,15 +1221,9 @@ public class SettingsPanel extends JPanel {
         SwingWorker<String, Void> worker = new SwingWorker<String, Void>() {
             @Override
             protected String doInBackground() throws Exception {
-                URL url = new URL(LAST_VERSION);
-                HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-                connection.setRequestMethod("GET");
-                connection.setConnectTimeout(5000);
-                connection.setReadTimeout(5000);
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(HttpService.getInstance().openStream(LAST_VERSION)))) {
                     return reader.readLine().trim();
-                } finally {
-                    connection.disconnect();
                 }
             }
 
@@ -1448,6 +1428,7 @@ public class SettingsPanel extends JPanel {
             if (apks) {
                 File apksDir = new File(net.eqozqq.nostalgialauncherdesktop.Instances.InstanceManager.getInstance()
                         .resolvePath("cache/versions"));
+                ApkCache.forDir(apksDir).clear();
                 if (apksDir.exists() && apksDir.isDirectory()) {
                     File[] files = apksDir.listFiles();
                     if (files != null) {
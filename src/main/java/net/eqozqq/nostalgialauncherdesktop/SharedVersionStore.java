@@ -0,0 +1,161 @@
+package net.eqozqq.nostalgialauncherdesktop;
+
+import com.google.gson.reflect.TypeToken;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import net.eqozqq.nostalgialauncherdesktop.Instances.InstanceManager;
+import org.apache.commons.io.FileUtils;
+
+public class SharedVersionStore {
+    private static final String SHARED_DIR = "shared";
+    private static final String COMPLETE_MARKER = ".complete";
+    private static final Type REFS_TYPE = new TypeToken<Map<String, Set<String>>>() {
+    }.getType();
+
+    private static SharedVersionStore instance;
+
+    private final File root;
+    private final File apksDir;
+    private final File versionsDir;
+    private final File refsFile;
+
+    private SharedVersionStore() {
+        root = new File(InstanceManager.getDataRoot(), SHARED_DIR);
+        apksDir = new File(root, "apks");
+        versionsDir = new File(root, "versions");
+        refsFile = new File(root, "refs.json");
+    }
+
+    public static synchronized SharedVersionStore getInstance() {
+        if (instance == null) {
+            instance = new SharedVersionStore();
+        }
+        return instance;
+    }
+
+    public ApkCache getApkCache() {
+        return ApkCache.forDir(apksDir);
+    }
+
+    public synchronized File ensureExtracted(File apkFile, ProgressCallback callback, Supplier<Boolean> isCancelled)
+            throws IOException {
+        String sha256 = ApkCache.hashOf(apkFile);
+        File target = new File(versionsDir, sha256);
+        if (new File(target, COMPLETE_MARKER).exists()) {
+            if (callback != null) {
+                callback.onProgress(1.0);
+            }
+            return target;
+        }
+        File temp = new File(versionsDir, sha256 + ".tmp");
+        FileUtils.deleteQuietly(temp);
+        FileUtils.deleteQuietly(target);
+        if (!temp.mkdirs()) {
+            throw new IOException("versionManager.error.createTargetDirFailed:" + temp.getAbsolutePath());
+        }
+        try {
+            ApkExtractor.extract(apkFile, temp, callback, isCancelled);
+            Files.createFile(new File(temp, COMPLETE_MARKER).toPath());
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            FileUtils.deleteQuietly(temp);
+            throw e;
+        }
+        return target;
+    }
+
+    public synchronized void acquire(String sha256, String instanceName) {
+        Map<String, Set<String>> refs = readRefs();
+        if (refs.computeIfAbsent(sha256, k -> new TreeSet<>()).add(instanceName)) {
+            writeRefs(refs);
+        }
+    }
+
+    public synchronized void releaseInstance(String instanceName) {
+        if (!refsFile.exists()) {
+            return;
+        }
+        Map<String, Set<String>> refs = readRefs();
+        List<String> unused = new ArrayList<>();
+        boolean changed = false;
+        Iterator<Map.Entry<String, Set<String>>> it = refs.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Set<String>> entry = it.next();
+            if (entry.getValue().remove(instanceName)) {
+                changed = true;
+                if (entry.getValue().isEmpty()) {
+                    unused.add(entry.getKey());
+                    it.remove();
+                }
+            }
+        }
+        if (!changed) {
+            return;
+        }
+        for (String sha256 : unused) {
+            FileUtils.deleteQuietly(new File(versionsDir, sha256));
+            getApkCache().removeBlob(sha256);
+        }
+        writeRefs(refs);
+    }
+
+    public synchronized void renameInstance(String oldName, String newName) {
+        if (!refsFile.exists()) {
+            return;
+        }
+        Map<String, Set<String>> refs = readRefs();
+        boolean changed = false;
+        for (Set<String> users : refs.values()) {
+            if (users.remove(oldName)) {
+                users.add(newName);
+                changed = true;
+            }
+        }
+        if (changed) {
+            writeRefs(refs);
+        }
+    }
+
+    private Map<String, Set<String>> readRefs() {
+        if (refsFile.exists()) {
+            try (Reader reader = Files.newBufferedReader(refsFile.toPath(), StandardCharsets.UTF_8)) {
+                Map<String, Set<String>> refs = JsonSupport.GSON.fromJson(reader, REFS_TYPE);
+                if (refs != null) {
+                    Map<String, Set<String>> sorted = new TreeMap<>();
+                    refs.forEach((k, v) -> sorted.put(k, new TreeSet<>(v)));
+                    return sorted;
+                }
+            } catch (Exception e) {
+                System.err.println("Ignoring unreadable shared version refs: " + e.getMessage());
+            }
+        }
+        return new TreeMap<>();
+    }
+
+    private void writeRefs(Map<String, Set<String>> refs) {
+        root.mkdirs();
+        File temp = new File(root, refsFile.getName() + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+                JsonSupport.PRETTY_GSON.toJson(refs, REFS_TYPE, writer);
+            }
+            Files.move(temp.toPath(), refsFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
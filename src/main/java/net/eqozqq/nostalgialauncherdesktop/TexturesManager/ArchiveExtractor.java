@@ -4,13 +4,14 @@ import java.io.*;
 import java.util.Enumeration;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
-import java.util.zip.ZipInputStream;
 import org.apache.commons.compress.archivers.sevenz.SevenZArchiveEntry;
 import org.apache.commons.compress.archivers.sevenz.SevenZFile;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import com.github.junrar.Archive;
 import com.github.junrar.rarfile.FileHeader;
+import net.eqozqq.nostalgialauncherdesktop.ApkExtractor;
+import net.eqozqq.nostalgialauncherdesktop.GameDirSync;
 
 public class ArchiveExtractor {
 
@@ -98,6 +99,7 @@ public class ArchiveExtractor {
                 
                 File outFile = new File(destDir, relPath);
                 outFile.getParentFile().mkdirs();
+                GameDirSync.prepareForOverwrite(outFile);
                 try (OutputStream os = new FileOutputStream(outFile)) {
                     archive.extractFile(fh, os);
                 }
@@ -154,6 +156,7 @@ public class ArchiveExtractor {
 
                 File outFile = new File(destDir, relPath);
                 outFile.getParentFile().mkdirs();
+                GameDirSync.prepareForOverwrite(outFile);
                 
                 byte[] buffer = new byte[4096];
                 int len;
@@ -175,6 +178,7 @@ public class ArchiveExtractor {
         
         File outFile = new File(destDir, relPath);
         outFile.getParentFile().mkdirs();
+        GameDirSync.prepareForOverwrite(outFile);
         try (OutputStream os = new FileOutputStream(outFile)) {
             byte[] buffer = new byte[4096];
             int len;
@@ -185,26 +189,6 @@ public class ArchiveExtractor {
     }
     
     public static void extractDefaultTextures(File apkFile, File destDir) throws IOException {
-         try (ZipInputStream zis = new ZipInputStream(new FileInputStream(apkFile))) {
-            ZipEntry zipEntry;
-            while ((zipEntry = zis.getNextEntry()) != null) {
-                String name = zipEntry.getName();
-                if (name.startsWith("assets/") || name.startsWith("res/") || name.startsWith("lib/")) {
-                     File newFile = new File(destDir, name);
-                     if (zipEntry.isDirectory()) {
-                         newFile.mkdirs();
-                     } else {
-                         newFile.getParentFile().mkdirs();
-                         try (FileOutputStream fos = new FileOutputStream(newFile)) {
-                             byte[] buffer = new byte[4096];
-                             int len;
-                             while ((len = zis.read(buffer)) > 0) {
-                                 fos.write(buffer, 0, len);
-                             }
-                         }
-                     }
-                }
-            }
-         }
+        ApkExtractor.extract(apkFile, destDir, null, null);
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package net.eqozqq.nostalgialauncherdesktop.TexturesManager;
 
 import net.eqozqq.nostalgialauncherdesktop.LocaleManager;
+import net.eqozqq.nostalgialauncherdesktop.NostalgiaLauncherDesktop;
 import net.eqozqq.nostalgialauncherdesktop.Instances.InstanceManager;
 
 import javax.swing.*;
@@ -125,6 +126,7 @@ public class TextureInstallDialog extends JDialog {
         try {
             ArchiveExtractor.install(archiveFile, destDir);
             success = true;
+            NostalgiaLauncherDesktop.getInstance().invalidatePreparedLaunch();
             JOptionPane.showMessageDialog(this, localeManager.get("info.texturesInstalled"),
                     localeManager.get("dialog.success.title"), JOptionPane.INFORMATION_MESSAGE);
             dispose();
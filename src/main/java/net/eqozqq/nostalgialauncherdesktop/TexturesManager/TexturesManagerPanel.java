@@ -336,7 +336,7 @@ public class TexturesManagerPanel extends JPanel {
                 protected Void doInBackground() throws Exception {
                     File apkFile = versionManager.downloadVersion(targetVersion, progress -> {
                         publish((int) (progress * 100));
-                    }, () -> isCancelled());
+                    }, () -> isCancelled() || progressMonitor.isCanceled());
 
                     progressMonitor.setNote(localeManager.get("progress.extractingTextures"));
                     progressMonitor.setProgress(0);
@@ -358,6 +358,8 @@ public class TexturesManagerPanel extends JPanel {
                     progressMonitor.close();
                     try {
                         get();
+                        net.eqozqq.nostalgialauncherdesktop.NostalgiaLauncherDesktop.getInstance()
+                                .invalidatePreparedLaunch();
                         JOptionPane.showMessageDialog(TexturesManagerPanel.this,
                                 localeManager.get("info.restoreSuccess"),
                                 localeManager.get("dialog.success.title"),
@@ -5,6 +5,7 @@ import java.util.Objects;
 public class Version {
     private String name;
     private String url;
+    private String sha256;
 
     public Version() {
     }
@@ -22,6 +23,10 @@ public class Version {
         return url;
     }
 
+    public String getSha256() {
+        return sha256;
+    }
+
     @Override
     public String toString() {
         return name;
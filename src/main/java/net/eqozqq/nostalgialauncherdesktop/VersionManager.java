@@ -1,31 +1,32 @@
 package net.eqozqq.nostalgialauncherdesktop;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
 import org.apache.commons.io.FileUtils;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpStatus;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
+import java.io.InputStream;
 import java.io.Writer;
-import java.lang.reflect.Type;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
@@ -38,8 +39,20 @@ public class VersionManager {
     private static final String VERSIONS_DIR = "versions";
     private static final String CUSTOM_VERSIONS_FILE = "custom_versions.json";
     private static final String VERSIONS_LIST_CACHE_FILE = "cache" + File.separator + "versions_list.json";
+    private static final String VERSIONS_LIST_META_FILE = "cache" + File.separator + "versions_list.meta.json";
 
-    private volatile HttpGet currentRequest;
+    public enum GameDirMode {
+        FULL_COPY, SYNC, HARDLINK, REFLINK
+    }
+
+    private volatile DownloadManager.DownloadJob currentDownload;
+    private volatile Prefetch prefetch;
+    private volatile Prefetch stoppingPrefetch;
+    private GameDirMode gameDirMode = GameDirMode.SYNC;
+    private int downloadSegments = 1;
+    private boolean pipelinedInstall = true;
+    private long apkCacheLimitBytes;
+    private boolean sharedVersionStore;
 
     private Set<String> installedVersions;
 
@@ -53,32 +66,20 @@ public class VersionManager {
 
         try {
             if (source != null && !source.isEmpty()) {
-                if (source.startsWith("http://") || source.startsWith("https://")) {
-                    try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-                        HttpGet request = new HttpGet(source);
-                        request.setHeader("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
-                        try (CloseableHttpResponse response = httpClient.execute(request)) {
-                            HttpEntity entity = response.getEntity();
-                            if (entity != null) {
-                                String jsonString = org.apache.commons.io.IOUtils.toString(entity.getContent(),
-                                        "UTF-8");
-                                Gson gson = new Gson();
-                                Type listType = new TypeToken<List<Version>>() {
-                                }.getType();
-                                List<Version> networkVersions = gson.fromJson(jsonString, listType);
-                                versions.addAll(networkVersions);
-                                saveVersionsCache(networkVersions);
-                            }
-                        }
+                if (isRemoteSource(source)) {
+                    List<Version> networkVersions = fetchRemoteVersions(source);
+                    if (networkVersions != null) {
+                        versions.addAll(networkVersions);
                     }
                 } else {
                     File file = new File(source);
                     if (file.exists() && file.isFile()) {
-                        Gson gson = new Gson();
-                        Type listType = new TypeToken<List<Version>>() {
-                        }.getType();
-                        versions.addAll(
-                                gson.fromJson(new InputStreamReader(Files.newInputStream(file.toPath())), listType));
+                        try (InputStream in = Files.newInputStream(file.toPath())) {
+                            List<Version> fileVersions = JsonSupport.readList(in, Version.class);
+                            if (fileVersions != null) {
+                                versions.addAll(fileVersions);
+                            }
+                        }
                     } else {
                         throw new IOException("versionManager.error.fileNotFound:" + source);
                     }
@@ -96,14 +97,149 @@ public class VersionManager {
         versions.addAll(loadCustomVersions());
 
         if (isOffline) {
-            versions = versions.stream()
-                    .filter(v -> isVersionInstalled(v) || isApkCached(v))
-                    .collect(Collectors.toList());
+            versions = filterAvailableOffline(versions);
         }
 
         return versions.stream().distinct().collect(Collectors.toList());
     }
 
+    public List<Version> loadCachedVersions(String source) {
+        if (!isRemoteSource(source)) {
+            return null;
+        }
+        VersionsCacheMeta meta = loadVersionsCacheMeta();
+        if (meta != null && !source.equals(meta.source)) {
+            return null;
+        }
+        List<Version> cached = loadVersionsCache();
+        if (cached.isEmpty()) {
+            return null;
+        }
+        List<Version> versions = new ArrayList<>(cached);
+        versions.addAll(loadCustomVersions());
+        return versions.stream().distinct().collect(Collectors.toList());
+    }
+
+    public List<Version> revalidateVersions(String source, List<Version> shown) throws IOException {
+        List<Version> networkVersions = fetchRemoteVersions(source);
+        if (networkVersions == null) {
+            return null;
+        }
+        List<Version> versions = new ArrayList<>(networkVersions);
+        versions.addAll(loadCustomVersions());
+        versions = versions.stream().distinct().collect(Collectors.toList());
+        return sameVersions(versions, shown) ? null : versions;
+    }
+
+    public List<Version> filterAvailableOffline(List<Version> versions) {
+        return versions.stream()
+                .filter(v -> isVersionInstalled(v) || isApkCached(v))
+                .collect(Collectors.toList());
+    }
+
+    private static boolean isRemoteSource(String source) {
+        return source != null && (source.startsWith("http://") || source.startsWith("https://"));
+    }
+
+    private static boolean sameVersions(List<Version> a, List<Version> b) {
+        if (b == null || a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            Version x = a.get(i);
+            Version y = b.get(i);
+            if (!Objects.equals(x.getName(), y.getName()) || !Objects.equals(x.getUrl(), y.getUrl())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private List<Version> fetchRemoteVersions(String source) throws IOException {
+        IOException lastError = null;
+        for (String url : MirrorSelector.getInstance().candidates(source)) {
+            try {
+                return fetchRemoteVersions(source, url);
+            } catch (IOException e) {
+                lastError = e;
+                MirrorSelector.getInstance().reportFailure(url);
+                System.err.println("Failed to load versions from " + url + ": " + e.getMessage());
+            }
+        }
+        throw lastError;
+    }
+
+    private List<Version> fetchRemoteVersions(String source, String url) throws IOException {
+        File cacheFile = new File(InstanceManager.getInstance().resolvePath(VERSIONS_LIST_CACHE_FILE));
+        VersionsCacheMeta meta = loadVersionsCacheMeta();
+        HttpGet request = HttpService.getInstance().newGet(url);
+        if (meta != null && source.equals(meta.source) && cacheFile.exists()) {
+            if (meta.etag != null) {
+                request.setHeader("If-None-Match", meta.etag);
+            }
+            if (meta.lastModified != null) {
+                request.setHeader("If-Modified-Since", meta.lastModified);
+            }
+        }
+        try (CloseableHttpResponse response = HttpService.getInstance().execute(request)) {
+            int status = response.getStatusLine().getStatusCode();
+            HttpEntity entity = response.getEntity();
+            if (status == HttpStatus.SC_NOT_MODIFIED) {
+                EntityUtils.consumeQuietly(entity);
+                return null;
+            }
+            if (status != HttpStatus.SC_OK || entity == null) {
+                EntityUtils.consumeQuietly(entity);
+                throw new IOException("HTTP " + status + " for " + url);
+            }
+            List<Version> networkVersions;
+            try (InputStream in = entity.getContent()) {
+                networkVersions = JsonSupport.readList(in, Version.class);
+            }
+            if (networkVersions == null) {
+                throw new IOException("Empty versions list from " + url);
+            }
+            saveVersionsCache(networkVersions);
+
+            VersionsCacheMeta newMeta = new VersionsCacheMeta();
+            newMeta.source = source;
+            newMeta.etag = response.getFirstHeader("ETag") != null ? response.getFirstHeader("ETag").getValue()
+                    : null;
+            newMeta.lastModified = response.getFirstHeader("Last-Modified") != null
+                    ? response.getFirstHeader("Last-Modified").getValue()
+                    : null;
+            saveVersionsCacheMeta(newMeta);
+            return networkVersions;
+        }
+    }
+
+    private VersionsCacheMeta loadVersionsCacheMeta() {
+        File metaFile = new File(InstanceManager.getInstance().resolvePath(VERSIONS_LIST_META_FILE));
+        if (metaFile.exists()) {
+            try (FileReader reader = new FileReader(metaFile)) {
+                return JsonSupport.GSON.fromJson(reader, VersionsCacheMeta.class);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+        return null;
+    }
+
+    private void saveVersionsCacheMeta(VersionsCacheMeta meta) {
+        File metaFile = new File(InstanceManager.getInstance().resolvePath(VERSIONS_LIST_META_FILE));
+        try (Writer writer = new FileWriter(metaFile)) {
+            JsonSupport.GSON.toJson(meta, writer);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static class VersionsCacheMeta {
+        String source;
+        String etag;
+        String lastModified;
+    }
+
     private void saveVersionsCache(List<Version> versions) {
         try {
             File cacheFile = new File(InstanceManager.getInstance().resolvePath(VERSIONS_LIST_CACHE_FILE));
@@ -112,8 +248,7 @@ public class VersionManager {
                 parent.mkdirs();
             }
             try (Writer writer = new FileWriter(cacheFile)) {
-                Gson gson = new GsonBuilder().setPrettyPrinting().create();
-                gson.toJson(versions, writer);
+                JsonSupport.PRETTY_GSON.toJson(versions, writer);
             }
         } catch (IOException e) {
             e.printStackTrace();
@@ -124,10 +259,7 @@ public class VersionManager {
         File cacheFile = new File(InstanceManager.getInstance().resolvePath(VERSIONS_LIST_CACHE_FILE));
         if (cacheFile.exists()) {
             try (FileReader reader = new FileReader(cacheFile)) {
-                Gson gson = new Gson();
-                Type listType = new TypeToken<List<Version>>() {
-                }.getType();
-                List<Version> cachedVersions = gson.fromJson(reader, listType);
+                List<Version> cachedVersions = JsonSupport.readList(reader, Version.class);
                 if (cachedVersions != null) {
                     return cachedVersions;
                 }
@@ -142,10 +274,7 @@ public class VersionManager {
         File customVersionsFile = new File(InstanceManager.getInstance().resolvePath(CUSTOM_VERSIONS_FILE));
         if (customVersionsFile.exists()) {
             try (FileReader reader = new FileReader(customVersionsFile)) {
-                Gson gson = new Gson();
-                Type listType = new TypeToken<List<Version>>() {
-                }.getType();
-                List<Version> customVersions = gson.fromJson(reader, listType);
+                List<Version> customVersions = JsonSupport.readList(reader, Version.class);
                 if (customVersions != null) {
                     return customVersions;
                 }
@@ -164,8 +293,7 @@ public class VersionManager {
         if (parent != null && !parent.exists())
             parent.mkdirs();
         try (Writer writer = new FileWriter(targetFile)) {
-            Gson gson = new GsonBuilder().setPrettyPrinting().create();
-            gson.toJson(customVersions, writer);
+            JsonSupport.PRETTY_GSON.toJson(customVersions, writer);
         } catch (IOException e) {
             throw e;
         }
@@ -188,6 +316,10 @@ public class VersionManager {
     }
 
     public boolean isVersionInstalled(Version version) {
+        Prefetch running = prefetch;
+        if (running != null && !running.result.isDone() && running.version.getName().equals(version.getName())) {
+            return false;
+        }
         if (installedVersions == null) {
             updateInstalledVersions();
         }
@@ -195,13 +327,40 @@ public class VersionManager {
     }
 
     public boolean isApkCached(Version version) {
-        File versionsCacheDir = new File(InstanceManager.getInstance().resolvePath(VERSIONS_CACHE_DIR));
-        File apkFile = new File(versionsCacheDir, version.getName() + ".apk");
-        return apkFile.exists() && apkFile.length() > 0;
+        return getApkCache().contains(version.getName());
+    }
+
+    public ApkCache getApkCache() {
+        if (sharedVersionStore) {
+            return SharedVersionStore.getInstance().getApkCache();
+        }
+        return ApkCache.forDir(new File(InstanceManager.getInstance().resolvePath(VERSIONS_CACHE_DIR)));
+    }
+
+    public void setApkCacheLimitMb(long apkCacheLimitMb) {
+        this.apkCacheLimitBytes = Math.max(0, apkCacheLimitMb) * 1024 * 1024;
+    }
+
+    private void evictApkCache(String keepVersionName) {
+        if (apkCacheLimitBytes <= 0) {
+            return;
+        }
+        if (sharedVersionStore) {
+            getApkCache().evict(apkCacheLimitBytes, name -> true, keepVersionName);
+            return;
+        }
+        updateInstalledVersions();
+        Set<String> installed = installedVersions;
+        getApkCache().evict(apkCacheLimitBytes, installed::contains, keepVersionName);
     }
 
     public File downloadVersion(Version version, ProgressCallback callback,
             java.util.function.Supplier<Boolean> isCancelled) throws IOException {
+        return downloadVersion(version, DownloadManager.Priority.NORMAL, callback, isCancelled);
+    }
+
+    public File downloadVersion(Version version, DownloadManager.Priority priority, ProgressCallback callback,
+            java.util.function.Supplier<Boolean> isCancelled) throws IOException {
         File versionsCacheDir = new File(InstanceManager.getInstance().resolvePath(VERSIONS_CACHE_DIR));
         if (!versionsCacheDir.exists()) {
             if (!versionsCacheDir.mkdirs()) {
@@ -210,18 +369,15 @@ public class VersionManager {
             }
         }
 
+        ApkCache apkCache = getApkCache();
+        File cachedFile = apkCache.lookup(version);
+        if (cachedFile != null) {
+            return cachedFile;
+        }
+
         String fileName = version.getName() + ".apk";
         File outputFile = new File(versionsCacheDir, fileName);
 
-        if (outputFile.exists()) {
-            if (isValidZip(outputFile)) {
-                return outputFile;
-            } else {
-                System.out.println("Corrupted APK found, deleting: " + outputFile.getAbsolutePath());
-                outputFile.delete();
-            }
-        }
-
         String downloadUrl = version.getUrl();
         if (downloadUrl == null || downloadUrl.isEmpty()) {
             throw new IOException("versionManager.error.missingUrl:" + version.getName());
@@ -231,62 +387,191 @@ public class VersionManager {
             File sourceFile = new File(URI.create(downloadUrl));
             if (sourceFile.exists()) {
                 FileUtils.copyFile(sourceFile, outputFile);
-                return outputFile;
+                return storeApk(version, outputFile);
             } else {
                 throw new IOException("versionManager.error.customVersionNotFound:" + sourceFile.getAbsolutePath());
             }
         }
 
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            HttpGet request = new HttpGet(downloadUrl);
-            request.setHeader("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36");
-            currentRequest = request;
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                HttpEntity entity = response.getEntity();
-                if (entity != null) {
-                    long totalSize = entity.getContentLength();
-                    try (java.io.InputStream inputStream = entity.getContent();
-                            OutputStream outputStream = new FileOutputStream(outputFile)) {
-                        byte[] buffer = new byte[4096];
-                        int bytesRead;
-                        long totalBytesRead = 0;
-
-                        while ((bytesRead = inputStream.read(buffer)) != -1) {
-                            if (isCancelled != null && isCancelled.get()) {
-                                throw new IOException("Cancelled");
-                            }
-                            outputStream.write(buffer, 0, bytesRead);
-                            totalBytesRead += bytesRead;
-                            if (callback != null && totalSize > 0) {
-                                callback.onProgress((double) totalBytesRead / totalSize);
-                            }
-                        }
-                    }
+        DownloadManager.DownloadJob job = DownloadManager.getInstance().submit(downloadUrl, outputFile, priority,
+                downloadSegments, priority != DownloadManager.Priority.BACKGROUND, version.getSha256());
+        if (priority != DownloadManager.Priority.BACKGROUND) {
+            currentDownload = job;
+        }
+        try {
+            job.await(outputFile, callback, isCancelled);
+        } finally {
+            if (currentDownload == job) {
+                currentDownload = null;
+            }
+        }
+        return storeDownloaded(version, outputFile);
+    }
+
+    private File storeDownloaded(Version version, File outputFile) throws IOException {
+        ApkCache apkCache = getApkCache();
+        synchronized (apkCache) {
+            if (!outputFile.exists()) {
+                File cachedFile = apkCache.lookup(version);
+                if (cachedFile != null) {
+                    return cachedFile;
                 }
             }
-        } catch (IOException e) {
-            
-            if (outputFile.exists()) {
+            if (!outputFile.exists() || outputFile.length() == 0) {
+                throw new IOException("versionManager.error.downloadFailed:" + outputFile.getAbsolutePath());
+            }
+            if (!isValidZip(outputFile)) {
                 outputFile.delete();
+                throw new IOException("versionManager.error.downloadFailed:" + outputFile.getAbsolutePath());
+            }
+            return storeApk(version, outputFile);
+        }
+    }
+
+    private File storeApk(Version version, File downloaded) throws IOException {
+        File stored = getApkCache().store(version, downloaded);
+        evictApkCache(version.getName());
+        return stored;
+    }
+
+    public File installVersion(Version version, ProgressCallback callback,
+            java.util.function.Supplier<Boolean> isCancelled) throws IOException {
+        File prefetched = awaitPrefetch(version, callback, isCancelled);
+        if (prefetched != null) {
+            return prefetched;
+        }
+        return installVersion(version, DownloadManager.Priority.FOREGROUND, callback, isCancelled);
+    }
+
+    public File installVersion(Version version, DownloadManager.Priority priority, ProgressCallback callback,
+            java.util.function.Supplier<Boolean> isCancelled) throws IOException {
+        ApkCache apkCache = getApkCache();
+        apkCache.retain(version.getName());
+        try {
+            return installRetained(version, priority, callback, isCancelled);
+        } finally {
+            apkCache.release(version.getName());
+        }
+    }
+
+    private File installRetained(Version version, DownloadManager.Priority priority, ProgressCallback callback,
+            java.util.function.Supplier<Boolean> isCancelled) throws IOException {
+        File versionsCacheDir = new File(InstanceManager.getInstance().resolvePath(VERSIONS_CACHE_DIR));
+        File apkFile = new File(versionsCacheDir, version.getName() + ".apk");
+        String downloadUrl = version.getUrl();
+        if (sharedVersionStore) {
+            return installShared(version, priority, callback, isCancelled);
+        }
+        if (!pipelinedInstall || isApkCached(version) || !isRemoteSource(downloadUrl)) {
+            File downloaded = downloadVersion(version, priority, progress -> callback.onProgress(progress * 0.7),
+                    isCancelled);
+            extractVersion(downloaded, version.getName(), progress -> callback.onProgress(0.7 + progress * 0.3),
+                    isCancelled);
+            return downloaded;
+        }
+
+        if (!versionsCacheDir.exists() && !versionsCacheDir.mkdirs()) {
+            throw new IOException("versionManager.error.createCacheDirFailed:" + versionsCacheDir.getAbsolutePath());
+        }
+        File targetDir = createTargetDir(version.getName());
+
+        DownloadManager.DownloadJob job = DownloadManager.getInstance().submit(downloadUrl, apkFile,
+                priority, 1, priority != DownloadManager.Priority.BACKGROUND, version.getSha256());
+        GrowingFileInputStream source = new GrowingFileInputStream(job.getPartFile(), apkFile, isCancelled);
+        AtomicReference<IOException> extractError = new AtomicReference<>();
+        AtomicBoolean streamable = new AtomicBoolean(true);
+        Thread extractor = new Thread(() -> {
+            try (ZipInputStream zipInputStream = new ZipInputStream(source)) {
+                extractEntries(zipInputStream, targetDir, isCancelled);
+            } catch (java.util.zip.ZipException e) {
+                System.err.println("APK cannot be extracted while downloading, extracting afterwards: "
+                        + e.getMessage());
+                streamable.set(false);
+            } catch (IOException e) {
+                extractError.set(e);
+                job.cancelIfUnshared();
+            }
+        }, "Version-Extract");
+        extractor.setDaemon(true);
+
+        if (priority != DownloadManager.Priority.BACKGROUND) {
+            currentDownload = job;
+        }
+        boolean downloaded = false;
+        try {
+            extractor.start();
+            job.await(apkFile, progress -> {
+                source.signal();
+                callback.onProgress(progress * 0.95);
+            }, () -> extractError.get() != null || (isCancelled != null && isCancelled.get()));
+            downloaded = true;
+        } catch (IOException e) {
+            if (extractError.get() != null) {
+                throw extractError.get();
             }
             throw e;
         } finally {
-            currentRequest = null;
+            if (currentDownload == job) {
+                currentDownload = null;
+            }
+            source.finish(downloaded);
+            try {
+                extractor.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Cancelled");
+            }
+            if (!downloaded || extractError.get() != null) {
+                FileUtils.deleteQuietly(targetDir);
+            }
         }
 
-        if (!outputFile.exists() || outputFile.length() == 0) {
-            throw new IOException("versionManager.error.downloadFailed:" + outputFile.getAbsolutePath());
+        if (extractError.get() != null) {
+            throw extractError.get();
         }
+        File storedFile;
+        try {
+            storedFile = storeDownloaded(version, apkFile);
+        } catch (IOException e) {
+            FileUtils.deleteQuietly(targetDir);
+            throw e;
+        }
+        if (!streamable.get()) {
+            extractVersion(storedFile, version.getName(), progress -> callback.onProgress(0.95 + progress * 0.05),
+                    isCancelled);
+        }
+        callback.onProgress(1.0);
+        return storedFile;
+    }
 
-        return outputFile;
+    private File installShared(Version version, DownloadManager.Priority priority, ProgressCallback callback,
+            java.util.function.Supplier<Boolean> isCancelled) throws IOException {
+        File apkFile = downloadVersion(version, priority, progress -> callback.onProgress(progress * 0.6),
+                isCancelled);
+        SharedVersionStore store = SharedVersionStore.getInstance();
+        File sharedDir = store.ensureExtracted(apkFile, progress -> callback.onProgress(0.6 + progress * 0.3),
+                isCancelled);
+        store.acquire(sharedDir.getName(), InstanceManager.getInstance().getActiveInstance());
+
+        File targetDir = createTargetDir(version.getName());
+        GameDirSync sync = new GameDirSync(sharedDir, targetDir, GameDirSync.Strategy.HARDLINK);
+        sync.sync(version.getName());
+        callback.onProgress(1.0);
+        return apkFile;
     }
 
-    public void extractVersion(File apkFile, File gameDir, java.util.function.Supplier<Boolean> isCancelled)
-            throws IOException {
+    public void extractVersion(File apkFile, String versionName, ProgressCallback callback,
+            java.util.function.Supplier<Boolean> isCancelled) throws IOException {
         if (!apkFile.exists()) {
             throw new IOException("versionManager.error.apkNotFound:" + apkFile.getAbsolutePath());
         }
 
+        File targetDir = createTargetDir(versionName);
+
+        ApkExtractor.extract(apkFile, targetDir, callback, isCancelled);
+    }
+
+    private File createTargetDir(String versionName) throws IOException {
         File versionsDir = new File(InstanceManager.getInstance().resolvePath(VERSIONS_DIR));
         if (!versionsDir.exists()) {
             if (!versionsDir.mkdirs()) {
@@ -294,60 +579,170 @@ public class VersionManager {
             }
         }
 
-        String versionName = apkFile.getName().replace(".apk", "");
         File targetDir = new File(versionsDir, versionName);
         if (!targetDir.exists()) {
             if (!targetDir.mkdirs()) {
                 throw new IOException("versionManager.error.createTargetDirFailed:" + targetDir.getAbsolutePath());
             }
         }
+        return targetDir;
+    }
 
-        try (ZipInputStream zipInputStream = new ZipInputStream(Files.newInputStream(apkFile.toPath()))) {
-            ZipEntry entry;
-            String canonicalTargetDir = targetDir.getCanonicalPath() + File.separator;
-            while ((entry = zipInputStream.getNextEntry()) != null) {
-                if (entry.isDirectory()) {
-                    continue;
-                }
+    private void extractEntries(ZipInputStream zipInputStream, File targetDir,
+            java.util.function.Supplier<Boolean> isCancelled) throws IOException {
+        ZipEntry entry;
+        String canonicalTargetDir = targetDir.getCanonicalPath() + File.separator;
+        while ((entry = zipInputStream.getNextEntry()) != null) {
+            if (entry.isDirectory()) {
+                continue;
+            }
 
-                String entryName = entry.getName();
+            String entryName = entry.getName();
 
-                if (entryName.startsWith("assets/") || entryName.startsWith("res/") || entryName.startsWith("lib/")) {
-                    File newFile = new File(targetDir, entryName);
+            if (ApkExtractor.isGameEntry(entryName)) {
+                File newFile = new File(targetDir, entryName);
 
-                    if (!newFile.getCanonicalPath().startsWith(canonicalTargetDir)) {
-                        throw new IOException("Zip entry outside target directory: " + entryName);
-                    }
+                if (!newFile.getCanonicalPath().startsWith(canonicalTargetDir)) {
+                    throw new IOException("Zip entry outside target directory: " + entryName);
+                }
 
-                    File parentDir = newFile.getParentFile();
-                    if (parentDir != null && !parentDir.exists()) {
-                        if (!parentDir.mkdirs()) {
-                            continue;
-                        }
+                File parentDir = newFile.getParentFile();
+                if (parentDir != null && !parentDir.exists()) {
+                    if (!parentDir.mkdirs()) {
+                        continue;
                     }
+                }
 
-                    try (FileOutputStream fos = new FileOutputStream(newFile)) {
-                        byte[] buffer = new byte[4096];
-                        int bytesRead;
-                        while ((bytesRead = zipInputStream.read(buffer)) != -1) {
-                            fos.write(buffer, 0, bytesRead);
-                        }
+                GameDirSync.prepareForOverwrite(newFile);
+                try (FileOutputStream fos = new FileOutputStream(newFile)) {
+                    byte[] buffer = new byte[4096];
+                    int bytesRead;
+                    while ((bytesRead = zipInputStream.read(buffer)) != -1) {
+                        fos.write(buffer, 0, bytesRead);
                     }
                 }
-                if (isCancelled != null && isCancelled.get()) {
+            }
+            if (isCancelled != null && isCancelled.get()) {
+                throw new IOException("Cancelled");
+            }
+            zipInputStream.closeEntry();
+        }
+    }
+
+    public synchronized java.util.concurrent.CompletableFuture<File> prefetchVersion(Version version) {
+        Prefetch running = prefetch;
+        if (running != null && !running.result.isDone()) {
+            if (version != null && !running.cancelled && running.version.getName().equals(version.getName())
+                    && Objects.equals(running.version.getUrl(), version.getUrl())) {
+                return running.result;
+            }
+            cancelPrefetch();
+        }
+        if (version == null || version.getUrl() == null || version.getUrl().isEmpty()
+                || isVersionInstalled(version)) {
+            return null;
+        }
+        Prefetch next = new Prefetch(version, stoppingPrefetch);
+        prefetch = next;
+        Thread thread = new Thread(() -> {
+            try {
+                if (next.previous != null) {
+                    next.previous.result.handle((file, error) -> null).join();
+                }
+                if (next.cancelled) {
                     throw new IOException("Cancelled");
                 }
-                zipInputStream.closeEntry();
+                File apkFile = installVersion(version, DownloadManager.Priority.BACKGROUND,
+                        progress -> next.progress = progress, () -> next.cancelled);
+                updateInstalledVersions();
+                next.result.complete(apkFile);
+            } catch (Throwable t) {
+                if (!next.cancelled) {
+                    System.err.println("Background pre-fetch of " + version.getName() + " failed: " + t.getMessage());
+                }
+                FileUtils.deleteQuietly(
+                        new File(InstanceManager.getInstance().resolvePath(VERSIONS_DIR), version.getName()));
+                updateInstalledVersions();
+                next.result.completeExceptionally(t);
+            }
+        }, "Version-Prefetch");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+        return next.result;
+    }
+
+    public synchronized void cancelPrefetch() {
+        Prefetch running = prefetch;
+        if (running != null && !running.result.isDone()) {
+            running.cancelled = true;
+            stoppingPrefetch = running;
+        }
+        prefetch = null;
+    }
+
+    private File awaitPrefetch(Version version, ProgressCallback callback,
+            java.util.function.Supplier<Boolean> isCancelled) throws IOException {
+        Prefetch running = prefetch;
+        boolean adopt = running != null && running.version.getName().equals(version.getName())
+                && Objects.equals(running.version.getUrl(), version.getUrl());
+        if (!adopt) {
+            running = stoppingPrefetch;
+            if (running == null || running.result.isDone()) {
+                return null;
+            }
+        } else {
+            DownloadManager.getInstance().prioritize(version.getUrl(), DownloadManager.Priority.FOREGROUND);
+        }
+        while (true) {
+            if (isCancelled != null && isCancelled.get()) {
+                if (adopt) {
+                    cancelPrefetch();
+                }
+                throw new IOException("Cancelled");
+            }
+            if (adopt) {
+                callback.onProgress(running.progress);
+            }
+            try {
+                File apkFile = running.result.get(100, java.util.concurrent.TimeUnit.MILLISECONDS);
+                return adopt ? apkFile : null;
+            } catch (java.util.concurrent.TimeoutException e) {
+            } catch (java.util.concurrent.ExecutionException e) {
+                if (adopt) {
+                    System.err.println("Pre-fetch did not complete, installing in the foreground: "
+                            + e.getCause().getMessage());
+                }
+                return null;
+            } catch (InterruptedException e) {
+                if (adopt) {
+                    cancelPrefetch();
+                }
+                Thread.currentThread().interrupt();
+                throw new IOException("Cancelled");
             }
         }
     }
 
     public void cancelDownload() {
-        if (currentRequest != null) {
-            currentRequest.abort();
+        DownloadManager.DownloadJob download = currentDownload;
+        if (download != null) {
+            download.cancelIfUnshared();
         }
     }
 
+    public void setSharedVersionStore(boolean sharedVersionStore) {
+        this.sharedVersionStore = sharedVersionStore;
+    }
+
+    public void setPipelinedInstall(boolean pipelinedInstall) {
+        this.pipelinedInstall = pipelinedInstall;
+    }
+
+    public void setDownloadSegments(int downloadSegments) {
+        this.downloadSegments = Math.max(1, downloadSegments);
+    }
+
     private boolean isValidZip(File file) {
         try (ZipInputStream zis = new ZipInputStream(Files.newInputStream(file.toPath()))) {
             return zis.getNextEntry() != null;
@@ -356,7 +751,15 @@ public class VersionManager {
         }
     }
 
-    public void prepareGameDir(Version version, File gameDir) throws IOException {
+    public GameDirMode getGameDirMode() {
+        return gameDirMode;
+    }
+
+    public void setGameDirMode(GameDirMode gameDirMode) {
+        this.gameDirMode = gameDirMode != null ? gameDirMode : GameDirMode.SYNC;
+    }
+
+    public long prepareGameDir(Version version, File gameDir) throws IOException {
         File versionsDir = new File(InstanceManager.getInstance().resolvePath(VERSIONS_DIR));
         File currentVersionDir = new File(versionsDir, version.getName());
 
@@ -364,6 +767,15 @@ public class VersionManager {
             throw new IOException("versionManager.error.versionDirNotFound:" + currentVersionDir.getAbsolutePath());
         }
 
+        if (gameDirMode != GameDirMode.FULL_COPY) {
+            GameDirSync.Strategy strategy = gameDirMode == GameDirMode.HARDLINK ? GameDirSync.Strategy.HARDLINK
+                    : gameDirMode == GameDirMode.REFLINK ? GameDirSync.Strategy.REFLINK : GameDirSync.Strategy.COPY;
+            GameDirSync sync = new GameDirSync(currentVersionDir, gameDir, strategy);
+            sync.sync(version.getName());
+            return sync.getCopiedBytes();
+        }
+
+        GameDirSync.invalidate(gameDir);
         File assetsDir = new File(gameDir, "assets");
         if (assetsDir.exists()) {
             FileUtils.deleteDirectory(assetsDir);
@@ -377,17 +789,126 @@ public class VersionManager {
             FileUtils.deleteDirectory(resDir);
         }
 
+        long copied = 0;
         File currentVersionAssets = new File(currentVersionDir, "assets");
         if (currentVersionAssets.exists()) {
             FileUtils.copyDirectory(currentVersionAssets, assetsDir);
+            copied += FileUtils.sizeOfDirectory(assetsDir);
         }
         File currentVersionLib = new File(currentVersionDir, "lib");
         if (currentVersionLib.exists()) {
             FileUtils.copyDirectory(currentVersionLib, libDir);
+            copied += FileUtils.sizeOfDirectory(libDir);
         }
         File currentVersionRes = new File(currentVersionDir, "res");
         if (currentVersionRes.exists()) {
             FileUtils.copyDirectory(currentVersionRes, resDir);
+            copied += FileUtils.sizeOfDirectory(resDir);
+        }
+        return copied;
+    }
+
+    private static class Prefetch {
+        final Version version;
+        final Prefetch previous;
+        final java.util.concurrent.CompletableFuture<File> result = new java.util.concurrent.CompletableFuture<>();
+        volatile double progress;
+        volatile boolean cancelled;
+
+        Prefetch(Version version, Prefetch previous) {
+            this.version = version;
+            this.previous = previous;
+        }
+    }
+
+    private static class GrowingFileInputStream extends InputStream {
+        private final File partFile;
+        private final File finalFile;
+        private final java.util.function.Supplier<Boolean> isCancelled;
+        private final Object lock = new Object();
+        private volatile boolean complete;
+        private volatile boolean failed;
+        private FileChannel channel;
+        private long position;
+
+        GrowingFileInputStream(File partFile, File finalFile, java.util.function.Supplier<Boolean> isCancelled) {
+            this.partFile = partFile;
+            this.finalFile = finalFile;
+            this.isCancelled = isCancelled;
+        }
+
+        void signal() {
+            synchronized (lock) {
+                lock.notifyAll();
+            }
+        }
+
+        void finish(boolean success) {
+            failed = !success;
+            complete = true;
+            signal();
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int n = read(single, 0, 1);
+            return n == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (true) {
+                if (isCancelled != null && isCancelled.get()) {
+                    throw new IOException("Cancelled");
+                }
+                boolean done = complete;
+                if (done && failed) {
+                    throw new IOException("Cancelled");
+                }
+                if (channel == null) {
+                    channel = open(done ? finalFile : partFile);
+                }
+                if (channel != null) {
+                    int n = channel.read(ByteBuffer.wrap(b, off, len), position);
+                    if (n > 0) {
+                        position += n;
+                        return n;
+                    }
+                }
+                if (done) {
+                    if (channel == null) {
+                        throw new IOException("versionManager.error.apkNotFound:" + finalFile.getAbsolutePath());
+                    }
+                    return -1;
+                }
+                synchronized (lock) {
+                    try {
+                        lock.wait(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException("Cancelled");
+                    }
+                }
+            }
+        }
+
+        private static FileChannel open(File file) throws IOException {
+            try {
+                return FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            } catch (java.nio.file.NoSuchFileException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+            }
         }
     }
-}
\ No newline at end of file
+}
@@ -1,79 +1,143 @@
 package net.eqozqq.nostalgialauncherdesktop.WorldManager;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import org.spout.nbt.*;
+import org.spout.nbt.stream.NBTReader;
 
 public final class NBTConverter {
 
     public static Level readLevel(CompoundTag compoundTag) {
         Level level = new Level();
-        List<Tag> tags = compoundTag.getValue();
-        for (Tag tag : tags) {
-            String name = tag.getName();
-            if (name.equals("GameType")) {
-                level.setGameType(((IntTag) tag).getValue());
-            } else if (name.equals("LastPlayed")) {
-                level.setLastPlayed(((LongTag) tag).getValue());
-            } else if (name.equals("LevelName")) {
-                level.setLevelName(((StringTag) tag).getValue());
-            } else if (name.equals("Player")) {
-                level.setPlayer(readPlayer((CompoundTag) tag));
-            } else if (name.equals("RandomSeed")) {
-                level.setRandomSeed(((LongTag) tag).getValue());
-            } else if (name.equals("SpawnX")) {
-                level.setSpawnX(((IntTag) tag).getValue());
-            } else if (name.equals("SpawnY")) {
-                level.setSpawnY(((IntTag) tag).getValue());
-            } else if (name.equals("SpawnZ")) {
-                level.setSpawnZ(((IntTag) tag).getValue());
-            } else if (name.equals("Time")) {
-                level.setTime(((LongTag) tag).getValue());
-            } else if (name.equals("dayCycleStopTime")) {
-                level.setDayCycleStopTime(((LongTag) tag).getValue());
-            } else if (name.equals("spawnMobs")) {
-                level.setSpawnMobs(((ByteTag) tag).getValue() != 0);
+        level.setGameType(compoundTag.getInt("GameType", level.getGameType()));
+        level.setLastPlayed(compoundTag.getLong("LastPlayed", level.getLastPlayed()));
+        level.setLevelName(compoundTag.getString("LevelName", level.getLevelName()));
+        CompoundTag player = compoundTag.getCompound("Player");
+        if (player != null) {
+            level.setPlayer(readPlayer(player));
+        }
+        level.setRandomSeed(compoundTag.getLong("RandomSeed", level.getRandomSeed()));
+        level.setSpawnX(compoundTag.getInt("SpawnX", level.getSpawnX()));
+        level.setSpawnY(compoundTag.getInt("SpawnY", level.getSpawnY()));
+        level.setSpawnZ(compoundTag.getInt("SpawnZ", level.getSpawnZ()));
+        level.setTime(compoundTag.getLong("Time", level.getTime()));
+        level.setDayCycleStopTime(compoundTag.getLong("dayCycleStopTime", level.getDayCycleStopTime()));
+        level.setSpawnMobs(readFlag(compoundTag, "spawnMobs", level.getSpawnMobs()));
+        return level;
+    }
+
+    public static Level readLevel(NBTReader reader) throws IOException {
+        if (reader.nextToken() != NBTReader.Token.COMPOUND_START) {
+            throw new IOException("level.dat does not start with a compound tag");
+        }
+        Level level = new Level();
+        NBTReader.Token token;
+        while ((token = reader.nextToken()) != NBTReader.Token.COMPOUND_END) {
+            if (reader.isName("GameType")) {
+                level.setGameType(reader.getInt());
+            } else if (reader.isName("LastPlayed")) {
+                level.setLastPlayed(reader.getLong());
+            } else if (reader.isName("LevelName")) {
+                level.setLevelName(reader.getString());
+            } else if (reader.isName("Player") && token == NBTReader.Token.COMPOUND_START) {
+                level.setPlayer(readPlayer(reader));
+            } else if (reader.isName("RandomSeed")) {
+                level.setRandomSeed(reader.getLong());
+            } else if (reader.isName("SpawnX")) {
+                level.setSpawnX(reader.getInt());
+            } else if (reader.isName("SpawnY")) {
+                level.setSpawnY(reader.getInt());
+            } else if (reader.isName("SpawnZ")) {
+                level.setSpawnZ(reader.getInt());
+            } else if (reader.isName("Time")) {
+                level.setTime(reader.getLong());
+            } else if (reader.isName("dayCycleStopTime")) {
+                level.setDayCycleStopTime(reader.getLong());
+            } else if (reader.isName("spawnMobs")) {
+                level.setSpawnMobs(reader.getByte() != 0);
+            } else {
+                reader.skipValue();
             }
         }
         return level;
     }
 
-    @SuppressWarnings("unchecked")
-    public static Player readPlayer(CompoundTag compoundTag) {
+    private static Player readPlayer(NBTReader reader) throws IOException {
         Player player = new Player();
-        List<Tag> tags = compoundTag.getValue();
-        for (Tag tag : tags) {
-            String name = tag.getName();
-            if (name.equals("Pos")) {
-                player.setLocation(readVector((ListTag<FloatTag>) tag));
-            } else if (name.equals("abilities")) {
-                readAbilities((CompoundTag) tag, player.getAbilities());
+        NBTReader.Token token;
+        while ((token = reader.nextToken()) != NBTReader.Token.COMPOUND_END) {
+            if (reader.isName("Pos") && token == NBTReader.Token.LIST_START) {
+                player.setLocation(readVector(reader));
+            } else if (reader.isName("abilities") && token == NBTReader.Token.COMPOUND_START) {
+                readAbilities(reader, player.getAbilities());
+            } else {
+                reader.skipValue();
             }
         }
         return player;
     }
 
-    public static void readAbilities(CompoundTag tag, PlayerAbilities abilities) {
-        List<Tag> tags = tag.getValue();
-        for (Tag t : tags) {
-            String n = t.getName();
-            if (!(t instanceof ByteTag)) continue;
-            boolean value = ((ByteTag) t).getValue() != 0;
-            if (n.equals("flying")) {
-                abilities.flying = value;
-            } else if (n.equals("instabuild")) {
-                abilities.instabuild = value;
-            } else if (n.equals("invulnerable")) {
-                abilities.invulnerable = value;
-            } else if (n.equals("mayfly")) {
-                abilities.mayFly = value;
+    private static void readAbilities(NBTReader reader, PlayerAbilities abilities) throws IOException {
+        while (reader.nextToken() != NBTReader.Token.COMPOUND_END) {
+            if (reader.getType() != NBTConstants.TYPE_BYTE) {
+                reader.skipValue();
+                continue;
+            }
+            if (reader.isName("flying")) {
+                abilities.flying = reader.getByte() != 0;
+            } else if (reader.isName("instabuild")) {
+                abilities.instabuild = reader.getByte() != 0;
+            } else if (reader.isName("invulnerable")) {
+                abilities.invulnerable = reader.getByte() != 0;
+            } else if (reader.isName("mayfly")) {
+                abilities.mayFly = reader.getByte() != 0;
+            }
+        }
+    }
+
+    private static Vector3f readVector(NBTReader reader) throws IOException {
+        if (reader.getListType() != NBTConstants.TYPE_FLOAT || reader.getListLength() < 3) {
+            throw new IOException("Expected a list of three floats");
+        }
+        float[] values = new float[3];
+        int index = 0;
+        while (reader.nextToken() != NBTReader.Token.LIST_END) {
+            if (index < values.length) {
+                values[index++] = reader.getFloat();
             }
         }
+        return new Vector3f(values[0], values[1], values[2]);
+    }
+
+    public static Player readPlayer(CompoundTag compoundTag) {
+        Player player = new Player();
+        ListTag<FloatTag> pos = compoundTag.getList("Pos", FloatTag.class);
+        if (pos != null) {
+            player.setLocation(readVector(pos));
+        }
+        CompoundTag abilities = compoundTag.getCompound("abilities");
+        if (abilities != null) {
+            readAbilities(abilities, player.getAbilities());
+        }
+        return player;
+    }
+
+    public static void readAbilities(CompoundTag tag, PlayerAbilities abilities) {
+        abilities.flying = readFlag(tag, "flying", abilities.flying);
+        abilities.instabuild = readFlag(tag, "instabuild", abilities.instabuild);
+        abilities.invulnerable = readFlag(tag, "invulnerable", abilities.invulnerable);
+        abilities.mayFly = readFlag(tag, "mayfly", abilities.mayFly);
+    }
+
+    private static boolean readFlag(CompoundTag tag, String name, boolean defaultValue) {
+        ByteTag flag = tag.get(name, ByteTag.class);
+        return flag != null ? flag.getValue() != 0 : defaultValue;
     }
 
     public static Vector3f readVector(ListTag<FloatTag> tag) {
-        List<FloatTag> tags = tag.getValue();
-        return new Vector3f(tags.get(0).getValue(), tags.get(1).getValue(), tags.get(2).getValue());
+        float[] values = tag.getFloats();
+        return new Vector3f(values[0], values[1], values[2]);
     }
 
     public static CompoundTag writeLevel(Level level) {
@@ -111,10 +175,6 @@ public final class NBTConverter {
     }
     
     public static ListTag<FloatTag> writeVector(Vector3f vector, String tagName) {
-		List<FloatTag> tags = new ArrayList<FloatTag>(3);
-		tags.add(new FloatTag("", vector.getX()));
-		tags.add(new FloatTag("", vector.getY()));
-		tags.add(new FloatTag("", vector.getZ()));
-		return new ListTag<FloatTag>(tagName, FloatTag.class, tags);
+		return ListTag.ofFloats(tagName, new float[] { vector.getX(), vector.getY(), vector.getZ() });
 	}
 }
\ No newline at end of file
@@ -12,6 +12,7 @@ import java.nio.file.Files;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.Map;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 import net.eqozqq.nostalgialauncherdesktop.LocaleManager;
@@ -19,7 +20,11 @@ import net.eqozqq.nostalgialauncherdesktop.FontManager;
 import net.eqozqq.nostalgialauncherdesktop.Instances.InstanceManager;
 import org.apache.commons.io.FileUtils;
 import org.spout.nbt.CompoundTag;
-import org.spout.nbt.stream.NBTInputStream;
+import org.spout.nbt.IntTag;
+import org.spout.nbt.LongTag;
+import org.spout.nbt.StringTag;
+import org.spout.nbt.Tag;
+import org.spout.nbt.stream.NBTReader;
 import org.spout.nbt.stream.NBTOutputStream;
 
 public class WorldsManagerPanel extends JPanel {
@@ -575,7 +580,7 @@ public class WorldsManagerPanel extends JPanel {
             return;
         }
         try {
-            currentLevel = NBTConverter.readLevel(readLevelDat(levelDat));
+            currentLevel = readLevel(levelDat);
             populateInfoPanel();
         } catch (Exception e) {
             e.printStackTrace();
@@ -669,12 +674,7 @@ public class WorldsManagerPanel extends JPanel {
                     File levelDat = new File(worldFolder, "level.dat");
                     if (levelDat.exists()) {
                         try {
-                            Level lvl = NBTConverter.readLevel(readLevelDat(levelDat));
-                            listModel.addElement(new WorldEntry(
-                                    worldFolder,
-                                    lvl.getLevelName(),
-                                    lvl.getRandomSeed(),
-                                    lvl.getGameType()));
+                            listModel.addElement(readWorldEntry(worldFolder, levelDat));
                         } catch (Exception e) {
                             listModel.addElement(new WorldEntry(worldFolder, worldFolder.getName(), 0, 0));
                         }
@@ -702,7 +702,7 @@ public class WorldsManagerPanel extends JPanel {
             try {
                 File levelDat = new File(selected.folder, "level.dat");
                 if (levelDat.exists()) {
-                    Level level = NBTConverter.readLevel(readLevelDat(levelDat));
+                    Level level = readLevel(levelDat);
                     level.setLevelName(newName.trim());
                     CompoundTag rootTag = NBTConverter.writeLevel(level);
                     writeLevelDat(rootTag, levelDat);
@@ -755,16 +755,34 @@ public class WorldsManagerPanel extends JPanel {
         }
     }
 
-    private CompoundTag readLevelDat(File levelDatFile) throws IOException {
+    private Level readLevel(File levelDatFile) throws IOException {
         try (FileInputStream fis = new FileInputStream(levelDatFile);
                 BufferedInputStream is = new BufferedInputStream(fis)) {
             is.skip(8);
-            try (NBTInputStream nbtStream = new NBTInputStream(is, false, true)) {
-                return (CompoundTag) nbtStream.readTag();
+            try (NBTReader reader = new NBTReader(is, false, true)) {
+                return NBTConverter.readLevel(reader);
             }
         }
     }
 
+    private WorldEntry readWorldEntry(File worldFolder, File levelDatFile) throws IOException {
+        Map<String, Tag> tags;
+        try (FileInputStream fis = new FileInputStream(levelDatFile);
+                BufferedInputStream is = new BufferedInputStream(fis)) {
+            is.skip(8);
+            try (NBTReader reader = new NBTReader(is, false, true)) {
+                tags = reader.readPaths("LevelName", "RandomSeed", "GameType");
+            }
+        }
+        Tag name = tags.get("LevelName");
+        Tag seed = tags.get("RandomSeed");
+        Tag gameType = tags.get("GameType");
+        return new WorldEntry(worldFolder,
+                name instanceof StringTag ? ((StringTag) name).getValue() : worldFolder.getName(),
+                seed instanceof LongTag ? ((LongTag) seed).getValue() : 0,
+                gameType instanceof IntTag ? ((IntTag) gameType).getValue() : 0);
+    }
+
     private void writeLevelDat(CompoundTag data, File levelDatFile) throws IOException {
         ByteArrayOutputStream bos = new ByteArrayOutputStream();
         try (NBTOutputStream nbtOut = new NBTOutputStream(bos, false, true)) {
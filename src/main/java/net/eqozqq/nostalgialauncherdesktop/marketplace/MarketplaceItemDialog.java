@@ -1,6 +1,8 @@
 package net.eqozqq.nostalgialauncherdesktop.marketplace;
 
+import net.eqozqq.nostalgialauncherdesktop.DownloadManager;
 import net.eqozqq.nostalgialauncherdesktop.FontManager;
+import net.eqozqq.nostalgialauncherdesktop.HttpService;
 import net.eqozqq.nostalgialauncherdesktop.Instances.InstanceManager;
 import net.eqozqq.nostalgialauncherdesktop.LocaleManager;
 import net.eqozqq.nostalgialauncherdesktop.NostalgiaLauncherDesktop;
@@ -11,10 +13,11 @@ import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.util.List;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -150,17 +153,23 @@ public class MarketplaceItemDialog extends JDialog {
         SwingWorker<Void, Integer> worker = new SwingWorker<Void, Integer>() {
             @Override
             protected Void doInBackground() throws Exception {
-                HttpURLConnection conn = (HttpURLConnection) new URL(fixedUrl).openConnection();
-                conn.setRequestMethod("GET");
-                int length = conn.getContentLength();
-                
-                try (InputStream is = conn.getInputStream();
+                String fileName = item.file.substring(item.file.lastIndexOf("/") + 1);
+                File tempFile = new File(InstanceManager.getDataRoot(), "cache" + File.separator + "marketplace" + File.separator + fileName);
+                tempFile.getParentFile().mkdirs();
+                DownloadManager.getInstance().submit(fixedUrl, tempFile, DownloadManager.Priority.NORMAL)
+                        .await(tempFile, progress -> publish((int) (progress * 100)), () -> isCancelled() || monitor.isCanceled());
+
+                String canonicalDestDir = destDir.getCanonicalPath() + File.separator;
+                try (InputStream is = new FileInputStream(tempFile);
                      ZipInputStream zis = new ZipInputStream(is)) {
                     
                     ZipEntry entry;
-                    byte[] buffer = new byte[4096];
+                    byte[] buffer = new byte[65536];
                     while ((entry = zis.getNextEntry()) != null) {
                         File newFile = new File(destDir, entry.getName());
+                        if (!newFile.getCanonicalPath().startsWith(canonicalDestDir)) {
+                            throw new IOException("Zip entry outside target directory: " + entry.getName());
+                        }
                         if (entry.isDirectory()) {
                             newFile.mkdirs();
                         } else {
@@ -173,10 +182,17 @@ public class MarketplaceItemDialog extends JDialog {
                             }
                         }
                     }
+                } finally {
+                    tempFile.delete();
                 }
                 return null;
             }
 
+            @Override
+            protected void process(List<Integer> chunks) {
+                monitor.setProgress(chunks.get(chunks.size() - 1));
+            }
+
             @Override
             protected void done() {
                 monitor.close();
@@ -201,23 +217,19 @@ public class MarketplaceItemDialog extends JDialog {
         SwingWorker<Void, Integer> worker = new SwingWorker<Void, Integer>() {
             @Override
             protected Void doInBackground() throws Exception {
-                HttpURLConnection conn = (HttpURLConnection) new URL(fixedUrl).openConnection();
-                conn.setRequestMethod("GET");
-                
                 String fileName = item.file.substring(item.file.lastIndexOf("/") + 1);
                 File destFile = new File(destDir, fileName);
                 
-                try (InputStream is = conn.getInputStream();
-                     FileOutputStream fos = new FileOutputStream(destFile)) {
-                    byte[] buffer = new byte[4096];
-                    int len;
-                    while ((len = is.read(buffer)) > 0) {
-                        fos.write(buffer, 0, len);
-                    }
-                }
+                DownloadManager.getInstance().submit(fixedUrl, destFile, DownloadManager.Priority.NORMAL)
+                        .await(destFile, progress -> publish((int) (progress * 100)), () -> isCancelled() || monitor.isCanceled());
                 return null;
             }
 
+            @Override
+            protected void process(List<Integer> chunks) {
+                monitor.setProgress(chunks.get(chunks.size() - 1));
+            }
+
             @Override
             protected void done() {
                 monitor.close();
@@ -239,7 +251,10 @@ public class MarketplaceItemDialog extends JDialog {
             @Override
             protected ImageIcon doInBackground() throws Exception {
                 String fixedUrl = urlStr.replace(" ", "%20");
-                BufferedImage img = ImageIO.read(new URL(fixedUrl));
+                BufferedImage img;
+                try (InputStream in = HttpService.getInstance().openStream(fixedUrl)) {
+                    img = ImageIO.read(in);
+                }
                 if (img != null) {
                     int w = (int)(250*scaleFactor);
                     int h = (int)(140*scaleFactor);
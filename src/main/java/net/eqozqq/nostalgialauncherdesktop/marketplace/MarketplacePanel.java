@@ -1,8 +1,8 @@
 package net.eqozqq.nostalgialauncherdesktop.marketplace;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 import net.eqozqq.nostalgialauncherdesktop.FontManager;
+import net.eqozqq.nostalgialauncherdesktop.HttpService;
+import net.eqozqq.nostalgialauncherdesktop.JsonSupport;
 import net.eqozqq.nostalgialauncherdesktop.LocaleManager;
 import net.eqozqq.nostalgialauncherdesktop.NostalgiaLauncherDesktop;
 
@@ -13,10 +13,7 @@ import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -198,12 +195,8 @@ public class MarketplacePanel extends JPanel {
             @Override
             protected List<MarketplaceItem> doInBackground() throws Exception {
                 String urlStr = currentTab.equals("maps") ? MAPS_JSON : TEXTURES_JSON;
-                HttpURLConnection conn = (HttpURLConnection) new URL(urlStr).openConnection();
-                conn.setRequestMethod("GET");
-                conn.setConnectTimeout(5000);
-                conn.setReadTimeout(5000);
-                try (InputStreamReader reader = new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8)) {
-                    List<MarketplaceItem> list = new Gson().fromJson(reader, new TypeToken<List<MarketplaceItem>>(){}.getType());
+                try (InputStream in = HttpService.getInstance().openStream(urlStr)) {
+                    List<MarketplaceItem> list = JsonSupport.readList(in, MarketplaceItem.class);
                     if (list != null) {
                         list.sort((a, b) -> {
                             String dateA = a.date != null ? a.date : "";
@@ -397,7 +390,10 @@ public class MarketplacePanel extends JPanel {
             @Override
             protected BufferedImage doInBackground() throws Exception {
                 String fixedUrl = urlStr.replace(" ", "%20");
-                BufferedImage img = ImageIO.read(new URL(fixedUrl));
+                BufferedImage img;
+                try (InputStream in = HttpService.getInstance().openStream(fixedUrl)) {
+                    img = ImageIO.read(in);
+                }
                 if (img != null) {
                     int w = (int) (200 * scaleFactor);
                     int h = (int) (180 * scaleFactor);
@@ -27,6 +27,7 @@ package org.spout.nbt;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -41,7 +42,12 @@ public final class CompoundTag extends Tag {
 	private final List<Tag> value;
 
 	/**
-	 * Creates the tag.
+	 * The children by name, built on the first lookup.
+	 */
+	private volatile Map<String, Tag> index;
+
+	/**
+	 * Creates the tag. The list must not be modified afterwards.
 	 * @param name The name.
 	 * @param value The value.
 	 */
@@ -55,6 +61,204 @@ public final class CompoundTag extends Tag {
 		return value;
 	}
 
+	/**
+	 * Gets a child tag by name.
+	 * @param name The name.
+	 * @return The tag, or {@code null} if there is none.
+	 */
+	public Tag get(String name) {
+		Map<String, Tag> index = this.index;
+		if (index == null) {
+			index = new HashMap<String, Tag>(value.size() * 4 / 3 + 1);
+			for (Tag tag : value) {
+				index.put(tag.getName(), tag);
+			}
+			this.index = index;
+		}
+		return index.get(name);
+	}
+
+	/**
+	 * Gets a child tag by name if it has the given type.
+	 * @param name The name.
+	 * @param type The tag class.
+	 * @return The tag, or {@code null} if there is none or it has another type.
+	 */
+	public <T extends Tag> T get(String name, Class<T> type) {
+		Tag tag = get(name);
+		return type.isInstance(tag) ? type.cast(tag) : null;
+	}
+
+	/**
+	 * Checks whether there is a child tag with the given name.
+	 * @param name The name.
+	 * @return Whether the tag exists.
+	 */
+	public boolean contains(String name) {
+		return get(name) != null;
+	}
+
+	/**
+	 * Gets the value of a {@code TAG_Byte} child.
+	 * @param name The name.
+	 * @return The value, or {@code 0} if there is no such tag.
+	 */
+	public byte getByte(String name) {
+		return getByte(name, (byte) 0);
+	}
+
+	/**
+	 * Gets the value of a {@code TAG_Byte} child.
+	 * @param name The name.
+	 * @param defaultValue The value to return if there is no such tag.
+	 * @return The value.
+	 */
+	public byte getByte(String name, byte defaultValue) {
+		ByteTag tag = get(name, ByteTag.class);
+		return tag != null ? tag.getValue() : defaultValue;
+	}
+
+	/**
+	 * Gets the value of a {@code TAG_Short} child.
+	 * @param name The name.
+	 * @return The value, or {@code 0} if there is no such tag.
+	 */
+	public short getShort(String name) {
+		return getShort(name, (short) 0);
+	}
+
+	/**
+	 * Gets the value of a {@code TAG_Short} child.
+	 * @param name The name.
+	 * @param defaultValue The value to return if there is no such tag.
+	 * @return The value.
+	 */
+	public short getShort(String name, short defaultValue) {
+		ShortTag tag = get(name, ShortTag.class);
+		return tag != null ? tag.getValue() : defaultValue;
+	}
+
+	/**
+	 * Gets the value of a {@code TAG_Int} child.
+	 * @param name The name.
+	 * @return The value, or {@code 0} if there is no such tag.
+	 */
+	public int getInt(String name) {
+		return getInt(name, 0);
+	}
+
+	/**
+	 * Gets the value of a {@code TAG_Int} child.
+	 * @param name The name.
+	 * @param defaultValue The value to return if there is no such tag.
+	 * @return The value.
+	 */
+	public int getInt(String name, int defaultValue) {
+		IntTag tag = get(name, IntTag.class);
+		return tag != null ? tag.getValue() : defaultValue;
+	}
+
+	/**
+	 * Gets the value of a {@code TAG_Long} child.
+	 * @param name The name.
+	 * @return The value, or {@code 0} if there is no such tag.
+	 */
+	public long getLong(String name) {
+		return getLong(name, 0);
+	}
+
+	/**
+	 * Gets the value of a {@code TAG_Long} child.
+	 * @param name The name.
+	 * @param defaultValue The value to return if there is no such tag.
+	 * @return The value.
+	 */
+	public long getLong(String name, long defaultValue) {
+		LongTag tag = get(name, LongTag.class);
+		return tag != null ? tag.getValue() : defaultValue;
+	}
+
+	/**
+	 * Gets the value of a {@code TAG_Float} child.
+	 * @param name The name.
+	 * @return The value, or {@code 0} if there is no such tag.
+	 */
+	public float getFloat(String name) {
+		return getFloat(name, 0);
+	}
+
+	/**
+	 * Gets the value of a {@code TAG_Float} child.
+	 * @param name The name.
+	 * @param defaultValue The value to return if there is no such tag.
+	 * @return The value.
+	 */
+	public float getFloat(String name, float defaultValue) {
+		FloatTag tag = get(name, FloatTag.class);
+		return tag != null ? tag.getValue() : defaultValue;
+	}
+
+	/**
+	 * Gets the value of a {@code TAG_Double} child.
+	 * @param name The name.
+	 * @return The value, or {@code 0} if there is no such tag.
+	 */
+	public double getDouble(String name) {
+		return getDouble(name, 0);
+	}
+
+	/**
+	 * Gets the value of a {@code TAG_Double} child.
+	 * @param name The name.
+	 * @param defaultValue The value to return if there is no such tag.
+	 * @return The value.
+	 */
+	public double getDouble(String name, double defaultValue) {
+		DoubleTag tag = get(name, DoubleTag.class);
+		return tag != null ? tag.getValue() : defaultValue;
+	}
+
+	/**
+	 * Gets the value of a {@code TAG_String} child.
+	 * @param name The name.
+	 * @return The value, or {@code null} if there is no such tag.
+	 */
+	public String getString(String name) {
+		return getString(name, null);
+	}
+
+	/**
+	 * Gets the value of a {@code TAG_String} child.
+	 * @param name The name.
+	 * @param defaultValue The value to return if there is no such tag.
+	 * @return The value.
+	 */
+	public String getString(String name, String defaultValue) {
+		StringTag tag = get(name, StringTag.class);
+		return tag != null ? tag.getValue() : defaultValue;
+	}
+
+	/**
+	 * Gets a {@code TAG_Compound} child.
+	 * @param name The name.
+	 * @return The tag, or {@code null} if there is no such tag.
+	 */
+	public CompoundTag getCompound(String name) {
+		return get(name, CompoundTag.class);
+	}
+
+	/**
+	 * Gets a {@code TAG_List} child whose entries have the given type.
+	 * @param name The name.
+	 * @param type The type of item in the list.
+	 * @return The tag, or {@code null} if there is no such list.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends Tag> ListTag<T> getList(String name, Class<T> type) {
+		ListTag<?> tag = get(name, ListTag.class);
+		return tag != null && tag.getType() == type ? (ListTag<T>) tag : null;
+	}
+
 	@Override
 	public String toString() {
 		String name = getName();
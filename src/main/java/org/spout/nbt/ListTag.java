@@ -25,6 +25,10 @@
  */
 package org.spout.nbt;
 
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -40,9 +44,16 @@ public final class ListTag<T extends Tag> extends Tag {
 	private final Class<T> type;
 
 	/**
-	 * The value.
+	 * The value. For a list backed by a primitive array this is built on
+	 * first access.
 	 */
-	private final List<T> value;
+	private volatile List<T> value;
+
+	/**
+	 * The backing {@code int[]}, {@code long[]}, {@code float[]} or
+	 * {@code double[]}, or {@code null} for a list of tag objects.
+	 */
+	private final Object array;
 
 	/**
 	 * Creates the tag.
@@ -54,6 +65,59 @@ public final class ListTag<T extends Tag> extends Tag {
 		super(name);
 		this.type = type;
 		this.value = Collections.unmodifiableList(value);
+		this.array = null;
+	}
+
+	/**
+	 * Creates a tag backed by a primitive array.
+	 * @param name The name.
+	 * @param type The type of item in the list.
+	 * @param array The values.
+	 */
+	private ListTag(String name, Class<T> type, Object array) {
+		super(name);
+		this.type = type;
+		this.array = array;
+	}
+
+	/**
+	 * Creates a list of {@code TAG_Int} backed by an array.
+	 * @param name The name.
+	 * @param values The values, used without copying.
+	 * @return The tag.
+	 */
+	public static ListTag<IntTag> ofInts(String name, int[] values) {
+		return new ListTag<IntTag>(name, IntTag.class, values);
+	}
+
+	/**
+	 * Creates a list of {@code TAG_Long} backed by an array.
+	 * @param name The name.
+	 * @param values The values, used without copying.
+	 * @return The tag.
+	 */
+	public static ListTag<LongTag> ofLongs(String name, long[] values) {
+		return new ListTag<LongTag>(name, LongTag.class, values);
+	}
+
+	/**
+	 * Creates a list of {@code TAG_Float} backed by an array.
+	 * @param name The name.
+	 * @param values The values, used without copying.
+	 * @return The tag.
+	 */
+	public static ListTag<FloatTag> ofFloats(String name, float[] values) {
+		return new ListTag<FloatTag>(name, FloatTag.class, values);
+	}
+
+	/**
+	 * Creates a list of {@code TAG_Double} backed by an array.
+	 * @param name The name.
+	 * @param values The values, used without copying.
+	 * @return The tag.
+	 */
+	public static ListTag<DoubleTag> ofDoubles(String name, double[] values) {
+		return new ListTag<DoubleTag>(name, DoubleTag.class, values);
 	}
 
 	/**
@@ -64,11 +128,176 @@ public final class ListTag<T extends Tag> extends Tag {
 		return type;
 	}
 
+	/**
+	 * Checks whether this list is backed by a primitive array.
+	 * @return Whether the list is backed by an array.
+	 */
+	public boolean isPrimitive() {
+		return array != null;
+	}
+
+	/**
+	 * Gets the number of items in this list without boxing them.
+	 * @return The size.
+	 */
+	public int size() {
+		if (array instanceof int[]) {
+			return ((int[]) array).length;
+		} else if (array instanceof long[]) {
+			return ((long[]) array).length;
+		} else if (array instanceof float[]) {
+			return ((float[]) array).length;
+		} else if (array instanceof double[]) {
+			return ((double[]) array).length;
+		}
+		return value.size();
+	}
+
+	/**
+	 * Gets a read-only view of the backing array of a list of {@code TAG_Int}.
+	 * @return The view, or {@code null} if the list is not backed by an
+	 * {@code int[]}.
+	 */
+	public IntBuffer getIntView() {
+		return array instanceof int[] ? IntBuffer.wrap((int[]) array).asReadOnlyBuffer() : null;
+	}
+
+	/**
+	 * Gets a read-only view of the backing array of a list of {@code TAG_Long}.
+	 * @return The view, or {@code null} if the list is not backed by a
+	 * {@code long[]}.
+	 */
+	public LongBuffer getLongView() {
+		return array instanceof long[] ? LongBuffer.wrap((long[]) array).asReadOnlyBuffer() : null;
+	}
+
+	/**
+	 * Gets a read-only view of the backing array of a list of {@code TAG_Float}.
+	 * @return The view, or {@code null} if the list is not backed by a
+	 * {@code float[]}.
+	 */
+	public FloatBuffer getFloatView() {
+		return array instanceof float[] ? FloatBuffer.wrap((float[]) array).asReadOnlyBuffer() : null;
+	}
+
+	/**
+	 * Gets a read-only view of the backing array of a list of {@code TAG_Double}.
+	 * @return The view, or {@code null} if the list is not backed by a
+	 * {@code double[]}.
+	 */
+	public DoubleBuffer getDoubleView() {
+		return array instanceof double[] ? DoubleBuffer.wrap((double[]) array).asReadOnlyBuffer() : null;
+	}
+
+	/**
+	 * Gets the values of a list of {@code TAG_Int}.
+	 * @return A copy of the values, or {@code null} if the items are not
+	 * {@code TAG_Int}.
+	 */
+	public int[] getInts() {
+		if (array instanceof int[]) {
+			return ((int[]) array).clone();
+		} else if (type != IntTag.class) {
+			return null;
+		}
+		int[] values = new int[value.size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = ((IntTag) value.get(i)).getValue();
+		}
+		return values;
+	}
+
+	/**
+	 * Gets the values of a list of {@code TAG_Long}.
+	 * @return A copy of the values, or {@code null} if the items are not
+	 * {@code TAG_Long}.
+	 */
+	public long[] getLongs() {
+		if (array instanceof long[]) {
+			return ((long[]) array).clone();
+		} else if (type != LongTag.class) {
+			return null;
+		}
+		long[] values = new long[value.size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = ((LongTag) value.get(i)).getValue();
+		}
+		return values;
+	}
+
+	/**
+	 * Gets the values of a list of {@code TAG_Float}.
+	 * @return A copy of the values, or {@code null} if the items are not
+	 * {@code TAG_Float}.
+	 */
+	public float[] getFloats() {
+		if (array instanceof float[]) {
+			return ((float[]) array).clone();
+		} else if (type != FloatTag.class) {
+			return null;
+		}
+		float[] values = new float[value.size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = ((FloatTag) value.get(i)).getValue();
+		}
+		return values;
+	}
+
+	/**
+	 * Gets the values of a list of {@code TAG_Double}.
+	 * @return A copy of the values, or {@code null} if the items are not
+	 * {@code TAG_Double}.
+	 */
+	public double[] getDoubles() {
+		if (array instanceof double[]) {
+			return ((double[]) array).clone();
+		} else if (type != DoubleTag.class) {
+			return null;
+		}
+		double[] values = new double[value.size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = ((DoubleTag) value.get(i)).getValue();
+		}
+		return values;
+	}
+
 	@Override
 	public List<T> getValue() {
+		List<T> value = this.value;
+		if (value == null) {
+			value = Collections.unmodifiableList(box());
+			this.value = value;
+		}
 		return value;
 	}
 
+	/**
+	 * Creates the tag objects for a list backed by a primitive array.
+	 * @return The tags.
+	 */
+	@SuppressWarnings("unchecked")
+	private List<T> box() {
+		List<Tag> tags = new ArrayList<Tag>(size());
+		if (array instanceof int[]) {
+			for (int v : (int[]) array) {
+				tags.add(new IntTag("", v));
+			}
+		} else if (array instanceof long[]) {
+			for (long v : (long[]) array) {
+				tags.add(new LongTag("", v));
+			}
+		} else if (array instanceof float[]) {
+			for (float v : (float[]) array) {
+				tags.add(new FloatTag("", v));
+			}
+		} else {
+			for (double v : (double[]) array) {
+				tags.add(new DoubleTag("", v));
+			}
+		}
+		return (List<T>) tags;
+	}
+
 	@Override
 	public String toString() {
 		String name = getName();
@@ -78,8 +307,8 @@ public final class ListTag<T extends Tag> extends Tag {
 		}
 
 		StringBuilder bldr = new StringBuilder();
-		bldr.append("TAG_List").append(append).append(": ").append(value.size()).append(" entries of type ").append(NBTUtils.getTypeName(type)).append("\r\n{\r\n");
-		for (Tag t : value) {
+		bldr.append("TAG_List").append(append).append(": ").append(size()).append(" entries of type ").append(NBTUtils.getTypeName(type)).append("\r\n{\r\n");
+		for (Tag t : getValue()) {
 			bldr.append("   ").append(t.toString().replaceAll("\r\n", "\r\n   ")).append("\r\n");
 		}
 		bldr.append("}");
@@ -88,6 +317,15 @@ public final class ListTag<T extends Tag> extends Tag {
 
 	@SuppressWarnings("unchecked")
 	public ListTag<T> clone() {
+		if (array instanceof int[]) {
+			return new ListTag<T>(getName(), type, ((int[]) array).clone());
+		} else if (array instanceof long[]) {
+			return new ListTag<T>(getName(), type, ((long[]) array).clone());
+		} else if (array instanceof float[]) {
+			return new ListTag<T>(getName(), type, ((float[]) array).clone());
+		} else if (array instanceof double[]) {
+			return new ListTag<T>(getName(), type, ((double[]) array).clone());
+		}
 		List<T> newList = new ArrayList<T>();
 
 		for (T v : value) {
@@ -0,0 +1,350 @@
+/*
+ * This file is part of SpoutNBT (http://www.spout.org/).
+ *
+ * SpoutNBT is licensed under the SpoutDev License Version 1.
+ *
+ * SpoutNBT is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * In addition, 180 days after any changes are published, you can use the
+ * software, incorporating those changes, under the terms of the MIT license,
+ * as described in the SpoutDev License Version 1.
+ *
+ * SpoutNBT is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License,
+ * the MIT license and the SpoutDev License Version 1 along with this program.
+ * If not, see <http://www.gnu.org/licenses/> for the GNU Lesser General Public
+ * License and see <http://www.spout.org/SpoutDevLicenseV1.txt> for the full license,
+ * including the MIT license.
+ */
+package org.spout.nbt.stream;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.spout.nbt.ByteArrayTag;
+import org.spout.nbt.ByteTag;
+import org.spout.nbt.CompoundTag;
+import org.spout.nbt.DoubleTag;
+import org.spout.nbt.EndTag;
+import org.spout.nbt.FloatTag;
+import org.spout.nbt.IntArrayTag;
+import org.spout.nbt.IntTag;
+import org.spout.nbt.ListTag;
+import org.spout.nbt.LongTag;
+import org.spout.nbt.NBTConstants;
+import org.spout.nbt.NBTUtils;
+import org.spout.nbt.ShortArrayTag;
+import org.spout.nbt.ShortTag;
+import org.spout.nbt.StringTag;
+import org.spout.nbt.Tag;
+
+/**
+ * Reads uncompressed NBT data from a {@link ByteBuffer} and produces the same
+ * {@link Tag} graph as {@link NBTInputStream}.
+ * <p />
+ * Numbers are read in the byte order of the buffer, so little-endian data
+ * needs no byte swapping. Byte, short and int arrays and numeric lists are
+ * copied with bulk gets, and names and strings are decoded straight from the
+ * backing array of heap buffers. Large files can be memory-mapped with
+ * {@link #open(File, long, boolean)}.
+ */
+public final class NBTBufferReader {
+	/**
+	 * Files at least this large are memory-mapped by {@link #open(File, long, boolean)}.
+	 */
+	private static final long MAP_THRESHOLD = 1 << 20;
+
+	/**
+	 * The buffer.
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * Scratch space for decoding strings from direct buffers.
+	 */
+	private byte[] scratch = new byte[64];
+
+	/**
+	 * Creates a reader over the remaining bytes of a buffer. The position and
+	 * byte order of the given buffer are not changed.
+	 * @param buffer The buffer.
+	 * @param littleEndian Whether numbers are stored in little-endian format.
+	 */
+	public NBTBufferReader(ByteBuffer buffer, boolean littleEndian) {
+		this.buffer = buffer.slice().order(littleEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+	}
+
+	/**
+	 * Creates a reader over a file, starting at the given offset. Large files
+	 * are memory-mapped, smaller ones are read into memory.
+	 * @param file The file.
+	 * @param offset The offset of the root tag, e.g. {@code 8} to skip the
+	 * header of a Pocket Edition {@code level.dat}.
+	 * @param littleEndian Whether numbers are stored in little-endian format.
+	 * @return The reader.
+	 * @throws java.io.IOException if an I/O error occurs.
+	 */
+	public static NBTBufferReader open(File file, long offset, boolean littleEndian) throws IOException {
+		long size = file.length() - offset;
+		if (size < 0) {
+			throw new EOFException("Offset " + offset + " is past the end of " + file + ".");
+		} else if (size > Integer.MAX_VALUE) {
+			throw new IOException("File too large: " + file + ".");
+		}
+		if (size < MAP_THRESHOLD) {
+			byte[] data = Files.readAllBytes(file.toPath());
+			return new NBTBufferReader(ByteBuffer.wrap(data, (int) offset, data.length - (int) offset), littleEndian);
+		}
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			return new NBTBufferReader(channel.map(FileChannel.MapMode.READ_ONLY, offset, size), littleEndian);
+		}
+	}
+
+	/**
+	 * Reads an NBT {@link Tag} from the buffer.
+	 * @return The tag that was read.
+	 * @throws java.io.IOException if the data is malformed or ends early.
+	 */
+	public Tag readTag() throws IOException {
+		try {
+			return readTag(0);
+		} catch (BufferUnderflowException e) {
+			throw new EOFException("Unexpected end of NBT data.");
+		}
+	}
+
+	/**
+	 * Gets the number of bytes which have not been read yet.
+	 * @return The number of bytes.
+	 */
+	public int remaining() {
+		return buffer.remaining();
+	}
+
+	/**
+	 * Reads an NBT {@link Tag} from the buffer.
+	 * @param depth The depth of this tag.
+	 * @return The tag that was read.
+	 * @throws java.io.IOException if an I/O error occurs.
+	 */
+	private Tag readTag(int depth) throws IOException {
+		int type = buffer.get() & 0xFF;
+
+		String name;
+		if (type != NBTConstants.TYPE_END) {
+			name = readString(buffer.getShort() & 0xFFFF);
+		} else {
+			name = "";
+		}
+
+		return readTagPayload(type, name, depth);
+	}
+
+	/**
+	 * Reads the payload of a {@link Tag}, given the name and type.
+	 * @param type The type.
+	 * @param name The name.
+	 * @param depth The depth.
+	 * @return The tag.
+	 * @throws java.io.IOException if an I/O error occurs.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Tag readTagPayload(int type, String name, int depth) throws IOException {
+		switch (type) {
+		case NBTConstants.TYPE_END:
+			if (depth == 0) {
+				throw new IOException("TAG_End found without a TAG_Compound/TAG_List tag preceding it.");
+			} else {
+				return new EndTag();
+			}
+
+		case NBTConstants.TYPE_BYTE:
+			return new ByteTag(name, buffer.get());
+
+		case NBTConstants.TYPE_SHORT:
+			return new ShortTag(name, buffer.getShort());
+
+		case NBTConstants.TYPE_INT:
+			return new IntTag(name, buffer.getInt());
+
+		case NBTConstants.TYPE_LONG:
+			return new LongTag(name, buffer.getLong());
+
+		case NBTConstants.TYPE_FLOAT:
+			return new FloatTag(name, buffer.getFloat());
+
+		case NBTConstants.TYPE_DOUBLE:
+			return new DoubleTag(name, buffer.getDouble());
+
+		case NBTConstants.TYPE_BYTE_ARRAY:
+			byte[] bytes = new byte[readLength(1)];
+			buffer.get(bytes);
+			return new ByteArrayTag(name, bytes);
+
+		case NBTConstants.TYPE_STRING:
+			return new StringTag(name, readString(buffer.getShort() & 0xFFFF));
+
+		case NBTConstants.TYPE_LIST:
+			int childType = buffer.get();
+			int length = buffer.getInt();
+			ListTag<?> primitiveList = readPrimitiveList(childType, name, Math.max(length, 0));
+			if (primitiveList != null) {
+				return primitiveList;
+			}
+
+			Class<? extends Tag> clazz = NBTUtils.getTypeClass(childType);
+			List<Tag> tagList = new ArrayList<Tag>(Math.min(Math.max(length, 0), 1024));
+			for (int i = 0; i < length; i++) {
+				Tag tag = readTagPayload(childType, "", depth + 1);
+				if (tag instanceof EndTag) {
+					throw new IOException("TAG_End not permitted in a list.");
+				} else if (!clazz.isInstance(tag)) {
+					throw new IOException("Mixed tag types within a list.");
+				}
+				tagList.add(tag);
+			}
+
+			return new ListTag(name, clazz, tagList);
+
+		case NBTConstants.TYPE_COMPOUND:
+			List<Tag> compoundTagList = new ArrayList<Tag>();
+			while (true) {
+				Tag tag = readTag(depth + 1);
+				if (tag instanceof EndTag) {
+					break;
+				} else {
+					compoundTagList.add(tag);
+				}
+			}
+
+			return new CompoundTag(name, compoundTagList);
+
+		case NBTConstants.TYPE_INT_ARRAY:
+			int[] ints = new int[readLength(4)];
+			buffer.asIntBuffer().get(ints);
+			skip(ints.length * 4);
+			return new IntArrayTag(name, ints);
+
+		case NBTConstants.TYPE_SHORT_ARRAY:
+			short[] shorts = new short[readLength(2)];
+			buffer.asShortBuffer().get(shorts);
+			skip(shorts.length * 2);
+			return new ShortArrayTag(name, shorts);
+
+		default:
+			throw new IOException("Invalid tag type: " + type + ".");
+		}
+	}
+
+	/**
+	 * Reads the elements of a numeric {@code TAG_List} with a bulk get.
+	 * @param childType The type of the elements.
+	 * @param name The name.
+	 * @param length The number of elements.
+	 * @return The tag, or {@code null} if the elements are not
+	 * {@code TAG_Int}, {@code TAG_Long}, {@code TAG_Float} or {@code TAG_Double}.
+	 * @throws java.io.IOException if the data ends early.
+	 */
+	private ListTag<?> readPrimitiveList(int childType, String name, int length) throws IOException {
+		switch (childType) {
+		case NBTConstants.TYPE_INT:
+			int[] ints = new int[checkLength(length, 4)];
+			buffer.asIntBuffer().get(ints);
+			skip(length * 4);
+			return ListTag.ofInts(name, ints);
+
+		case NBTConstants.TYPE_LONG:
+			long[] longs = new long[checkLength(length, 8)];
+			buffer.asLongBuffer().get(longs);
+			skip(length * 8);
+			return ListTag.ofLongs(name, longs);
+
+		case NBTConstants.TYPE_FLOAT:
+			float[] floats = new float[checkLength(length, 4)];
+			buffer.asFloatBuffer().get(floats);
+			skip(length * 4);
+			return ListTag.ofFloats(name, floats);
+
+		case NBTConstants.TYPE_DOUBLE:
+			double[] doubles = new double[checkLength(length, 8)];
+			buffer.asDoubleBuffer().get(doubles);
+			skip(length * 8);
+			return ListTag.ofDoubles(name, doubles);
+
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Reads the element count of an array.
+	 * @param elementSize The size of an element in bytes.
+	 * @return The count.
+	 * @throws java.io.IOException if the array does not fit in the remaining data.
+	 */
+	private int readLength(int elementSize) throws IOException {
+		return checkLength(buffer.getInt(), elementSize);
+	}
+
+	/**
+	 * Checks that an array fits in the remaining data.
+	 * @param length The element count.
+	 * @param elementSize The size of an element in bytes.
+	 * @return The count.
+	 * @throws java.io.IOException if the count is negative or too large.
+	 */
+	private int checkLength(int length, int elementSize) throws IOException {
+		if (length < 0) {
+			throw new IOException("Negative length: " + length + ".");
+		} else if (length > buffer.remaining() / elementSize) {
+			throw new EOFException("Unexpected end of NBT data.");
+		}
+		return length;
+	}
+
+	/**
+	 * Decodes a UTF-8 string of the given length.
+	 * @param length The length in bytes.
+	 * @return The string.
+	 * @throws java.io.IOException if the data ends early.
+	 */
+	private String readString(int length) throws IOException {
+		checkLength(length, 1);
+		String value;
+		if (buffer.hasArray()) {
+			value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, NBTConstants.CHARSET);
+			skip(length);
+		} else {
+			if (scratch.length < length) {
+				scratch = new byte[Math.max(length, scratch.length * 2)];
+			}
+			buffer.get(scratch, 0, length);
+			value = new String(scratch, 0, length, NBTConstants.CHARSET);
+		}
+		return value;
+	}
+
+	/**
+	 * Advances past bytes which have been read through a view of the buffer.
+	 * @param count The number of bytes.
+	 */
+	private void skip(int count) {
+		buffer.position(buffer.position() + count);
+	}
+}
@@ -30,6 +30,7 @@ import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -62,6 +63,12 @@ import org.spout.nbt.Tag;
  * @author Graham Edgecombe
  */
 public final class NBTInputStream implements Closeable {
+	/**
+	 * The most elements allocated for a numeric list before any of them have
+	 * been read, so a corrupt length cannot exhaust the heap.
+	 */
+	private static final int MAX_PREALLOCATED_ELEMENTS = 4096;
+
 	/**
 	 * The data input stream.
 	 */
@@ -195,6 +202,11 @@ public final class NBTInputStream implements Closeable {
 			int childType = is.readByte();
 			length = (littleEndian? Integer.reverseBytes(is.readInt()) : is.readInt());
 
+			ListTag<?> primitiveList = readPrimitiveList(childType, name, Math.max(length, 0));
+			if (primitiveList != null) {
+				return primitiveList;
+			}
+
 			Class<? extends Tag> clazz = NBTUtils.getTypeClass(childType);
 			List<Tag> tagList = new ArrayList<Tag>();
 			for (int i = 0; i < length; i++) {
@@ -243,6 +255,62 @@ public final class NBTInputStream implements Closeable {
 		}
 	}
 
+	/**
+	 * Reads the elements of a numeric {@code TAG_List} into a primitive array.
+	 * @param childType The type of the elements.
+	 * @param name The name.
+	 * @param length The number of elements.
+	 * @return The tag, or {@code null} if the elements are not
+	 * {@code TAG_Int}, {@code TAG_Long}, {@code TAG_Float} or {@code TAG_Double}.
+	 * @throws java.io.IOException if an I/O error occurs.
+	 */
+	private ListTag<?> readPrimitiveList(int childType, String name, int length) throws IOException {
+		switch (childType) {
+		case NBTConstants.TYPE_INT:
+			int[] ints = new int[Math.min(length, MAX_PREALLOCATED_ELEMENTS)];
+			for (int i = 0; i < length; i++) {
+				if (i == ints.length) {
+					ints = Arrays.copyOf(ints, (int) Math.min(length, 2L * i));
+				}
+				ints[i] = (littleEndian? Integer.reverseBytes(is.readInt()) : is.readInt());
+			}
+			return ListTag.ofInts(name, ints);
+
+		case NBTConstants.TYPE_LONG:
+			long[] longs = new long[Math.min(length, MAX_PREALLOCATED_ELEMENTS)];
+			for (int i = 0; i < length; i++) {
+				if (i == longs.length) {
+					longs = Arrays.copyOf(longs, (int) Math.min(length, 2L * i));
+				}
+				longs[i] = (littleEndian? Long.reverseBytes(is.readLong()) : is.readLong());
+			}
+			return ListTag.ofLongs(name, longs);
+
+		case NBTConstants.TYPE_FLOAT:
+			float[] floats = new float[Math.min(length, MAX_PREALLOCATED_ELEMENTS)];
+			for (int i = 0; i < length; i++) {
+				if (i == floats.length) {
+					floats = Arrays.copyOf(floats, (int) Math.min(length, 2L * i));
+				}
+				floats[i] = (littleEndian? Float.intBitsToFloat(Integer.reverseBytes(is.readInt())) : is.readFloat());
+			}
+			return ListTag.ofFloats(name, floats);
+
+		case NBTConstants.TYPE_DOUBLE:
+			double[] doubles = new double[Math.min(length, MAX_PREALLOCATED_ELEMENTS)];
+			for (int i = 0; i < length; i++) {
+				if (i == doubles.length) {
+					doubles = Arrays.copyOf(doubles, (int) Math.min(length, 2L * i));
+				}
+				doubles[i] = (littleEndian? Double.longBitsToDouble(Long.reverseBytes(is.readLong())) : is.readDouble());
+			}
+			return ListTag.ofDoubles(name, doubles);
+
+		default:
+			return null;
+		}
+	}
+
 	public void close() throws IOException {
 		is.close();
 	}
@@ -29,6 +29,10 @@ import java.io.Closeable;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
 import java.util.List;
 import java.util.zip.GZIPOutputStream;
 
@@ -242,16 +246,58 @@ public final class NBTOutputStream implements Closeable {
 	@SuppressWarnings("unchecked")
 	private void writeListTagPayload(ListTag<?> tag) throws IOException {
 		Class<? extends Tag> clazz = tag.getType();
-		List<Tag> tags = (List<Tag>) tag.getValue();
-		int size = tags.size();
+		int size = tag.size();
 
 		os.writeByte(NBTUtils.getTypeCode(clazz));
 		os.writeInt(littleEndian? Integer.reverseBytes(size) : size);
+		if (tag.isPrimitive()) {
+			writePrimitiveListPayload(tag);
+			return;
+		}
+		List<Tag> tags = (List<Tag>) tag.getValue();
 		for (Tag tag1 : tags) {
 			writeTagPayload(tag1);
 		}
 	}
 
+	/**
+	 * Writes the elements of a {@code TAG_List} backed by a primitive array.
+	 * 
+	 * @param tag The tag.
+	 * @throws java.io.IOException if an I/O error occurs.
+	 */
+	private void writePrimitiveListPayload(ListTag<?> tag) throws IOException {
+		IntBuffer ints = tag.getIntView();
+		if (ints != null) {
+			while (ints.hasRemaining()) {
+				int value = ints.get();
+				os.writeInt(littleEndian? Integer.reverseBytes(value) : value);
+			}
+			return;
+		}
+		LongBuffer longs = tag.getLongView();
+		if (longs != null) {
+			while (longs.hasRemaining()) {
+				long value = longs.get();
+				os.writeLong(littleEndian? Long.reverseBytes(value) : value);
+			}
+			return;
+		}
+		FloatBuffer floats = tag.getFloatView();
+		if (floats != null) {
+			while (floats.hasRemaining()) {
+				int bits = Float.floatToIntBits(floats.get());
+				os.writeInt(littleEndian? Integer.reverseBytes(bits) : bits);
+			}
+			return;
+		}
+		DoubleBuffer doubles = tag.getDoubleView();
+		while (doubles.hasRemaining()) {
+			long bits = Double.doubleToLongBits(doubles.get());
+			os.writeLong(littleEndian? Long.reverseBytes(bits) : bits);
+		}
+	}
+
 	/**
 	 * Writes a {@code TAG_String} tag.
 	 * 
@@ -0,0 +1,875 @@
+/*
+ * This file is part of SpoutNBT (http://www.spout.org/).
+ *
+ * SpoutNBT is licensed under the SpoutDev License Version 1.
+ *
+ * SpoutNBT is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * In addition, 180 days after any changes are published, you can use the
+ * software, incorporating those changes, under the terms of the MIT license,
+ * as described in the SpoutDev License Version 1.
+ *
+ * SpoutNBT is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License,
+ * the MIT license and the SpoutDev License Version 1 along with this program.
+ * If not, see <http://www.gnu.org/licenses/> for the GNU Lesser General Public
+ * License and see <http://www.spout.org/SpoutDevLicenseV1.txt> for the full license,
+ * including the MIT license.
+ */
+package org.spout.nbt.stream;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.spout.nbt.ByteArrayTag;
+import org.spout.nbt.ByteTag;
+import org.spout.nbt.CompoundTag;
+import org.spout.nbt.DoubleTag;
+import org.spout.nbt.FloatTag;
+import org.spout.nbt.IntArrayTag;
+import org.spout.nbt.IntTag;
+import org.spout.nbt.ListTag;
+import org.spout.nbt.LongTag;
+import org.spout.nbt.NBTConstants;
+import org.spout.nbt.NBTUtils;
+import org.spout.nbt.ShortArrayTag;
+import org.spout.nbt.ShortTag;
+import org.spout.nbt.StringTag;
+import org.spout.nbt.Tag;
+
+/**
+ * A pull-style reader for NBT streams which reports the structure of the
+ * data as a sequence of {@link Token}s instead of building a {@link Tag}
+ * graph.
+ * <p />
+ * Payloads are only decoded when one of the value accessors is called. A
+ * value, compound or list which is not needed can be passed over with
+ * {@link #skipValue()}, which skips it by length where the format allows.
+ * Tag names are kept as raw bytes and can be compared with
+ * {@link #isName(String)} without creating a {@link String}.
+ */
+public final class NBTReader implements Closeable {
+	/**
+	 * The tokens reported by {@link NBTReader#nextToken()}.
+	 */
+	public enum Token {
+		/**
+		 * The start of a {@code TAG_Compound}. Its children follow, then {@link #COMPOUND_END}.
+		 */
+		COMPOUND_START,
+		/**
+		 * The end of the current {@code TAG_Compound}.
+		 */
+		COMPOUND_END,
+		/**
+		 * The start of a {@code TAG_List}. Its elements follow, then {@link #LIST_END}.
+		 */
+		LIST_START,
+		/**
+		 * The end of the current {@code TAG_List}.
+		 */
+		LIST_END,
+		/**
+		 * A tag with a payload that is neither a compound nor a list.
+		 */
+		VALUE,
+		/**
+		 * The root tag has been read completely.
+		 */
+		END_OF_STREAM
+	}
+
+	/**
+	 * The most elements allocated for a numeric list before any of them have
+	 * been read, so a corrupt length cannot exhaust the heap.
+	 */
+	private static final int MAX_PREALLOCATED_ELEMENTS = 4096;
+
+	/**
+	 * The data input stream.
+	 */
+	private final DataInputStream is;
+
+	/**
+	 * Controls whether this NBTReader reads numbers in little-endian format.
+	 */
+	private final boolean littleEndian;
+
+	/**
+	 * The open containers: the element type of each list, or -1 for a compound.
+	 */
+	private int[] containerTypes = new int[16];
+
+	/**
+	 * The number of elements left in each open list.
+	 */
+	private int[] remaining = new int[16];
+
+	/**
+	 * The number of open containers.
+	 */
+	private int depth;
+
+	/**
+	 * The raw UTF-8 name of the current tag.
+	 */
+	private byte[] nameBytes = new byte[64];
+
+	/**
+	 * The length of the current name in {@link #nameBytes}.
+	 */
+	private int nameLength;
+
+	/**
+	 * The decoded name of the current tag, or null if it was not requested yet.
+	 */
+	private String name;
+
+	/**
+	 * The type of the current tag.
+	 */
+	private int type = -1;
+
+	/**
+	 * The element type and length of the current list.
+	 */
+	private int listType, listLength;
+
+	/**
+	 * Whether the payload of the current value has not been read yet.
+	 */
+	private boolean pendingValue;
+
+	/**
+	 * Whether the current compound or list has not been entered yet.
+	 */
+	private boolean pendingContainer;
+
+	/**
+	 * Whether the root tag has been started.
+	 */
+	private boolean started;
+
+	/**
+	 * Scratch buffer used to skip payloads.
+	 */
+	private byte[] skipBuffer;
+
+	/**
+	 * Creates a new {@link NBTReader}, which sources its data from the
+	 * specified input stream.
+	 * @param is The input stream.
+	 * @param compressed A flag indicating if the stream is compressed.
+	 * @param littleEndian Whether to read numbers with little endian encoding.
+	 * @throws java.io.IOException if an I/O error occurs.
+	 */
+	public NBTReader(InputStream is, boolean compressed, boolean littleEndian) throws IOException {
+		this.littleEndian = littleEndian;
+		this.is = new DataInputStream(compressed ? new GZIPInputStream(is) : is);
+	}
+
+	/**
+	 * Advances to the next token, skipping the rest of the current value or
+	 * container if it was not consumed.
+	 * @return The next token.
+	 * @throws java.io.IOException if an I/O error occurs or the data is malformed.
+	 */
+	public Token nextToken() throws IOException {
+		if (pendingValue) {
+			skipPayload(type);
+			pendingValue = false;
+		} else if (pendingContainer) {
+			enterContainer();
+		}
+		name = null;
+
+		if (depth == 0) {
+			if (started) {
+				type = -1;
+				return Token.END_OF_STREAM;
+			}
+			started = true;
+			type = is.readByte() & 0xFF;
+			if (type == NBTConstants.TYPE_END) {
+				throw new IOException("TAG_End found without a TAG_Compound/TAG_List tag preceding it.");
+			}
+			readName();
+			return begin(type);
+		}
+
+		int containerType = containerTypes[depth - 1];
+		if (containerType < 0) {
+			int childType = is.readByte() & 0xFF;
+			if (childType == NBTConstants.TYPE_END) {
+				depth--;
+				type = NBTConstants.TYPE_COMPOUND;
+				nameLength = 0;
+				return Token.COMPOUND_END;
+			}
+			readName();
+			return begin(childType);
+		}
+
+		if (remaining[depth - 1] == 0) {
+			depth--;
+			type = NBTConstants.TYPE_LIST;
+			nameLength = 0;
+			return Token.LIST_END;
+		}
+		remaining[depth - 1]--;
+		nameLength = 0;
+		return begin(containerType);
+	}
+
+	/**
+	 * Skips the current value. On a {@link Token#COMPOUND_START} or
+	 * {@link Token#LIST_START} the whole container is skipped, including its
+	 * end token.
+	 * @throws java.io.IOException if an I/O error occurs.
+	 */
+	public void skipValue() throws IOException {
+		if (pendingValue) {
+			skipPayload(type);
+			pendingValue = false;
+		} else if (pendingContainer) {
+			if (type == NBTConstants.TYPE_COMPOUND) {
+				skipCompound();
+			} else {
+				skipElements(listType, listLength);
+			}
+			pendingContainer = false;
+		}
+	}
+
+	/**
+	 * Gets the type code of the current tag.
+	 * @return The type code, see {@link NBTConstants}.
+	 */
+	public int getType() {
+		return type;
+	}
+
+	/**
+	 * Gets the name of the current tag. List elements have an empty name.
+	 * @return The name.
+	 */
+	public String getName() {
+		if (name == null) {
+			name = new String(nameBytes, 0, nameLength, NBTConstants.CHARSET);
+		}
+		return name;
+	}
+
+	/**
+	 * Checks the name of the current tag without decoding it.
+	 * @param expected The name to compare against.
+	 * @return Whether the current tag has this name.
+	 */
+	public boolean isName(String expected) {
+		if (name != null) {
+			return name.equals(expected);
+		}
+		int length = expected.length();
+		if (length != nameLength) {
+			for (int i = 0; i < length; i++) {
+				if (expected.charAt(i) >= 0x80) {
+					return getName().equals(expected);
+				}
+			}
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			char c = expected.charAt(i);
+			if (c >= 0x80) {
+				return getName().equals(expected);
+			}
+			if (nameBytes[i] != (byte) c) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the number of open compounds and lists.
+	 * @return The depth.
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Gets the element type of the list started by the current token.
+	 * @return The element type code.
+	 */
+	public int getListType() {
+		return listType;
+	}
+
+	/**
+	 * Gets the number of elements of the list started by the current token.
+	 * @return The number of elements.
+	 */
+	public int getListLength() {
+		return listLength;
+	}
+
+	/**
+	 * Reads the current {@code TAG_Byte} value.
+	 * @return The value.
+	 * @throws java.io.IOException if an I/O error occurs or the tag has another type.
+	 */
+	public byte getByte() throws IOException {
+		consume(NBTConstants.TYPE_BYTE);
+		return is.readByte();
+	}
+
+	/**
+	 * Reads the current {@code TAG_Short} value.
+	 * @return The value.
+	 * @throws java.io.IOException if an I/O error occurs or the tag has another type.
+	 */
+	public short getShort() throws IOException {
+		consume(NBTConstants.TYPE_SHORT);
+		return readShort();
+	}
+
+	/**
+	 * Reads the current {@code TAG_Int} value.
+	 * @return The value.
+	 * @throws java.io.IOException if an I/O error occurs or the tag has another type.
+	 */
+	public int getInt() throws IOException {
+		consume(NBTConstants.TYPE_INT);
+		return readInt();
+	}
+
+	/**
+	 * Reads the current {@code TAG_Long} value.
+	 * @return The value.
+	 * @throws java.io.IOException if an I/O error occurs or the tag has another type.
+	 */
+	public long getLong() throws IOException {
+		consume(NBTConstants.TYPE_LONG);
+		return readLong();
+	}
+
+	/**
+	 * Reads the current {@code TAG_Float} value.
+	 * @return The value.
+	 * @throws java.io.IOException if an I/O error occurs or the tag has another type.
+	 */
+	public float getFloat() throws IOException {
+		consume(NBTConstants.TYPE_FLOAT);
+		return Float.intBitsToFloat(readInt());
+	}
+
+	/**
+	 * Reads the current {@code TAG_Double} value.
+	 * @return The value.
+	 * @throws java.io.IOException if an I/O error occurs or the tag has another type.
+	 */
+	public double getDouble() throws IOException {
+		consume(NBTConstants.TYPE_DOUBLE);
+		return Double.longBitsToDouble(readLong());
+	}
+
+	/**
+	 * Reads the current {@code TAG_String} value.
+	 * @return The value.
+	 * @throws java.io.IOException if an I/O error occurs or the tag has another type.
+	 */
+	public String getString() throws IOException {
+		consume(NBTConstants.TYPE_STRING);
+		byte[] bytes = new byte[readShort() & 0xFFFF];
+		is.readFully(bytes);
+		return new String(bytes, NBTConstants.CHARSET);
+	}
+
+	/**
+	 * Reads the current {@code TAG_Byte_Array} value.
+	 * @return The value.
+	 * @throws java.io.IOException if an I/O error occurs or the tag has another type.
+	 */
+	public byte[] getByteArray() throws IOException {
+		consume(NBTConstants.TYPE_BYTE_ARRAY);
+		byte[] bytes = new byte[readLength()];
+		is.readFully(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Reads the current {@code TAG_Int_Array} value.
+	 * @return The value.
+	 * @throws java.io.IOException if an I/O error occurs or the tag has another type.
+	 */
+	public int[] getIntArray() throws IOException {
+		consume(NBTConstants.TYPE_INT_ARRAY);
+		int[] ints = new int[readLength()];
+		for (int i = 0; i < ints.length; i++) {
+			ints[i] = readInt();
+		}
+		return ints;
+	}
+
+	/**
+	 * Reads the current {@code TAG_Short_Array} value.
+	 * @return The value.
+	 * @throws java.io.IOException if an I/O error occurs or the tag has another type.
+	 */
+	public short[] getShortArray() throws IOException {
+		consume(NBTConstants.TYPE_SHORT_ARRAY);
+		short[] shorts = new short[readLength()];
+		for (int i = 0; i < shorts.length; i++) {
+			shorts[i] = readShort();
+		}
+		return shorts;
+	}
+
+	/**
+	 * Reads the current value, compound or list as a {@link Tag}, in the same
+	 * form {@link NBTInputStream} would produce it.
+	 * @return The tag.
+	 * @throws java.io.IOException if an I/O error occurs.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public Tag readTag() throws IOException {
+		String tagName = getName();
+		switch (type) {
+		case NBTConstants.TYPE_BYTE:
+			return new ByteTag(tagName, getByte());
+		case NBTConstants.TYPE_SHORT:
+			return new ShortTag(tagName, getShort());
+		case NBTConstants.TYPE_INT:
+			return new IntTag(tagName, getInt());
+		case NBTConstants.TYPE_LONG:
+			return new LongTag(tagName, getLong());
+		case NBTConstants.TYPE_FLOAT:
+			return new FloatTag(tagName, getFloat());
+		case NBTConstants.TYPE_DOUBLE:
+			return new DoubleTag(tagName, getDouble());
+		case NBTConstants.TYPE_BYTE_ARRAY:
+			return new ByteArrayTag(tagName, getByteArray());
+		case NBTConstants.TYPE_STRING:
+			return new StringTag(tagName, getString());
+		case NBTConstants.TYPE_INT_ARRAY:
+			return new IntArrayTag(tagName, getIntArray());
+		case NBTConstants.TYPE_SHORT_ARRAY:
+			return new ShortArrayTag(tagName, getShortArray());
+		case NBTConstants.TYPE_COMPOUND:
+			requireContainer();
+			List<Tag> children = new ArrayList<Tag>();
+			while (nextToken() != Token.COMPOUND_END) {
+				children.add(readTag());
+			}
+			return new CompoundTag(tagName, children);
+		case NBTConstants.TYPE_LIST:
+			requireContainer();
+			ListTag<?> primitiveList = readPrimitiveList(tagName);
+			if (primitiveList != null) {
+				pendingContainer = false;
+				return primitiveList;
+			}
+			Class<? extends Tag> clazz = NBTUtils.getTypeClass(listType);
+			List<Tag> elements = new ArrayList<Tag>(Math.min(listLength, 1024));
+			while (nextToken() != Token.LIST_END) {
+				elements.add(readTag());
+			}
+			return new ListTag(tagName, clazz, elements);
+		default:
+			throw new IOException("Invalid tag type: " + type + ".");
+		}
+	}
+
+	/**
+	 * Reads the elements of the current numeric list into a primitive array.
+	 * @param tagName The name of the list.
+	 * @return The tag, or {@code null} if the elements are not
+	 * {@code TAG_Int}, {@code TAG_Long}, {@code TAG_Float} or {@code TAG_Double}.
+	 * @throws java.io.IOException if an I/O error occurs.
+	 */
+	private ListTag<?> readPrimitiveList(String tagName) throws IOException {
+		switch (listType) {
+		case NBTConstants.TYPE_INT:
+			int[] ints = new int[Math.min(listLength, MAX_PREALLOCATED_ELEMENTS)];
+			for (int i = 0; i < listLength; i++) {
+				if (i == ints.length) {
+					ints = Arrays.copyOf(ints, (int) Math.min(listLength, 2L * i));
+				}
+				ints[i] = readInt();
+			}
+			return ListTag.ofInts(tagName, ints);
+		case NBTConstants.TYPE_LONG:
+			long[] longs = new long[Math.min(listLength, MAX_PREALLOCATED_ELEMENTS)];
+			for (int i = 0; i < listLength; i++) {
+				if (i == longs.length) {
+					longs = Arrays.copyOf(longs, (int) Math.min(listLength, 2L * i));
+				}
+				longs[i] = readLong();
+			}
+			return ListTag.ofLongs(tagName, longs);
+		case NBTConstants.TYPE_FLOAT:
+			float[] floats = new float[Math.min(listLength, MAX_PREALLOCATED_ELEMENTS)];
+			for (int i = 0; i < listLength; i++) {
+				if (i == floats.length) {
+					floats = Arrays.copyOf(floats, (int) Math.min(listLength, 2L * i));
+				}
+				floats[i] = Float.intBitsToFloat(readInt());
+			}
+			return ListTag.ofFloats(tagName, floats);
+		case NBTConstants.TYPE_DOUBLE:
+			double[] doubles = new double[Math.min(listLength, MAX_PREALLOCATED_ELEMENTS)];
+			for (int i = 0; i < listLength; i++) {
+				if (i == doubles.length) {
+					doubles = Arrays.copyOf(doubles, (int) Math.min(listLength, 2L * i));
+				}
+				doubles[i] = Double.longBitsToDouble(readLong());
+			}
+			return ListTag.ofDoubles(tagName, doubles);
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Reads only the given tags from the root compound and skips everything
+	 * else by length. Paths name nested compound children separated by
+	 * {@code '/'}, e.g. {@code "Player/abilities/mayfly"}. Reading stops as
+	 * soon as every path has been found, so the rest of the stream is left
+	 * unread.
+	 * @param paths The paths to read.
+	 * @return The tags found, keyed by path. Paths which do not exist are absent.
+	 * @throws java.io.IOException if an I/O error occurs or the root is not a compound.
+	 */
+	public Map<String, Tag> readPaths(String... paths) throws IOException {
+		PathNode root = new PathNode(null);
+		int wanted = 0;
+		for (String path : paths) {
+			PathNode node = root;
+			for (String segment : path.split("/")) {
+				PathNode child = node.children.get(segment);
+				if (child == null) {
+					child = new PathNode(segment);
+					node.children.put(segment, child);
+				}
+				node = child;
+			}
+			if (node.path == null) {
+				node.path = path;
+				wanted++;
+			}
+		}
+		Map<String, Tag> found = new HashMap<String, Tag>();
+		if (nextToken() != Token.COMPOUND_START) {
+			throw new IOException("Root tag is not a TAG_Compound.");
+		}
+		readPaths(root, found, wanted);
+		return found;
+	}
+
+	/**
+	 * Reads the requested children of the compound which has just been entered.
+	 * @param node The requested paths below this compound.
+	 * @param found The tags found so far.
+	 * @param wanted The total number of paths requested.
+	 * @return Whether every path has been found.
+	 * @throws java.io.IOException if an I/O error occurs.
+	 */
+	private boolean readPaths(PathNode node, Map<String, Tag> found, int wanted) throws IOException {
+		int pending = node.children.size();
+		Token token;
+		while ((token = nextToken()) != Token.COMPOUND_END) {
+			PathNode child = null;
+			if (pending > 0) {
+				for (PathNode candidate : node.children.values()) {
+					if (!candidate.done && isName(candidate.segment)) {
+						child = candidate;
+						break;
+					}
+				}
+			}
+			if (child == null) {
+				skipValue();
+				continue;
+			}
+			if (child.path != null) {
+				found.put(child.path, readTag());
+				child.done = true;
+				pending--;
+				if (found.size() == wanted) {
+					return true;
+				}
+			} else if (token == Token.COMPOUND_START) {
+				if (readPaths(child, found, wanted)) {
+					return true;
+				}
+				child.done = true;
+				pending--;
+			} else {
+				skipValue();
+			}
+		}
+		return false;
+	}
+
+	public void close() throws IOException {
+		is.close();
+	}
+
+	/**
+	 * @return whether this NBTReader reads numbers in little-endian format.
+	 */
+	public boolean isLittleEndian() {
+		return littleEndian;
+	}
+
+	/**
+	 * Reports the token for a tag whose type and name have been read.
+	 * @param tagType The type.
+	 * @return The token.
+	 * @throws java.io.IOException if an I/O error occurs.
+	 */
+	private Token begin(int tagType) throws IOException {
+		type = tagType;
+		switch (tagType) {
+		case NBTConstants.TYPE_COMPOUND:
+			pendingContainer = true;
+			return Token.COMPOUND_START;
+		case NBTConstants.TYPE_LIST:
+			listType = is.readByte() & 0xFF;
+			listLength = readLength();
+			if (listType == NBTConstants.TYPE_END && listLength > 0) {
+				throw new IOException("TAG_End not permitted in a list.");
+			}
+			pendingContainer = true;
+			return Token.LIST_START;
+		case NBTConstants.TYPE_END:
+			throw new IOException("TAG_End not permitted in a list.");
+		default:
+			if (tagType > NBTConstants.TYPE_INT_ARRAY && tagType != NBTConstants.TYPE_SHORT_ARRAY) {
+				throw new IOException("Invalid tag type: " + tagType + ".");
+			}
+			pendingValue = true;
+			return Token.VALUE;
+		}
+	}
+
+	/**
+	 * Pushes the compound or list started by the current token.
+	 */
+	private void enterContainer() {
+		if (depth == containerTypes.length) {
+			containerTypes = Arrays.copyOf(containerTypes, depth * 2);
+			remaining = Arrays.copyOf(remaining, depth * 2);
+		}
+		if (type == NBTConstants.TYPE_COMPOUND) {
+			containerTypes[depth] = -1;
+		} else {
+			containerTypes[depth] = listType;
+			remaining[depth] = listLength;
+		}
+		depth++;
+		pendingContainer = false;
+	}
+
+	/**
+	 * Ensures the current token starts a container which has not been entered.
+	 * @throws java.io.IOException if it does not.
+	 */
+	private void requireContainer() throws IOException {
+		if (!pendingContainer) {
+			throw new IOException("No unread " + (type == NBTConstants.TYPE_LIST ? "TAG_List" : "TAG_Compound") + " at this position.");
+		}
+	}
+
+	/**
+	 * Marks the current value as consumed.
+	 * @param expected The type the caller expects.
+	 * @throws java.io.IOException if the current tag is not an unread value of that type.
+	 */
+	private void consume(int expected) throws IOException {
+		if (!pendingValue || type != expected) {
+			throw new IOException("Expected unread " + NBTUtils.getTypeName(NBTUtils.getTypeClass(expected))
+					+ " but found type " + type + (pendingValue ? "" : " (already read)") + ".");
+		}
+		pendingValue = false;
+	}
+
+	/**
+	 * Reads the name of the current tag into {@link #nameBytes}.
+	 * @throws java.io.IOException if an I/O error occurs.
+	 */
+	private void readName() throws IOException {
+		nameLength = readShort() & 0xFFFF;
+		if (nameLength > nameBytes.length) {
+			nameBytes = new byte[Math.max(nameLength, nameBytes.length * 2)];
+		}
+		is.readFully(nameBytes, 0, nameLength);
+	}
+
+	/**
+	 * Skips the rest of a compound whose start has been read.
+	 * @throws java.io.IOException if an I/O error occurs.
+	 */
+	private void skipCompound() throws IOException {
+		while (true) {
+			int childType = is.readByte() & 0xFF;
+			if (childType == NBTConstants.TYPE_END) {
+				return;
+			}
+			skipBytes(readShort() & 0xFFFF);
+			skipPayload(childType);
+		}
+	}
+
+	/**
+	 * Skips the elements of a list whose header has been read.
+	 * @param elementType The element type.
+	 * @param count The number of elements.
+	 * @throws java.io.IOException if an I/O error occurs.
+	 */
+	private void skipElements(int elementType, int count) throws IOException {
+		int size = fixedSize(elementType);
+		if (size > 0) {
+			skipBytes((long) size * count);
+			return;
+		}
+		for (int i = 0; i < count; i++) {
+			skipPayload(elementType);
+		}
+	}
+
+	/**
+	 * Skips a payload of the given type.
+	 * @param payloadType The type.
+	 * @throws java.io.IOException if an I/O error occurs.
+	 */
+	private void skipPayload(int payloadType) throws IOException {
+		int size = fixedSize(payloadType);
+		if (size > 0) {
+			skipBytes(size);
+			return;
+		}
+		switch (payloadType) {
+		case NBTConstants.TYPE_BYTE_ARRAY:
+			skipBytes(readLength());
+			break;
+		case NBTConstants.TYPE_STRING:
+			skipBytes(readShort() & 0xFFFF);
+			break;
+		case NBTConstants.TYPE_INT_ARRAY:
+			skipBytes(4L * readLength());
+			break;
+		case NBTConstants.TYPE_SHORT_ARRAY:
+			skipBytes(2L * readLength());
+			break;
+		case NBTConstants.TYPE_LIST:
+			int elementType = is.readByte() & 0xFF;
+			skipElements(elementType, readLength());
+			break;
+		case NBTConstants.TYPE_COMPOUND:
+			skipCompound();
+			break;
+		default:
+			throw new IOException("Invalid tag type: " + payloadType + ".");
+		}
+	}
+
+	/**
+	 * Gets the payload size of a fixed-size type.
+	 * @param payloadType The type.
+	 * @return The size in bytes, or 0 if the payload has a variable size.
+	 */
+	private static int fixedSize(int payloadType) {
+		switch (payloadType) {
+		case NBTConstants.TYPE_BYTE:
+			return 1;
+		case NBTConstants.TYPE_SHORT:
+			return 2;
+		case NBTConstants.TYPE_INT:
+		case NBTConstants.TYPE_FLOAT:
+			return 4;
+		case NBTConstants.TYPE_LONG:
+		case NBTConstants.TYPE_DOUBLE:
+			return 8;
+		default:
+			return 0;
+		}
+	}
+
+	/**
+	 * Skips exactly {@code count} bytes.
+	 * @param count The number of bytes.
+	 * @throws java.io.IOException if an I/O error occurs or the stream ends early.
+	 */
+	private void skipBytes(long count) throws IOException {
+		while (count > 0) {
+			int skipped = is.skipBytes((int) Math.min(count, Integer.MAX_VALUE));
+			if (skipped <= 0) {
+				if (skipBuffer == null) {
+					skipBuffer = new byte[4096];
+				}
+				int read = is.read(skipBuffer, 0, (int) Math.min(count, skipBuffer.length));
+				if (read < 0) {
+					throw new EOFException();
+				}
+				skipped = read;
+			}
+			count -= skipped;
+		}
+	}
+
+	/**
+	 * A node of the path tree used by {@link #readPaths(String...)}.
+	 */
+	private static final class PathNode {
+		private final String segment;
+		private final Map<String, PathNode> children = new LinkedHashMap<String, PathNode>();
+		private String path;
+		private boolean done;
+
+		private PathNode(String segment) {
+			this.segment = segment;
+		}
+	}
+
+	private int readLength() throws IOException {
+		int length = readInt();
+		if (length < 0) {
+			throw new IOException("Negative length: " + length + ".");
+		}
+		return length;
+	}
+
+	private short readShort() throws IOException {
+		short value = is.readShort();
+		return littleEndian ? Short.reverseBytes(value) : value;
+	}
+
+	private int readInt() throws IOException {
+		int value = is.readInt();
+		return littleEndian ? Integer.reverseBytes(value) : value;
+	}
+
+	private long readLong() throws IOException {
+		long value = is.readLong();
+		return littleEndian ? Long.reverseBytes(value) : value;
+	}
+}
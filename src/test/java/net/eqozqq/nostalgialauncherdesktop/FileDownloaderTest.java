@@ -0,0 +1,185 @@
+package net.eqozqq.nostalgialauncherdesktop;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FileDownloaderTest {
+    private LocalHttpServer server;
+    private LocalHttpServer mirror;
+    private File dir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new LocalHttpServer();
+        mirror = new LocalHttpServer();
+        dir = Files.createTempDirectory("downloader").toFile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+        mirror.close();
+        FileUtils.deleteQuietly(dir);
+    }
+
+    @Test
+    void resumesWithIfRangeAfterConnectionDrop() throws IOException {
+        byte[] content = randomBytes(300_000, 1);
+        server.serveTruncated("/game.apk", content, "\"v1\"", 100_000, 1);
+        File target = new File(dir, "game.apk");
+
+        new FileDownloader(server.url("/game.apk"), target).download(null, null);
+
+        assertArrayEquals(content, Files.readAllBytes(target.toPath()));
+        String resumed = server.getRequests().get(server.getRequests().size() - 1);
+        assertTrue(resumed.contains("range=bytes=") && resumed.contains("if-range=\"v1\""), resumed);
+    }
+
+    @Test
+    void discardsPartialFileWhenServerCopyChanged() throws IOException {
+        byte[] oldContent = randomBytes(1_000_000, 2);
+        byte[] newContent = randomBytes(1_000_000, 3);
+        server.serveTruncated("/game.apk", oldContent, "\"v1\"", 100_000, Integer.MAX_VALUE);
+        File target = new File(dir, "game.apk");
+        try {
+            new FileDownloader(server.url("/game.apk"), target).download(null, null);
+        } catch (IOException expected) {
+        }
+        assertTrue(new File(dir, "game.apk.part").length() > 0, "partial file kept for resume");
+
+        server.serve("/game.apk", newContent, "\"v2\"");
+        new FileDownloader(server.url("/game.apk"), target).download(null, null);
+
+        assertArrayEquals(newContent, Files.readAllBytes(target.toPath()));
+    }
+
+    @Test
+    void discardsPartialFileWithoutSavedState() throws IOException {
+        byte[] content = randomBytes(200_000, 4);
+        server.serve("/game.apk", content, "\"v1\"");
+        File target = new File(dir, "game.apk");
+        Files.write(new File(dir, "game.apk.part").toPath(), randomBytes(50_000, 5));
+
+        new FileDownloader(server.url("/game.apk"), target).download(null, null);
+
+        assertArrayEquals(content, Files.readAllBytes(target.toPath()));
+    }
+
+    @Test
+    void failoverResumesOnMirrorWithSameSize() throws IOException {
+        byte[] content = randomBytes(300_000, 6);
+        server.serveTruncated("/game.bin", content, "\"primary\"", 100_000, Integer.MAX_VALUE);
+        mirror.serve("/game.bin", content, "\"mirror\"");
+        File target = new File(dir, "game.bin");
+
+        FileDownloader downloader = new FileDownloader(
+                List.of(server.url("/game.bin"), mirror.url("/game.bin")), target);
+        downloader.setExpectedSha256(ApkCache.sha256(writeTemp(content)));
+        downloader.download(null, null);
+
+        assertArrayEquals(content, Files.readAllBytes(target.toPath()));
+        List<String> requests = mirror.getRequests();
+        assertEquals(1, requests.size());
+        assertTrue(requests.get(0).contains("range=bytes=100000-"), requests.get(0));
+        assertTrue(requests.get(0).contains("if-range=null"), requests.get(0));
+    }
+
+    @Test
+    void failoverToMirrorWithOtherSizeRestartsFromZero() throws IOException {
+        byte[] primary = randomBytes(300_000, 7);
+        byte[] lagging = randomBytes(280_000, 8);
+        server.serveTruncated("/game.apk", primary, "\"v2\"", 100_000, Integer.MAX_VALUE);
+        mirror.serve("/game.apk", lagging, "\"v1\"");
+        File target = new File(dir, "game.apk");
+
+        new FileDownloader(List.of(server.url("/game.apk"), mirror.url("/game.apk")), target).download(null, null);
+
+        assertArrayEquals(lagging, Files.readAllBytes(target.toPath()));
+        List<String> requests = mirror.getRequests();
+        assertTrue(requests.get(0).contains("range=bytes=100000-"), requests.get(0));
+        assertTrue(requests.get(requests.size() - 1).contains("range=null"), requests.get(requests.size() - 1));
+    }
+
+    @Test
+    void failoverRestartsWhenResumedArchiveIsCorrupt() throws IOException {
+        byte[] primary = storedZip(9);
+        byte[] other = storedZip(10);
+        assertEquals(primary.length, other.length);
+        server.serveTruncated("/game.apk", primary, "\"v2\"", primary.length / 3, Integer.MAX_VALUE);
+        mirror.serve("/game.apk", other, "\"v1\"");
+        File target = new File(dir, "game.apk");
+
+        new FileDownloader(List.of(server.url("/game.apk"), mirror.url("/game.apk")), target).download(null, null);
+
+        assertArrayEquals(other, Files.readAllBytes(target.toPath()));
+        List<String> requests = mirror.getRequests();
+        assertEquals(2, requests.size());
+        assertTrue(requests.get(0).contains("range=bytes=" + primary.length / 3 + "-"), requests.get(0));
+        assertTrue(requests.get(1).contains("range=null"), requests.get(1));
+        assertTrue(ApkCache.isIntactZip(target));
+    }
+
+    @Test
+    void segmentedDownloadRestartsWhenLayoutChanged() throws IOException {
+        byte[] content = randomBytes(3 * 1024 * 1024, 8);
+        server.serve("/game.apk", content, "\"v1\"");
+        File target = new File(dir, "game.apk");
+        Files.write(new File(dir, "game.apk.part.0").toPath(), randomBytes(1024, 9));
+        Files.write(new File(dir, "game.apk.part.1").toPath(), randomBytes(1024, 10));
+
+        FileDownloader downloader = new FileDownloader(server.url("/game.apk"), target);
+        downloader.setSegments(3);
+        downloader.download(null, null);
+
+        assertArrayEquals(content, Files.readAllBytes(target.toPath()));
+        assertFalse(new File(dir, "game.apk.part.0").exists());
+        assertFalse(new File(dir, "game.apk.part.json").exists());
+    }
+
+    private File writeTemp(byte[] content) throws IOException {
+        File file = File.createTempFile("expected", ".bin", dir);
+        Files.write(file.toPath(), content);
+        return file;
+    }
+
+    private static byte[] storedZip(long seed) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (int i = 0; i < 4; i++) {
+                byte[] data = randomBytes(100_000, seed * 10 + i);
+                CRC32 crc = new CRC32();
+                crc.update(data);
+                ZipEntry entry = new ZipEntry("lib/part" + i + ".so");
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(data.length);
+                entry.setCrc(crc.getValue());
+                zip.putNextEntry(entry);
+                zip.write(data);
+                zip.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] randomBytes(int size, long seed) {
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
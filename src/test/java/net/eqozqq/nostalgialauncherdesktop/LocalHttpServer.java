@@ -0,0 +1,124 @@
+package net.eqozqq.nostalgialauncherdesktop;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class LocalHttpServer implements AutoCloseable {
+    private final HttpServer server;
+    private final Map<String, Resource> resources = new ConcurrentHashMap<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    LocalHttpServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    String prefix() {
+        return url("/");
+    }
+
+    void serve(String path, byte[] content, String etag) {
+        resources.put(path, new Resource(content, etag, -1, 0));
+    }
+
+    void serveTruncated(String path, byte[] content, String etag, int cutAfter, int times) {
+        resources.put(path, new Resource(content, etag, cutAfter, times));
+    }
+
+    void fail(String path) {
+        resources.put(path, new Resource(null, null, -1, 0));
+    }
+
+    List<String> getRequests() {
+        return requests;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        String ifRange = exchange.getRequestHeaders().getFirst("If-Range");
+        requests.add(exchange.getRequestMethod() + " " + path + " range=" + range + " if-range=" + ifRange);
+        Resource resource = resources.get(path);
+        if (resource == null || resource.content == null) {
+            exchange.sendResponseHeaders(resource == null ? 404 : 500, -1);
+            exchange.close();
+            return;
+        }
+        byte[] content = resource.content;
+        exchange.getResponseHeaders().set("ETag", resource.etag);
+        exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Content-Length", String.valueOf(content.length));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+            return;
+        }
+
+        int from = 0;
+        int to = content.length - 1;
+        int status = 200;
+        if (range != null && (ifRange == null || ifRange.equals(resource.etag))) {
+            String[] bounds = range.substring("bytes=".length()).split("-", -1);
+            from = Integer.parseInt(bounds[0]);
+            if (!bounds[1].isEmpty()) {
+                to = Math.min(to, Integer.parseInt(bounds[1]));
+            }
+            if (from >= content.length) {
+                exchange.getResponseHeaders().set("Content-Range", "bytes */" + content.length);
+                exchange.sendResponseHeaders(416, -1);
+                exchange.close();
+                return;
+            }
+            status = 206;
+            exchange.getResponseHeaders().set("Content-Range",
+                    "bytes " + from + "-" + to + "/" + content.length);
+        }
+        int length = to - from + 1;
+        exchange.sendResponseHeaders(status, length);
+        OutputStream out = exchange.getResponseBody();
+        if (resource.cutAfter >= 0 && resource.remainingCuts.getAndDecrement() > 0) {
+            out.write(content, from, Math.min(length, resource.cutAfter));
+            out.flush();
+            throw new IOException("Connection dropped by test server");
+        }
+        try {
+            out.write(content, from, length);
+            out.close();
+        } catch (IOException e) {
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static class Resource {
+        final byte[] content;
+        final String etag;
+        final int cutAfter;
+        final AtomicInteger remainingCuts;
+
+        Resource(byte[] content, String etag, int cutAfter, int times) {
+            this.content = content;
+            this.etag = etag;
+            this.cutAfter = cutAfter;
+            this.remainingCuts = new AtomicInteger(times);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package net.eqozqq.nostalgialauncherdesktop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MirrorSelectorTest {
+    private LocalHttpServer broken;
+    private LocalHttpServer healthy;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        broken = new LocalHttpServer();
+        healthy = new LocalHttpServer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        broken.close();
+        healthy.close();
+    }
+
+    @Test
+    void ranksHealthyMirrorFirst() {
+        broken.fail("/game.apk");
+        healthy.serve("/game.apk", new byte[100_000], "\"v1\"");
+        MirrorSelector selector = MirrorSelector.getInstance();
+        selector.setMirrors(List.of(List.of(broken.prefix(), healthy.prefix())));
+
+        List<String> candidates = selector.candidates(broken.url("/game.apk"));
+
+        assertEquals(List.of(healthy.url("/game.apk"), broken.url("/game.apk")), candidates);
+    }
+
+    @Test
+    void reportedFailureMovesMirrorLast() {
+        healthy.serve("/game.apk", new byte[100_000], "\"v1\"");
+        broken.serve("/game.apk", new byte[100_000], "\"v1\"");
+        MirrorSelector selector = MirrorSelector.getInstance();
+        selector.setMirrors(List.of(List.of(broken.prefix(), healthy.prefix())));
+        selector.candidates(broken.url("/game.apk"));
+
+        selector.reportFailure(broken.url("/game.apk"));
+
+        assertEquals(healthy.url("/game.apk"), selector.candidates(broken.url("/game.apk")).get(0));
+    }
+
+    @Test
+    void leavesUnknownHostsAlone() {
+        MirrorSelector selector = MirrorSelector.getInstance();
+        selector.setMirrors(List.of(List.of(broken.prefix(), healthy.prefix())));
+
+        assertEquals(List.of("http://example.invalid/game.apk"),
+                MirrorSelector.getInstance().candidates("http://example.invalid/game.apk"));
+    }
+}
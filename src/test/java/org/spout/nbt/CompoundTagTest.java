@@ -0,0 +1,110 @@
+/*
+ * This file is part of SpoutNBT (http://www.spout.org/).
+ *
+ * SpoutNBT is licensed under the SpoutDev License Version 1.
+ *
+ * SpoutNBT is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * In addition, 180 days after any changes are published, you can use the
+ * software, incorporating those changes, under the terms of the MIT license,
+ * as described in the SpoutDev License Version 1.
+ *
+ * SpoutNBT is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License,
+ * the MIT license and the SpoutDev License Version 1 along with this program.
+ * If not, see <http://www.gnu.org/licenses/> for the GNU Lesser General Public
+ * License and see <http://www.spout.org/SpoutDevLicenseV1.txt> for the full license,
+ * including the MIT license.
+ */
+package org.spout.nbt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+class CompoundTagTest {
+	private final CompoundTag abilities = new CompoundTag("abilities", Arrays.<Tag>asList(new ByteTag("mayfly", (byte) 1)));
+	private final ListTag<FloatTag> pos = ListTag.ofFloats("Pos", new float[] { 1f, 2f, 3f });
+	private final CompoundTag tag = new CompoundTag("", Arrays.<Tag>asList(
+			new ByteTag("byte", (byte) 5),
+			new ShortTag("short", (short) 300),
+			new IntTag("int", 70000),
+			new LongTag("long", 1L << 40),
+			new FloatTag("float", 1.5f),
+			new DoubleTag("double", 2.25),
+			new StringTag("string", "value"),
+			abilities,
+			pos));
+
+	@Test
+	void returnsValuesOfMatchingTags() {
+		assertEquals(5, tag.getByte("byte"));
+		assertEquals(300, tag.getShort("short"));
+		assertEquals(70000, tag.getInt("int"));
+		assertEquals(1L << 40, tag.getLong("long"));
+		assertEquals(1.5f, tag.getFloat("float"));
+		assertEquals(2.25, tag.getDouble("double"));
+		assertEquals("value", tag.getString("string"));
+		assertSame(abilities, tag.getCompound("abilities"));
+		assertSame(pos, tag.getList("Pos", FloatTag.class));
+		assertTrue(tag.contains("int"));
+	}
+
+	@Test
+	void returnsDefaultsForMissingTags() {
+		assertEquals(0, tag.getByte("missing"));
+		assertEquals(0, tag.getShort("missing"));
+		assertEquals(0, tag.getInt("missing"));
+		assertEquals(0, tag.getLong("missing"));
+		assertEquals(0f, tag.getFloat("missing"));
+		assertEquals(0.0, tag.getDouble("missing"));
+		assertNull(tag.getString("missing"));
+		assertNull(tag.getCompound("missing"));
+		assertNull(tag.getList("missing", FloatTag.class));
+		assertNull(tag.get("missing"));
+		assertFalse(tag.contains("missing"));
+
+		assertEquals(-1, tag.getByte("missing", (byte) -1));
+		assertEquals(-1, tag.getShort("missing", (short) -1));
+		assertEquals(-1, tag.getInt("missing", -1));
+		assertEquals(-1L, tag.getLong("missing", -1L));
+		assertEquals(-1f, tag.getFloat("missing", -1f));
+		assertEquals(-1.0, tag.getDouble("missing", -1.0));
+		assertEquals("fallback", tag.getString("missing", "fallback"));
+	}
+
+	@Test
+	void returnsDefaultsForTagsOfAnotherType() {
+		assertEquals(0, tag.getInt("long"));
+		assertEquals(7, tag.getInt("short", 7));
+		assertEquals(0, tag.getByte("int"));
+		assertEquals(0.0, tag.getDouble("float"));
+		assertNull(tag.getString("int"));
+		assertNull(tag.getCompound("Pos"));
+		assertNull(tag.get("int", LongTag.class));
+		assertNull(tag.getList("Pos", DoubleTag.class));
+		assertNull(tag.getList("abilities", FloatTag.class));
+	}
+
+	@Test
+	void emptyCompoundReturnsDefaults() {
+		CompoundTag empty = new CompoundTag("", Collections.<Tag>emptyList());
+		assertEquals(0, empty.getInt("int"));
+		assertNull(empty.getString("string"));
+		assertFalse(empty.contains(""));
+	}
+}
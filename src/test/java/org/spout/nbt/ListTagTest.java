@@ -0,0 +1,149 @@
+/*
+ * This file is part of SpoutNBT (http://www.spout.org/).
+ *
+ * SpoutNBT is licensed under the SpoutDev License Version 1.
+ *
+ * SpoutNBT is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * In addition, 180 days after any changes are published, you can use the
+ * software, incorporating those changes, under the terms of the MIT license,
+ * as described in the SpoutDev License Version 1.
+ *
+ * SpoutNBT is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License,
+ * the MIT license and the SpoutDev License Version 1 along with this program.
+ * If not, see <http://www.gnu.org/licenses/> for the GNU Lesser General Public
+ * License and see <http://www.spout.org/SpoutDevLicenseV1.txt> for the full license,
+ * including the MIT license.
+ */
+package org.spout.nbt;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ReadOnlyBufferException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.spout.nbt.stream.NBTInputStream;
+import org.spout.nbt.stream.NBTOutputStream;
+
+class ListTagTest {
+	private static final int[] INTS = { 0, 1, -1, Integer.MIN_VALUE, Integer.MAX_VALUE };
+	private static final long[] LONGS = { 0L, -1L, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 40 };
+	private static final float[] FLOATS = { 0f, -0f, 1.5f, Float.NaN, Float.MIN_VALUE, Float.NEGATIVE_INFINITY };
+	private static final double[] DOUBLES = { 0.0, -0.0, 2.25, Double.NaN, Double.MAX_VALUE, Double.POSITIVE_INFINITY };
+
+	@Test
+	void primitiveListsRoundTripLittleEndian() throws IOException {
+		roundTrip(true);
+	}
+
+	@Test
+	void primitiveListsRoundTripBigEndian() throws IOException {
+		roundTrip(false);
+	}
+
+	private void roundTrip(boolean littleEndian) throws IOException {
+		ListTag<IntTag> ints = readBack(ListTag.ofInts("ints", INTS), littleEndian);
+		assertTrue(ints.isPrimitive());
+		assertEquals("ints", ints.getName());
+		assertArrayEquals(INTS, ints.getInts());
+
+		ListTag<LongTag> longs = readBack(ListTag.ofLongs("longs", LONGS), littleEndian);
+		assertTrue(longs.isPrimitive());
+		assertArrayEquals(LONGS, longs.getLongs());
+
+		ListTag<FloatTag> floats = readBack(ListTag.ofFloats("floats", FLOATS), littleEndian);
+		assertTrue(floats.isPrimitive());
+		assertArrayEquals(FLOATS, floats.getFloats());
+
+		ListTag<DoubleTag> doubles = readBack(ListTag.ofDoubles("doubles", DOUBLES), littleEndian);
+		assertTrue(doubles.isPrimitive());
+		assertArrayEquals(DOUBLES, doubles.getDoubles());
+
+		ListTag<IntTag> empty = readBack(ListTag.ofInts("empty", new int[0]), littleEndian);
+		assertEquals(0, empty.size());
+	}
+
+	@Test
+	void primitiveAndBoxedListsEncodeTheSame() throws IOException {
+		List<IntTag> boxed = new ArrayList<IntTag>();
+		for (int v : INTS) {
+			boxed.add(new IntTag("", v));
+		}
+		ListTag<IntTag> boxedTag = new ListTag<IntTag>("ints", IntTag.class, boxed);
+		ListTag<IntTag> primitiveTag = ListTag.ofInts("ints", INTS);
+
+		assertFalse(boxedTag.isPrimitive());
+		assertEquals(boxedTag, primitiveTag);
+		assertEquals(primitiveTag, boxedTag);
+		assertArrayEquals(INTS, boxedTag.getInts());
+		for (boolean littleEndian : new boolean[] { true, false }) {
+			assertArrayEquals(encode(boxedTag, littleEndian), encode(primitiveTag, littleEndian));
+		}
+	}
+
+	@Test
+	void gettersCopyAndViewsAreReadOnly() {
+		int[] values = { 1, 2, 3 };
+		ListTag<IntTag> tag = ListTag.ofInts("ints", values);
+
+		int[] copy = tag.getInts();
+		assertNotSame(values, copy);
+		copy[0] = 42;
+		assertEquals(1, tag.getInts()[0]);
+
+		assertEquals(3, tag.getIntView().remaining());
+		assertEquals(2, tag.getIntView().get(1));
+		assertTrue(tag.getIntView().isReadOnly());
+		assertThrows(ReadOnlyBufferException.class, () -> tag.getIntView().put(0, 42));
+		assertThrows(UnsupportedOperationException.class, () -> tag.getValue().clear());
+
+		assertNull(tag.getLongView());
+		assertNull(tag.getFloatView());
+		assertNull(tag.getDoubleView());
+		assertNull(tag.getLongs());
+		assertNull(ListTag.ofDoubles("d", DOUBLES).getIntView());
+	}
+
+	@Test
+	void clonesPrimitiveLists() {
+		ListTag<FloatTag> tag = ListTag.ofFloats("floats", FLOATS);
+		ListTag<FloatTag> clone = tag.clone();
+		assertTrue(clone.isPrimitive());
+		assertEquals(tag, clone);
+		assertArrayEquals(FLOATS, clone.getFloats());
+	}
+
+	private static byte[] encode(Tag tag, boolean littleEndian) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (NBTOutputStream out = new NBTOutputStream(bytes, false, littleEndian)) {
+			out.writeTag(tag);
+		}
+		return bytes.toByteArray();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T extends Tag> ListTag<T> readBack(ListTag<T> tag, boolean littleEndian) throws IOException {
+		try (NBTInputStream in = new NBTInputStream(new ByteArrayInputStream(encode(tag, littleEndian)), false, littleEndian)) {
+			return (ListTag<T>) in.readTag();
+		}
+	}
+}
@@ -0,0 +1,203 @@
+/*
+ * This file is part of SpoutNBT (http://www.spout.org/).
+ *
+ * SpoutNBT is licensed under the SpoutDev License Version 1.
+ *
+ * SpoutNBT is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * In addition, 180 days after any changes are published, you can use the
+ * software, incorporating those changes, under the terms of the MIT license,
+ * as described in the SpoutDev License Version 1.
+ *
+ * SpoutNBT is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License,
+ * the MIT license and the SpoutDev License Version 1 along with this program.
+ * If not, see <http://www.gnu.org/licenses/> for the GNU Lesser General Public
+ * License and see <http://www.spout.org/SpoutDevLicenseV1.txt> for the full license,
+ * including the MIT license.
+ */
+package org.spout.nbt.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.spout.nbt.ByteTag;
+import org.spout.nbt.CompoundTag;
+import org.spout.nbt.FloatTag;
+import org.spout.nbt.IntTag;
+import org.spout.nbt.ListTag;
+import org.spout.nbt.LongTag;
+import org.spout.nbt.ShortTag;
+import org.spout.nbt.StringTag;
+import org.spout.nbt.Tag;
+
+/**
+ * Compares the time {@link NBTInputStream} and {@link NBTBufferReader} take
+ * to decode little-endian NBT data.
+ * <p />
+ * Usage: {@code NBTBenchmark [file [offset [iterations]]]}. Without a file a
+ * synthetic {@code entities.dat} with 50000 entities is generated. Pocket
+ * Edition {@code entities.dat} files start with a 12 byte header and
+ * {@code level.dat} files with an 8 byte header, which the offset skips.
+ * <p />
+ * The benchmark lives in the test sources so it is not shipped; run it with
+ * {@code target/classes} and {@code target/test-classes} on the class path.
+ */
+public final class NBTBenchmark {
+	/**
+	 * The number of untimed reads before measuring.
+	 */
+	private static final int WARMUP = 5;
+
+	/**
+	 * The number of entities in the generated data.
+	 */
+	private static final int SYNTHETIC_ENTITIES = 50000;
+
+	/**
+	 * A single way of decoding the data.
+	 */
+	private interface Decoder {
+		Tag decode() throws IOException;
+	}
+
+	private NBTBenchmark() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		final File file = args.length > 0 ? new File(args[0]) : null;
+		final int offset = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+		int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+		final byte[] data;
+		if (file != null) {
+			byte[] contents = Files.readAllBytes(file.toPath());
+			data = new byte[contents.length - offset];
+			System.arraycopy(contents, offset, data, 0, data.length);
+		} else {
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			NBTOutputStream os = new NBTOutputStream(bos, false, true);
+			os.writeTag(createEntities(SYNTHETIC_ENTITIES));
+			os.close();
+			data = bos.toByteArray();
+		}
+		System.out.println("Decoding " + data.length + " bytes, " + iterations + " iterations");
+
+		Decoder stream = new Decoder() {
+			public Tag decode() throws IOException {
+				return new NBTInputStream(new ByteArrayInputStream(data), false, true).readTag();
+			}
+		};
+		Decoder heap = new Decoder() {
+			public Tag decode() throws IOException {
+				return new NBTBufferReader(ByteBuffer.wrap(data), true).readTag();
+			}
+		};
+		final ByteBuffer directBuffer = ByteBuffer.allocateDirect(data.length);
+		directBuffer.put(data).flip();
+		Decoder direct = new Decoder() {
+			public Tag decode() throws IOException {
+				return new NBTBufferReader(directBuffer, true).readTag();
+			}
+		};
+
+		Tag expected = stream.decode();
+		if (!expected.equals(heap.decode()) || !expected.equals(direct.decode())) {
+			throw new IllegalStateException("NBTBufferReader produced different tags than NBTInputStream.");
+		}
+
+		double base = measure("NBTInputStream", stream, iterations);
+		report("NBTBufferReader (heap)", measure(null, heap, iterations), base);
+		report("NBTBufferReader (direct)", measure(null, direct, iterations), base);
+		if (file != null) {
+			Decoder mapped = new Decoder() {
+				public Tag decode() throws IOException {
+					return NBTBufferReader.open(file, offset, true).readTag();
+				}
+			};
+			report("NBTBufferReader (file)", measure(null, mapped, iterations), base);
+		}
+	}
+
+	/**
+	 * Times a decoder.
+	 * @param label The label to print, or {@code null} to print nothing.
+	 * @param decoder The decoder.
+	 * @param iterations The number of timed reads.
+	 * @return The average time of a read in milliseconds.
+	 * @throws java.io.IOException if an I/O error occurs.
+	 */
+	private static double measure(String label, Decoder decoder, int iterations) throws IOException {
+		for (int i = 0; i < WARMUP; i++) {
+			decoder.decode();
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			decoder.decode();
+		}
+		double millis = (System.nanoTime() - start) / 1e6 / iterations;
+		if (label != null) {
+			System.out.println(String.format("%-26s %8.2f ms", label, millis));
+		}
+		return millis;
+	}
+
+	/**
+	 * Prints a measurement relative to the {@link NBTInputStream} baseline.
+	 * @param label The label.
+	 * @param millis The average time of a read in milliseconds.
+	 * @param base The baseline in milliseconds.
+	 */
+	private static void report(String label, double millis, double base) {
+		System.out.println(String.format("%-26s %8.2f ms  %.2fx", label, millis, base / millis));
+	}
+
+	/**
+	 * Creates data shaped like a Pocket Edition {@code entities.dat}.
+	 * @param count The number of entities.
+	 * @return The root tag.
+	 */
+	private static CompoundTag createEntities(int count) {
+		List<CompoundTag> entities = new ArrayList<CompoundTag>(count);
+		for (int i = 0; i < count; i++) {
+			List<Tag> entity = new ArrayList<Tag>();
+			entity.add(new IntTag("id", 10 + i % 30));
+			entity.add(ListTag.ofFloats("Pos", new float[] { i * 0.5f, 64, -i * 0.25f }));
+			entity.add(ListTag.ofFloats("Motion", new float[] { 0, -0.08f, 0 }));
+			entity.add(ListTag.ofFloats("Rotation", new float[] { i % 360, 0 }));
+			entity.add(new FloatTag("FallDistance", 0));
+			entity.add(new ShortTag("Fire", (short) -1));
+			entity.add(new ShortTag("Air", (short) 300));
+			entity.add(new ByteTag("OnGround", (byte) 1));
+			entity.add(new ShortTag("Health", (short) 20));
+			entity.add(new LongTag("UniqueID", i * 31L));
+			entity.add(new StringTag("CustomName", i % 10 == 0 ? "Entity " + i : ""));
+			List<CompoundTag> armor = new ArrayList<CompoundTag>(4);
+			for (int slot = 0; slot < 4; slot++) {
+				List<Tag> item = new ArrayList<Tag>(3);
+				item.add(new ShortTag("id", (short) (slot == 0 ? 0 : 298 + slot)));
+				item.add(new ShortTag("Damage", (short) 0));
+				item.add(new ByteTag("Count", (byte) (slot == 0 ? 0 : 1)));
+				armor.add(new CompoundTag("", item));
+			}
+			entity.add(new ListTag<CompoundTag>("Armor", CompoundTag.class, armor));
+			entities.add(new CompoundTag("", entity));
+		}
+		List<Tag> root = new ArrayList<Tag>(1);
+		root.add(new ListTag<CompoundTag>("Entities", CompoundTag.class, entities));
+		return new CompoundTag("", root);
+	}
+}
@@ -0,0 +1,186 @@
+/*
+ * This file is part of SpoutNBT (http://www.spout.org/).
+ *
+ * SpoutNBT is licensed under the SpoutDev License Version 1.
+ *
+ * SpoutNBT is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * In addition, 180 days after any changes are published, you can use the
+ * software, incorporating those changes, under the terms of the MIT license,
+ * as described in the SpoutDev License Version 1.
+ *
+ * SpoutNBT is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License,
+ * the MIT license and the SpoutDev License Version 1 along with this program.
+ * If not, see <http://www.gnu.org/licenses/> for the GNU Lesser General Public
+ * License and see <http://www.spout.org/SpoutDevLicenseV1.txt> for the full license,
+ * including the MIT license.
+ */
+package org.spout.nbt.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.spout.nbt.ByteArrayTag;
+import org.spout.nbt.ByteTag;
+import org.spout.nbt.CompoundTag;
+import org.spout.nbt.DoubleTag;
+import org.spout.nbt.FloatTag;
+import org.spout.nbt.IntArrayTag;
+import org.spout.nbt.IntTag;
+import org.spout.nbt.ListTag;
+import org.spout.nbt.LongTag;
+import org.spout.nbt.ShortArrayTag;
+import org.spout.nbt.ShortTag;
+import org.spout.nbt.StringTag;
+import org.spout.nbt.Tag;
+
+class NBTBufferReaderTest {
+	@Test
+	void heapBufferMatchesStreamLittleEndian() throws IOException {
+		assertHeapMatches(true);
+	}
+
+	@Test
+	void heapBufferMatchesStreamBigEndian() throws IOException {
+		assertHeapMatches(false);
+	}
+
+	@Test
+	void directBufferMatchesStreamLittleEndian() throws IOException {
+		assertDirectMatches(true);
+	}
+
+	@Test
+	void directBufferMatchesStreamBigEndian() throws IOException {
+		assertDirectMatches(false);
+	}
+
+	@Test
+	void mappedBufferMatchesStreamLittleEndian() throws IOException {
+		assertMappedMatches(true);
+	}
+
+	@Test
+	void mappedBufferMatchesStreamBigEndian() throws IOException {
+		assertMappedMatches(false);
+	}
+
+	@Test
+	void openSkipsHeaderOfLargeFile() throws IOException {
+		byte[] payload = encode(sample(2 * 1024 * 1024), true);
+		byte[] file = new byte[8 + payload.length];
+		System.arraycopy(payload, 0, file, 8, payload.length);
+		File temp = File.createTempFile("level", ".dat");
+		try {
+			Files.write(temp.toPath(), file);
+			assertEquals(decode(payload, true), NBTBufferReader.open(temp, 8, true).readTag());
+		} finally {
+			temp.delete();
+		}
+	}
+
+	private static void assertHeapMatches(boolean littleEndian) throws IOException {
+		byte[] data = encode(sample(1024), littleEndian);
+		assertEquals(decode(data, littleEndian), new NBTBufferReader(ByteBuffer.wrap(data), littleEndian).readTag());
+	}
+
+	private static void assertDirectMatches(boolean littleEndian) throws IOException {
+		byte[] data = encode(sample(1024), littleEndian);
+		ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+		direct.put(data).flip();
+		assertEquals(decode(data, littleEndian), new NBTBufferReader(direct, littleEndian).readTag());
+	}
+
+	private static void assertMappedMatches(boolean littleEndian) throws IOException {
+		byte[] data = encode(sample(1024), littleEndian);
+		File temp = File.createTempFile("nbt", ".dat");
+		try {
+			Files.write(temp.toPath(), data);
+			try (FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.READ)) {
+				ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, data.length);
+				assertEquals(decode(data, littleEndian), new NBTBufferReader(mapped, littleEndian).readTag());
+			}
+		} finally {
+			temp.delete();
+		}
+	}
+
+	private static byte[] encode(Tag tag, boolean littleEndian) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (NBTOutputStream out = new NBTOutputStream(bytes, false, littleEndian)) {
+			out.writeTag(tag);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static Tag decode(byte[] data, boolean littleEndian) throws IOException {
+		try (NBTInputStream in = new NBTInputStream(new ByteArrayInputStream(data), false, littleEndian)) {
+			return in.readTag();
+		}
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static CompoundTag sample(int arraySize) {
+		byte[] bytes = new byte[arraySize];
+		int[] ints = new int[arraySize / 4];
+		short[] shorts = new short[arraySize / 8];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) (i * 31);
+		}
+		for (int i = 0; i < ints.length; i++) {
+			ints[i] = i * 0x01010101;
+		}
+		for (int i = 0; i < shorts.length; i++) {
+			shorts[i] = (short) (i * 257);
+		}
+
+		List<CompoundTag> entities = new ArrayList<CompoundTag>();
+		for (int i = 0; i < 3; i++) {
+			entities.add(new CompoundTag("", Arrays.<Tag>asList(
+					new IntTag("id", 10 + i),
+					ListTag.ofFloats("Pos", new float[] { i, 64.5f, -i }),
+					ListTag.ofDoubles("Motion", new double[] { 0.1 * i, -0.08, Double.MIN_VALUE }),
+					new StringTag("CustomName", "Mob éè " + i))));
+		}
+		List<ListTag> nested = new ArrayList<ListTag>();
+		nested.add(ListTag.ofInts("", new int[] { 1, 2, 3 }));
+		nested.add(new ListTag<IntTag>("", IntTag.class, Arrays.asList(new IntTag("", -1), new IntTag("", -2))));
+		nested.add(ListTag.ofInts("", new int[0]));
+
+		return new CompoundTag("", Arrays.<Tag>asList(
+				new ByteTag("Flag", (byte) 1),
+				new ShortTag("Short", (short) -1234),
+				new IntTag("GameType", 1),
+				new LongTag("RandomSeed", 0x123456789ABCDEFL),
+				new FloatTag("Float", 1.5f),
+				new DoubleTag("Double", -2.25),
+				new StringTag("LevelName", "Test world"),
+				new ByteArrayTag("Blocks", bytes),
+				new IntArrayTag("Heights", ints),
+				new ShortArrayTag("Data", shorts),
+				ListTag.ofLongs("Longs", new long[] { Long.MIN_VALUE, 0, Long.MAX_VALUE }),
+				new ListTag<CompoundTag>("Entities", CompoundTag.class, entities),
+				new ListTag<ListTag>("Nested", ListTag.class, nested),
+				new ListTag<StringTag>("Empty", StringTag.class, new ArrayList<StringTag>())));
+	}
+}
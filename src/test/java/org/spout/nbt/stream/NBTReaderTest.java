@@ -0,0 +1,215 @@
+/*
+ * This file is part of SpoutNBT (http://www.spout.org/).
+ *
+ * SpoutNBT is licensed under the SpoutDev License Version 1.
+ *
+ * SpoutNBT is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * In addition, 180 days after any changes are published, you can use the
+ * software, incorporating those changes, under the terms of the MIT license,
+ * as described in the SpoutDev License Version 1.
+ *
+ * SpoutNBT is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License,
+ * the MIT license and the SpoutDev License Version 1 along with this program.
+ * If not, see <http://www.gnu.org/licenses/> for the GNU Lesser General Public
+ * License and see <http://www.spout.org/SpoutDevLicenseV1.txt> for the full license,
+ * including the MIT license.
+ */
+package org.spout.nbt.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.spout.nbt.ByteArrayTag;
+import org.spout.nbt.ByteTag;
+import org.spout.nbt.CompoundTag;
+import org.spout.nbt.IntTag;
+import org.spout.nbt.ListTag;
+import org.spout.nbt.LongTag;
+import org.spout.nbt.NBTConstants;
+import org.spout.nbt.ShortTag;
+import org.spout.nbt.StringTag;
+import org.spout.nbt.Tag;
+
+class NBTReaderTest {
+	@Test
+	void readsProjectedLevelDat() throws IOException {
+		byte[] data = levelDat();
+		CountingInputStream counting = new CountingInputStream(new ByteArrayInputStream(data));
+		counting.skip(8);
+		Map<String, Tag> tags;
+		try (NBTReader reader = new NBTReader(counting, false, true)) {
+			tags = reader.readPaths("LevelName", "RandomSeed", "GameType");
+		}
+
+		assertEquals(3, tags.size());
+		assertEquals(new StringTag("LevelName", "My World"), tags.get("LevelName"));
+		assertEquals(new LongTag("RandomSeed", -4172144997902289642L), tags.get("RandomSeed"));
+		assertEquals(new IntTag("GameType", 1), tags.get("GameType"));
+		assertTrue(counting.read < 4096, "read " + counting.read + " bytes instead of skipping payloads");
+		assertTrue(counting.read + counting.skipped < data.length - 512 * 1024,
+				"read past the last requested tag");
+	}
+
+	@Test
+	void readsNestedPathsAndOmitsMissingOnes() throws IOException {
+		byte[] data = levelDat();
+		Map<String, Tag> tags;
+		try (NBTReader reader = new NBTReader(new ByteArrayInputStream(data, 8, data.length - 8), false, true)) {
+			tags = reader.readPaths("Player/abilities/mayfly", "Player/Missing", "Trailer", "LevelName");
+		}
+
+		assertEquals(new ByteTag("mayfly", (byte) 1), tags.get("Player/abilities/mayfly"));
+		assertEquals(new StringTag("LevelName", "My World"), tags.get("LevelName"));
+		assertTrue(tags.get("Trailer") instanceof ByteArrayTag);
+		assertFalse(tags.containsKey("Player/Missing"));
+		assertEquals(3, tags.size());
+	}
+
+	@Test
+	void walksTokensAndSkipsContainers() throws IOException {
+		CompoundTag root = new CompoundTag("root", Arrays.<Tag>asList(
+				new IntTag("a", 7),
+				ListTag.ofInts("list", new int[] { 1, 2 }),
+				new CompoundTag("skipped", Arrays.<Tag>asList(new ByteArrayTag("blob", new byte[1000]))),
+				new StringTag("s", "end")));
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (NBTOutputStream out = new NBTOutputStream(bytes, false, false)) {
+			out.writeTag(root);
+		}
+
+		try (NBTReader reader = new NBTReader(new ByteArrayInputStream(bytes.toByteArray()), false, false)) {
+			assertEquals(NBTReader.Token.COMPOUND_START, reader.nextToken());
+			assertTrue(reader.isName("root"));
+			assertEquals(NBTReader.Token.VALUE, reader.nextToken());
+			assertTrue(reader.isName("a"));
+			assertEquals(1, reader.getDepth());
+			assertEquals(7, reader.getInt());
+			assertEquals(NBTReader.Token.LIST_START, reader.nextToken());
+			assertEquals(NBTConstants.TYPE_INT, reader.getListType());
+			assertEquals(2, reader.getListLength());
+			assertEquals(NBTReader.Token.VALUE, reader.nextToken());
+			assertEquals(1, reader.getInt());
+			assertEquals(NBTReader.Token.VALUE, reader.nextToken());
+			assertEquals(2, reader.getInt());
+			assertEquals(NBTReader.Token.LIST_END, reader.nextToken());
+			assertEquals(NBTReader.Token.COMPOUND_START, reader.nextToken());
+			assertEquals("skipped", reader.getName());
+			reader.skipValue();
+			assertEquals(NBTReader.Token.VALUE, reader.nextToken());
+			assertEquals("s", reader.getName());
+			assertEquals("end", reader.getString());
+			assertEquals(NBTReader.Token.COMPOUND_END, reader.nextToken());
+			assertEquals(NBTReader.Token.END_OF_STREAM, reader.nextToken());
+		}
+	}
+
+	@Test
+	void readTagMatchesNBTInputStream() throws IOException {
+		byte[] data = levelDat();
+		Tag expected;
+		try (NBTInputStream in = new NBTInputStream(new ByteArrayInputStream(data, 8, data.length - 8), false, true)) {
+			expected = in.readTag();
+		}
+		Tag actual;
+		try (NBTReader reader = new NBTReader(new ByteArrayInputStream(data, 8, data.length - 8), false, true)) {
+			reader.nextToken();
+			actual = reader.readTag();
+			assertEquals(NBTReader.Token.END_OF_STREAM, reader.nextToken());
+		}
+		assertEquals(expected, actual);
+	}
+
+	/**
+	 * Builds a Pocket Edition style {@code level.dat}: an 8 byte header, then a
+	 * little-endian root compound whose requested tags sit between a large
+	 * {@code Player} compound and a large trailing byte array.
+	 */
+	static byte[] levelDat() throws IOException {
+		List<CompoundTag> inventory = new ArrayList<CompoundTag>();
+		for (int i = 0; i < 200; i++) {
+			inventory.add(new CompoundTag("", Arrays.<Tag>asList(
+					new ShortTag("id", (short) i),
+					new ByteTag("Count", (byte) 64),
+					new ByteArrayTag("Extra", new byte[256]))));
+		}
+		CompoundTag player = new CompoundTag("Player", Arrays.<Tag>asList(
+				new ListTag<CompoundTag>("Inventory", CompoundTag.class, inventory),
+				ListTag.ofFloats("Pos", new float[] { 128.5f, 70f, 128.5f }),
+				new ByteArrayTag("Armor", new byte[64 * 1024]),
+				new CompoundTag("abilities", Arrays.<Tag>asList(
+						new ByteTag("flying", (byte) 0),
+						new ByteTag("mayfly", (byte) 1)))));
+		CompoundTag root = new CompoundTag("", Arrays.<Tag>asList(
+				player,
+				new ByteArrayTag("Padding", new byte[32 * 1024]),
+				new IntTag("GameType", 1),
+				new StringTag("LevelName", "My World"),
+				new LongTag("RandomSeed", -4172144997902289642L),
+				new ByteArrayTag("Trailer", new byte[1024 * 1024])));
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		bytes.write(new byte[8]);
+		try (NBTOutputStream out = new NBTOutputStream(bytes, false, true)) {
+			out.writeTag(root);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Counts the bytes read and skipped through it.
+	 */
+	private static class CountingInputStream extends FilterInputStream {
+		long read;
+		long skipped;
+
+		CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b >= 0) {
+				read++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if (n > 0) {
+				read += n;
+			}
+			return n;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long s = super.skip(n);
+			skipped += s;
+			return s;
+		}
+	}
+}